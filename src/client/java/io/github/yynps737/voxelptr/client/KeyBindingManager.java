@@ -129,6 +129,8 @@ public class KeyBindingManager {
         // 清空当前目标
         if (core.getTargetTracker() != null) {
             core.getTargetTracker().clear();
+            // 实体、方块实体和结构目标不随矿物预设变化，重新放回追踪器
+            scannerManager.republishTrackedTargets();
         }
 
         // 应用新预设
@@ -181,6 +183,20 @@ public class KeyBindingManager {
         return getCurrentPresetDisplayName();
     }
 
+    /**
+     * 获取当前预设的内部名称（如 diamond）
+     */
+    public String getCurrentPresetId() {
+        return blockPresets[currentBlockPresetIndex];
+    }
+
+    /**
+     * 获取当前预设序号（HUD 用于判断预设名称是否需要重新生成）
+     */
+    public int getCurrentPresetIndex() {
+        return currentBlockPresetIndex;
+    }
+
     /**
      * 应用方块预设
      */
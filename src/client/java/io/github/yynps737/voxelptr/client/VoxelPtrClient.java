@@ -1,12 +1,32 @@
 package io.github.yynps737.voxelptr.client;
 
 import io.github.yynps737.voxelptr.VoxelPtr;
+import io.github.yynps737.voxelptr.client.command.VoxelPtrCommand;
+import io.github.yynps737.voxelptr.client.hud.MetricsDebugHudEntry;
 import io.github.yynps737.voxelptr.core.VoxelPtrCore;
+import io.github.yynps737.voxelptr.scanner.impl.BlockEntityScanner;
+import io.github.yynps737.voxelptr.scanner.impl.EntityEventScanner;
+import io.github.yynps737.voxelptr.trace.TraceRecorder;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientBlockEntityEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientEntityEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.rendering.v1.world.WorldRenderEvents;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.hud.debug.DebugHudEntries;
+import net.minecraft.entity.Entity;
 
 public class VoxelPtrClient implements ClientModInitializer {
 
+    /**
+     * 启动参数 -Dvoxelptr.trace=true 时，每次进入世界都记录区块事件（供离线重放）
+     */
+    private static final boolean TRACE_ENABLED = Boolean.getBoolean("voxelptr.trace");
+
     private static VoxelPtrClientCore clientCore;
 
     @Override
@@ -20,30 +40,186 @@ public class VoxelPtrClient implements ClientModInitializer {
         // 注册客户端 Tick 事件
         registerClientTickEvent();
 
+        // 注册实体加载/卸载事件（驱动实体扫描器）
+        registerEntityEvents();
+        registerBlockEntityEvents();
+
         // 区块加载和方块更新事件通过 Mixin 注入
         // 见 MixinClientChunkManager.java 和 MixinClientWorld.java
 
-        // 渲染和 HUD 通过 Mixin 注入
-        // 见 MixinWorldRenderer.java 和 MixinInGameHud.java
+        // 注册世界高亮渲染事件
+        registerWorldRenderEvent();
+
+        // 客户端退出时关闭客户端组件的后台线程
+        ClientLifecycleEvents.CLIENT_STOPPING.register(client -> clientCore.shutdown());
+
+        // 注册区块事件记录（仅在启动参数开启时）
+        registerTraceEvents();
+
+        // HUD 通过 Mixin 注入
+        // 见 MixinInGameHud.java
+
+        // F3 调试界面显示运行指标（扫描延迟、队列、缓存命中率、tick 和 HUD 耗时）
+        DebugHudEntries.register(MetricsDebugHudEntry.ID, new MetricsDebugHudEntry());
+
+        // 注册 /voxelptr 诊断命令（stats、profile、rescan）
+        VoxelPtrCommand.register();
 
         VoxelPtr.LOGGER.info("VoxelPtr 客户端初始化完成！");
     }
 
     /**
      * 注册客户端 Tick 事件
-     * 用于调用 VoxelPtrCore.tick() 清理过期目标
+     * 用于调用 VoxelPtrCore.tick() 清理过期目标，并生成 HUD 模型
      */
     private void registerClientTickEvent() {
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
             VoxelPtrCore core = VoxelPtr.getCore();
             if (core != null && client.world != null) {
-                core.tick(client.world);
+                // 1.21.9+ API: getPos() 改为 getEntityPos()
+                core.tick(client.world, client.player != null ? client.player.getEntityPos() : null);
+            }
+
+            // 追踪器快照更新后生成 HUD 模型
+            if (clientCore != null && clientCore.getHudManager() != null) {
+                clientCore.getHudManager().tickHud(client);
             }
         });
 
         VoxelPtr.LOGGER.debug("客户端 Tick 事件已注册");
     }
 
+    /**
+     * 注册世界渲染事件
+     * 所有目标轮廓在调试渲染之前一次性写入线条批次
+     */
+    private void registerWorldRenderEvent() {
+        WorldRenderEvents.BEFORE_DEBUG_RENDER.register(context -> {
+            if (clientCore == null || clientCore.getWorldHighlightRenderer() == null) {
+                return;
+            }
+            try {
+                MinecraftClient client = MinecraftClient.getInstance();
+                clientCore.getWorldHighlightRenderer().render(
+                        context.matrices(), context.consumers(), client.gameRenderer.getCamera());
+            } catch (Exception e) {
+                VoxelPtr.LOGGER.error("渲染世界高亮时出错", e);
+            }
+        });
+
+        VoxelPtr.LOGGER.debug("世界渲染事件已注册");
+    }
+
+    /**
+     * 注册区块事件记录
+     * 进入世界时开始记录，断开连接时保存；区块加载和方块更新由 Mixin 写入，区块卸载和玩家位置由事件写入
+     */
+    private void registerTraceEvents() {
+        if (!TRACE_ENABLED) {
+            return;
+        }
+
+        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> {
+            VoxelPtrCore core = VoxelPtr.getCore();
+            String preset = clientCore != null && clientCore.getKeyBindingManager() != null
+                    ? clientCore.getKeyBindingManager().getCurrentPresetId() : "diamond";
+            float maxDistance = core != null ? core.getConfig().getMaxDistanceFilter() : 0.0f;
+            TraceRecorder.start(FabricLoader.getInstance().getGameDir().resolve("voxelptr").resolve("traces"),
+                    preset, maxDistance);
+        });
+
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> TraceRecorder.stop());
+
+        ClientChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> {
+            TraceRecorder recorder = TraceRecorder.getActive();
+            if (recorder != null) {
+                recorder.recordChunkUnload(chunk.getPos());
+            }
+        });
+
+        ClientTickEvents.END_CLIENT_TICK.register(client -> {
+            TraceRecorder recorder = TraceRecorder.getActive();
+            if (recorder != null && client.player != null) {
+                // 1.21.9+ API: getPos() 改为 getEntityPos()
+                recorder.recordPlayerPos(client.player.getEntityPos());
+            }
+        });
+
+        VoxelPtr.LOGGER.info("区块事件记录已开启（-Dvoxelptr.trace=true）");
+    }
+
+    /**
+     * 注册实体加载/卸载事件
+     * 实体扫描器由事件驱动，不轮询世界实体列表
+     */
+    private void registerEntityEvents() {
+        ClientEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+            EntityEventScanner scanner = getEntityScanner();
+            if (scanner != null && entity != MinecraftClient.getInstance().player) {
+                scanner.onEntityLoad(entity);
+            }
+        });
+
+        ClientEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
+            EntityEventScanner scanner = getEntityScanner();
+            if (scanner != null) {
+                scanner.onEntityUnload(entity);
+            }
+        });
+
+        // 启用扫描器或过滤条件变化后，用当前世界的实体重建索引
+        ClientTickEvents.END_CLIENT_TICK.register(client -> {
+            EntityEventScanner scanner = getEntityScanner();
+            if (scanner != null && client.world != null && scanner.consumeResyncRequest()) {
+                for (Entity entity : client.world.getEntities()) {
+                    if (entity != client.player) {
+                        scanner.onEntityLoad(entity);
+                    }
+                }
+            }
+        });
+
+        VoxelPtr.LOGGER.debug("实体事件已注册");
+    }
+
+    /**
+     * 注册方块实体加载/卸载事件
+     * 方块实体扫描器由事件增量更新，放置和破坏都不需要重新扫描区块
+     */
+    private void registerBlockEntityEvents() {
+        ClientBlockEntityEvents.BLOCK_ENTITY_LOAD.register((blockEntity, world) -> {
+            BlockEntityScanner scanner = getBlockEntityScanner();
+            if (scanner != null) {
+                scanner.onBlockEntityLoad(blockEntity);
+            }
+        });
+
+        ClientBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((blockEntity, world) -> {
+            BlockEntityScanner scanner = getBlockEntityScanner();
+            if (scanner != null) {
+                scanner.onBlockEntityUnload(blockEntity);
+            }
+        });
+
+        VoxelPtr.LOGGER.debug("方块实体事件已注册");
+    }
+
+    private static EntityEventScanner getEntityScanner() {
+        VoxelPtrCore core = VoxelPtr.getCore();
+        if (core == null || core.getScannerManager() == null) {
+            return null;
+        }
+        return core.getScannerManager().getEntityScanner();
+    }
+
+    private static BlockEntityScanner getBlockEntityScanner() {
+        VoxelPtrCore core = VoxelPtr.getCore();
+        if (core == null || core.getScannerManager() == null) {
+            return null;
+        }
+        return core.getScannerManager().getBlockEntityScanner();
+    }
+
     /**
      * 获取客户端核心实例
      */
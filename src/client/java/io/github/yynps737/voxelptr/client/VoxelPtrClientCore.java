@@ -2,6 +2,7 @@ package io.github.yynps737.voxelptr.client;
 
 import io.github.yynps737.voxelptr.VoxelPtr;
 import io.github.yynps737.voxelptr.client.hud.HudManager;
+import io.github.yynps737.voxelptr.client.render.WorldHighlightRenderer;
 import io.github.yynps737.voxelptr.core.VoxelPtrCore;
 
 /**
@@ -13,6 +14,7 @@ public class VoxelPtrClientCore {
     private final VoxelPtrCore serverCore;
     private HudManager hudManager;
     private KeyBindingManager keyBindingManager;
+    private WorldHighlightRenderer worldHighlightRenderer;
 
     public VoxelPtrClientCore() {
         this.serverCore = VoxelPtr.getCore();
@@ -30,9 +32,21 @@ public class VoxelPtrClientCore {
         // 初始化按键绑定管理器
         this.keyBindingManager = new KeyBindingManager(serverCore);
 
+        // 初始化世界高亮渲染器
+        this.worldHighlightRenderer = new WorldHighlightRenderer(serverCore);
+
         VoxelPtr.LOGGER.info("客户端组件初始化完成");
     }
 
+    /**
+     * 关闭客户端组件（客户端退出时调用）
+     */
+    public void shutdown() {
+        if (worldHighlightRenderer != null) {
+            worldHighlightRenderer.shutdown();
+        }
+    }
+
     /**
      * 获取 HUD 管理器
      */
@@ -47,6 +61,13 @@ public class VoxelPtrClientCore {
         return keyBindingManager;
     }
 
+    /**
+     * 获取世界高亮渲染器
+     */
+    public WorldHighlightRenderer getWorldHighlightRenderer() {
+        return worldHighlightRenderer;
+    }
+
     /**
      * 获取服务端核心（用于访问配置等共享组件）
      */
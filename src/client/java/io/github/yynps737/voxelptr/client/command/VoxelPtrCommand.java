@@ -0,0 +1,269 @@
+package io.github.yynps737.voxelptr.client.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import io.github.yynps737.voxelptr.VoxelPtr;
+import io.github.yynps737.voxelptr.client.VoxelPtrClient;
+import io.github.yynps737.voxelptr.core.VoxelPtrCore;
+import io.github.yynps737.voxelptr.metrics.Histogram;
+import io.github.yynps737.voxelptr.metrics.MetricsRegistry;
+import io.github.yynps737.voxelptr.scanner.ChunkScanCache;
+import io.github.yynps737.voxelptr.scanner.impl.ChunkEventScanner;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.SharedConstants;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.Text;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.argument;
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
+/**
+ * /voxelptr 客户端命令（诊断用，不需要安装性能分析器）
+ * - stats：输出缓存、追踪器和扫描队列指标（自上次 stats 以来）
+ * - profile &lt;秒数&gt;：记录一段时间内的扫描和渲染耗时，报告保存到 voxelptr/profiles
+ * - rescan：强制重新扫描已加载的区块，全部完成后输出耗时
+ *
+ * profile 和 rescan 在客户端 tick 中检查是否完成，命令本身不阻塞
+ */
+public final class VoxelPtrCommand {
+
+    private static final String PREFIX = "§6[VoxelPtr] §f";
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int MAX_PROFILE_SECONDS = 600;
+
+    /**
+     * 上次 stats 的采样（区间统计的起点）
+     */
+    private static MetricsRegistry.Sample lastStats = MetricsRegistry.sample();
+
+    // 进行中的 profile（客户端线程访问）
+    private static MetricsRegistry.Sample profileStart;
+    private static long profileEndNanos;
+
+    // 进行中的 rescan（客户端线程访问）
+    private static MetricsRegistry.Sample rescanStart;
+    private static ChunkEventScanner.Rescan rescan;
+
+    private VoxelPtrCommand() {
+    }
+
+    /**
+     * 注册命令和完成检查
+     */
+    public static void register() {
+        ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> registerCommand(dispatcher));
+        ClientTickEvents.END_CLIENT_TICK.register(VoxelPtrCommand::tick);
+    }
+
+    private static void registerCommand(CommandDispatcher<FabricClientCommandSource> dispatcher) {
+        dispatcher.register(literal("voxelptr")
+                .then(literal("stats")
+                        .executes(context -> stats(context.getSource())))
+                .then(literal("profile")
+                        .then(argument("seconds", IntegerArgumentType.integer(1, MAX_PROFILE_SECONDS))
+                                .executes(context -> profile(context.getSource(),
+                                        IntegerArgumentType.getInteger(context, "seconds")))))
+                .then(literal("rescan")
+                        .executes(context -> rescan(context.getSource()))));
+    }
+
+    // ========== stats ==========
+
+    private static int stats(FabricClientCommandSource source) {
+        MetricsRegistry.Sample current = MetricsRegistry.sample();
+        MetricsRegistry.Interval interval = current.since(lastStats);
+        lastStats = current;
+
+        feedback(source, "command.voxelptr.stats.header", String.format("%.1f", interval.getSeconds()));
+
+        ChunkEventScanner scanner = getBlockScanner();
+        if (scanner != null) {
+            ChunkScanCache cache = scanner.getCache();
+            feedback(source, "command.voxelptr.stats.cache", cache.size(), cache.getTotalTargetCount(),
+                    formatHitRate(interval.getCacheHitRate()));
+            feedback(source, "command.voxelptr.stats.veins", scanner.getVeinClusterer().getVeins().size(),
+                    scanner.getVeinClusterer().getBlockCount());
+        }
+
+        Histogram.Snapshot tick = interval.getTick();
+        feedback(source, "command.voxelptr.stats.tracker", interval.getTrackerSize(),
+                millis(tick.getValueAtPercentile(0.50)), millis(tick.getValueAtPercentile(0.99)));
+
+        Histogram.Snapshot scan = interval.getScanLatency();
+        feedback(source, "command.voxelptr.stats.scan", interval.getQueueDepth(), interval.getChunksScanned(),
+                String.format("%.1f", interval.getChunksPerSecond()),
+                millis(scan.getValueAtPercentile(0.50)), millis(scan.getValueAtPercentile(0.99)),
+                millis(scan.getMax()));
+
+        Histogram.Snapshot hud = interval.getHudRender();
+        feedback(source, "command.voxelptr.stats.hud",
+                millis(hud.getValueAtPercentile(0.50)), millis(hud.getValueAtPercentile(0.99)));
+        return 1;
+    }
+
+    // ========== profile ==========
+
+    private static int profile(FabricClientCommandSource source, int seconds) {
+        if (profileStart != null) {
+            error(source, "command.voxelptr.profile.running");
+            return 0;
+        }
+        profileStart = MetricsRegistry.sample();
+        profileEndNanos = profileStart.getTimeNanos() + seconds * 1_000_000_000L;
+        feedback(source, "command.voxelptr.profile.started", seconds);
+        return 1;
+    }
+
+    private static void finishProfile(MinecraftClient client) {
+        MetricsRegistry.Interval interval = MetricsRegistry.sample().since(profileStart);
+        profileStart = null;
+
+        try {
+            Path directory = FabricLoader.getInstance().getGameDir().resolve("voxelptr").resolve("profiles");
+            Files.createDirectories(directory);
+            Path path = directory.resolve("profile-" + LocalDateTime.now().format(FILE_NAME_FORMAT) + ".txt");
+            Files.write(path, buildReport(interval));
+
+            VoxelPtr.LOGGER.info("性能报告已保存: {}", path);
+            message(client, Text.translatable("command.voxelptr.profile.saved",
+                    FabricLoader.getInstance().getGameDir().relativize(path).toString()));
+        } catch (IOException e) {
+            VoxelPtr.LOGGER.error("保存性能报告时出错", e);
+            message(client, Text.translatable("command.voxelptr.profile.failed", e.getMessage()));
+        }
+    }
+
+    /**
+     * 生成性能报告（英文，与 F3 指标一致，便于附在问题反馈中）
+     */
+    private static List<String> buildReport(MetricsRegistry.Interval interval) {
+        List<String> lines = new ArrayList<>();
+        lines.add("VoxelPtr profile");
+        lines.add("Date: " + LocalDateTime.now());
+        // 1.21.6+ API: GameVersion.getName() 改为 name()
+        lines.add("Minecraft: " + SharedConstants.getGameVersion().name());
+        lines.add("VoxelPtr: " + FabricLoader.getInstance().getModContainer(VoxelPtr.MOD_ID)
+                .map(mod -> mod.getMetadata().getVersion().getFriendlyString()).orElse("unknown"));
+        lines.add(String.format("Java: %s, %d processors, max heap %d MB", Runtime.version(),
+                Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory() / 1048576));
+        if (VoxelPtrClient.getClientCore() != null && VoxelPtrClient.getClientCore().getKeyBindingManager() != null) {
+            lines.add("Preset: " + VoxelPtrClient.getClientCore().getKeyBindingManager().getCurrentPresetId());
+        }
+        lines.add(String.format("Duration: %.1f s", interval.getSeconds()));
+        lines.add("");
+
+        lines.add(String.format("Chunks scanned: %d (%.1f/s), queue at end: %d",
+                interval.getChunksScanned(), interval.getChunksPerSecond(), interval.getQueueDepth()));
+        lines.add("Cache hit rate (chunk loads): " + formatHitRate(interval.getCacheHitRate()));
+        ChunkEventScanner scanner = getBlockScanner();
+        if (scanner != null) {
+            lines.add(String.format("Cache: %d chunks, %d blocks; veins: %d (%d blocks)",
+                    scanner.getCache().size(), scanner.getCache().getTotalTargetCount(),
+                    scanner.getVeinClusterer().getVeins().size(), scanner.getVeinClusterer().getBlockCount()));
+        }
+        lines.add("Tracker targets at end: " + interval.getTrackerSize());
+        lines.add("");
+
+        addHistogram(lines, "Scan latency (submit to merge)", interval.getScanLatency());
+        addHistogram(lines, "Tick (tracker + scan bounds)", interval.getTick());
+        addHistogram(lines, "HUD render (per frame)", interval.getHudRender());
+        return lines;
+    }
+
+    private static void addHistogram(List<String> lines, String name, Histogram.Snapshot snapshot) {
+        lines.add(String.format("%s: count %d, mean %s, p50 %s, p90 %s, p99 %s, p99.9 %s, max %s", name,
+                snapshot.getCount(), millis((long) snapshot.getMean()),
+                millis(snapshot.getValueAtPercentile(0.50)), millis(snapshot.getValueAtPercentile(0.90)),
+                millis(snapshot.getValueAtPercentile(0.99)), millis(snapshot.getValueAtPercentile(0.999)),
+                millis(snapshot.getMax())));
+    }
+
+    // ========== rescan ==========
+
+    private static int rescan(FabricClientCommandSource source) {
+        MinecraftClient client = source.getClient();
+        ChunkEventScanner scanner = getBlockScanner();
+        VoxelPtrCore core = VoxelPtr.getCore();
+        if (scanner == null || !scanner.isEnabled() || client.player == null) {
+            error(source, "command.voxelptr.rescan.unavailable");
+            return 0;
+        }
+        if (rescanStart != null) {
+            error(source, "command.voxelptr.rescan.running");
+            return 0;
+        }
+
+        rescanStart = MetricsRegistry.sample();
+        rescan = scanner.rescanLoadedChunks(client.world, client.player.getBlockPos(),
+                core.getConfig().getScanRadiusChunks());
+        feedback(source, "command.voxelptr.rescan.started", rescan.getChunkCount());
+        return 1;
+    }
+
+    private static void finishRescan(MinecraftClient client) {
+        MetricsRegistry.Interval interval = MetricsRegistry.sample().since(rescanStart);
+        int chunks = rescan.getChunkCount();
+        rescanStart = null;
+        rescan = null;
+
+        Histogram.Snapshot scan = interval.getScanLatency();
+        message(client, Text.translatable("command.voxelptr.rescan.done", chunks,
+                String.format("%.1f", interval.getSeconds() * 1000),
+                millis(scan.getValueAtPercentile(0.50)), millis(scan.getValueAtPercentile(0.99))));
+    }
+
+    // ========== 完成检查 ==========
+
+    private static void tick(MinecraftClient client) {
+        if (profileStart != null && System.nanoTime() >= profileEndNanos) {
+            finishProfile(client);
+        }
+        // 只等待本次重新扫描提交的区块（不受同时发生的区块加载扫描影响）
+        if (rescan != null && rescan.getCompletion().isDone()) {
+            finishRescan(client);
+        }
+    }
+
+    // ========== 工具方法 ==========
+
+    private static ChunkEventScanner getBlockScanner() {
+        VoxelPtrCore core = VoxelPtr.getCore();
+        if (core == null || core.getScannerManager() == null) {
+            return null;
+        }
+        return core.getScannerManager().getBlockScanner();
+    }
+
+    private static void feedback(FabricClientCommandSource source, String key, Object... args) {
+        source.sendFeedback(Text.literal(PREFIX).append(Text.translatable(key, args)));
+    }
+
+    private static void error(FabricClientCommandSource source, String key) {
+        source.sendError(Text.literal("[VoxelPtr] ").append(Text.translatable(key)));
+    }
+
+    private static void message(MinecraftClient client, Text text) {
+        if (client.player != null) {
+            client.player.sendMessage(Text.literal(PREFIX).append(text), false);
+        }
+    }
+
+    private static String formatHitRate(double hitRate) {
+        return hitRate >= 0 ? String.format("%.1f%%", hitRate * 100) : "-";
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f ms", nanos / 1e6);
+    }
+}
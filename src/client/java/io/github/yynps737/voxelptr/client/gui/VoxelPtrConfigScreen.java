@@ -127,6 +127,56 @@ public class VoxelPtrConfigScreen extends Screen {
             currentY
         );
 
+        // 实体追踪
+        currentY = addToggleWidget(
+            "gui.voxelptr.config.entity_scan",
+            "gui.voxelptr.config.entity_scan.tooltip",
+            config.isEntityScanEnabled(),
+            value -> config.setEntityScanEnabled(value),
+            currentY
+        );
+
+        // 实体类型过滤
+        currentY = addToggleWidget(
+            "gui.voxelptr.config.track_hostile",
+            "gui.voxelptr.config.track_hostile.tooltip",
+            config.isTrackHostileMobs(),
+            value -> config.setTrackHostileMobs(value),
+            currentY
+        );
+
+        currentY = addToggleWidget(
+            "gui.voxelptr.config.track_items",
+            "gui.voxelptr.config.track_items.tooltip",
+            config.isTrackItemEntities(),
+            value -> config.setTrackItemEntities(value),
+            currentY
+        );
+
+        currentY = addToggleWidget(
+            "gui.voxelptr.config.track_players",
+            "gui.voxelptr.config.track_players.tooltip",
+            config.isTrackPlayers(),
+            value -> config.setTrackPlayers(value),
+            currentY
+        );
+
+        currentY = addToggleWidget(
+            "gui.voxelptr.config.block_entity_scan",
+            "gui.voxelptr.config.block_entity_scan.tooltip",
+            config.isBlockEntityScanEnabled(),
+            value -> config.setBlockEntityScanEnabled(value),
+            currentY
+        );
+
+        currentY = addToggleWidget(
+            "gui.voxelptr.config.structure_scan",
+            "gui.voxelptr.config.structure_scan.tooltip",
+            config.isStructureScanEnabled(),
+            value -> config.setStructureScanEnabled(value),
+            currentY
+        );
+
         currentY += SECTION_SPACING;
 
         // ========== HUD 设置 ==========
@@ -162,6 +212,104 @@ public class VoxelPtrConfigScreen extends Screen {
             currentY
         );
 
+        // 雷达
+        currentY = addToggleWidget(
+            "gui.voxelptr.config.radar",
+            "gui.voxelptr.config.radar.tooltip",
+            config.isRadarEnabled(),
+            value -> config.setRadarEnabled(value),
+            currentY
+        );
+
+        currentY = addSliderWidget(
+            "gui.voxelptr.config.radar_range",
+            "gui.voxelptr.config.radar_range.tooltip",
+            16, 128,
+            config.getRadarRange(),
+            value -> config.setRadarRange(value),
+            value -> value + " blocks",
+            currentY
+        );
+
+        currentY = addSliderWidget(
+            "gui.voxelptr.config.radar_size",
+            "gui.voxelptr.config.radar_size.tooltip",
+            48, 192,
+            config.getRadarSize(),
+            value -> config.setRadarSize(value),
+            value -> value + " px",
+            currentY
+        );
+
+        // 罗盘条
+        currentY = addToggleWidget(
+            "gui.voxelptr.config.compass",
+            "gui.voxelptr.config.compass.tooltip",
+            config.isCompassEnabled(),
+            value -> config.setCompassEnabled(value),
+            currentY
+        );
+
+        currentY += SECTION_SPACING;
+
+        // ========== 世界高亮设置 ==========
+        currentY = addCategoryHeader("gui.voxelptr.config.category.render", currentY);
+
+        currentY = addToggleWidget(
+            "gui.voxelptr.config.world_highlight",
+            "gui.voxelptr.config.world_highlight.tooltip",
+            config.isWorldHighlightEnabled(),
+            value -> config.setWorldHighlightEnabled(value),
+            currentY
+        );
+
+        currentY = addSliderWidget(
+            "gui.voxelptr.config.max_highlight_boxes",
+            "gui.voxelptr.config.max_highlight_boxes.tooltip",
+            50, 2000,
+            config.getMaxHighlightBoxes(),
+            value -> config.setMaxHighlightBoxes(value),
+            value -> value + " boxes",
+            currentY
+        );
+
+        currentY = addCyclingWidget(
+            "gui.voxelptr.config.highlight_style",
+            "gui.voxelptr.config.highlight_style.tooltip",
+            getHighlightStyleOptions(),
+            config.getHighlightStyle(),
+            value -> config.setHighlightStyle(value),
+            currentY
+        );
+
+        currentY = addSliderWidget(
+            "gui.voxelptr.config.highlight_detail_distance",
+            "gui.voxelptr.config.highlight_detail_distance.tooltip",
+            8, 128,
+            config.getHighlightDetailDistance(),
+            value -> config.setHighlightDetailDistance(value),
+            value -> value + " blocks",
+            currentY
+        );
+
+        currentY = addSliderWidget(
+            "gui.voxelptr.config.highlight_max_distance",
+            "gui.voxelptr.config.highlight_max_distance.tooltip",
+            32, 512,
+            config.getHighlightMaxDistance(),
+            value -> config.setHighlightMaxDistance(value),
+            value -> value + " blocks",
+            currentY
+        );
+
+        currentY = addToggleWidget(
+            "gui.voxelptr.config.tracer",
+            "gui.voxelptr.config.tracer.tooltip",
+            config.isTracerEnabled(),
+            value -> config.setTracerEnabled(value),
+            currentY
+        );
+
         currentY += SECTION_SPACING;
 
         // ========== 底部按钮 ==========
@@ -393,6 +541,22 @@ public class VoxelPtrConfigScreen extends Screen {
         config.setHudEnabled(defaults.isHudEnabled());
         config.setHudPosition(defaults.getHudPosition());
         config.setMaxHudTargets(defaults.getMaxHudTargets());
+        config.setRadarEnabled(defaults.isRadarEnabled());
+        config.setRadarRange(defaults.getRadarRange());
+        config.setRadarSize(defaults.getRadarSize());
+        config.setCompassEnabled(defaults.isCompassEnabled());
+        config.setEntityScanEnabled(defaults.isEntityScanEnabled());
+        config.setTrackHostileMobs(defaults.isTrackHostileMobs());
+        config.setTrackItemEntities(defaults.isTrackItemEntities());
+        config.setTrackPlayers(defaults.isTrackPlayers());
+        config.setBlockEntityScanEnabled(defaults.isBlockEntityScanEnabled());
+        config.setStructureScanEnabled(defaults.isStructureScanEnabled());
+        config.setWorldHighlightEnabled(defaults.isWorldHighlightEnabled());
+        config.setMaxHighlightBoxes(defaults.getMaxHighlightBoxes());
+        config.setHighlightStyle(defaults.getHighlightStyle());
+        config.setHighlightDetailDistance(defaults.getHighlightDetailDistance());
+        config.setHighlightMaxDistance(defaults.getHighlightMaxDistance());
+        config.setTracerEnabled(defaults.isTracerEnabled());
 
         // 重新初始化界面
         this.clearChildren();
@@ -526,6 +690,10 @@ public class VoxelPtrConfigScreen extends Screen {
         return List.of("top_left", "top_right", "bottom_left", "bottom_right");
     }
 
+    private List<String> getHighlightStyleOptions() {
+        return List.of("outline", "filled");
+    }
+
     // ========== 内部接口 - 配置组件 ==========
 
     private interface ConfigWidget {
@@ -0,0 +1,168 @@
+package io.github.yynps737.voxelptr.client.hud;
+
+import io.github.yynps737.voxelptr.config.VoxelPtrConfig;
+import io.github.yynps737.voxelptr.core.VoxelPtrCore;
+import io.github.yynps737.voxelptr.target.Target;
+import io.github.yynps737.voxelptr.target.TargetSnapshot;
+import io.github.yynps737.voxelptr.target.TargetTracker;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.Arrays;
+
+/**
+ * 罗盘条 HUD
+ * 屏幕顶部的水平罗盘，在目标所在方位显示标记
+ *
+ * 核心优化策略：
+ * - 方位按 YawSectors 的扇区分桶（64 个），每个桶只显示一个聚合标记（颜色取最近的目标，附带数量）
+ *   1000 个目标也只绘制约 60 个标记
+ * - 方位在客户端 tick 中根据追踪器快照计算一次，渲染时只把桶的角度减去插值后的玩家偏航角
+ * - 方位使用与目标列表相同的前方向量约定（YawSectors.yawOf）
+ */
+public class CompassHud extends HudElement {
+
+    /**
+     * 罗盘条宽度（像素）
+     */
+    public static final int WIDTH = 180;
+
+    /**
+     * 罗盘条显示的角度范围（中心两侧各 90 度）
+     */
+    private static final float HALF_FOV = 90.0f;
+
+    private static final int HEIGHT = 10;
+    private static final int BACKGROUND_COLOR = 0x80000000;
+    private static final int TICK_COLOR = 0xFFAAAAAA;
+    private static final int CENTER_COLOR = 0xFFFFFFFF;
+
+    /**
+     * 方位标签：偏航角 180 为北、-90 为东、0 为南、90 为西
+     */
+    private static final String[] CARDINAL_LABELS = {"S", "W", "N", "E"};
+
+    /**
+     * 聚合数量标签（预先生成，绘制时不拼接字符串）
+     */
+    private static final String[] COUNT_LABELS = new String[100];
+
+    static {
+        for (int i = 0; i < COUNT_LABELS.length; i++) {
+            COUNT_LABELS[i] = i < 99 ? String.valueOf(i) : "99+";
+        }
+    }
+
+    private final VoxelPtrCore core;
+
+    // 每个方位桶的目标数和最近目标的颜色（tick 中生成，渲染只读）
+    private int[] bucketCounts = new int[YawSectors.SECTOR_COUNT];
+    private int[] bucketColors = new int[YawSectors.SECTOR_COUNT];
+    private int[] nextCounts = new int[YawSectors.SECTOR_COUNT];
+    private int[] nextColors = new int[YawSectors.SECTOR_COUNT];
+
+    public CompassHud(VoxelPtrCore core, int x, int y) {
+        super(x, y);
+        this.core = core;
+    }
+
+    /**
+     * 每个 tick 把范围内的目标按方位分桶
+     */
+    @Override
+    public void tick(MinecraftClient client) {
+        VoxelPtrConfig config = core.getConfig();
+        TargetTracker tracker = core.getTargetTracker();
+        if (!config.isCompassEnabled() || client.player == null || tracker == null) {
+            return;
+        }
+
+        Arrays.fill(nextCounts, 0);
+
+        // 快照已按距离排序：环形范围查询，每个桶第一个目标即最近的目标
+        TargetSnapshot snapshot = tracker.getSnapshot();
+        float minDistance = config.getMinDistance();
+        float maxDistance = config.getMaxDistanceFilter();
+        double maxSq = maxDistance > 0 ? (double) maxDistance * maxDistance : Double.MAX_VALUE;
+        // 1.21.9+ API: getPos() 改为 getEntityPos()
+        Vec3d playerPos = client.player.getEntityPos();
+
+        for (int i = snapshot.lowerBound((double) minDistance * minDistance); i < snapshot.size(); i++) {
+            if (snapshot.getSquaredDistance(i) > maxSq) {
+                break; // 之后的目标更远
+            }
+            Target target = snapshot.get(i);
+            Vec3d pos = snapshot.getPosition(i);
+            int bucket = YawSectors.sectorOf(YawSectors.yawOf(pos.x - playerPos.x, pos.z - playerPos.z));
+            if (nextCounts[bucket]++ == 0) {
+                nextColors[bucket] = target.getColor();
+            }
+        }
+
+        // 交换缓冲区
+        int[] counts = bucketCounts;
+        bucketCounts = nextCounts;
+        nextCounts = counts;
+        int[] colors = bucketColors;
+        bucketColors = nextColors;
+        nextColors = colors;
+    }
+
+    @Override
+    public void render(DrawContext context, float tickDelta) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (!enabled || !core.getConfig().isCompassEnabled() || client.player == null) {
+            return;
+        }
+
+        TextRenderer textRenderer = client.textRenderer;
+        float yaw = client.player.getYaw(tickDelta);
+        float centerX = x + WIDTH / 2.0f;
+        float pixelsPerDegree = (WIDTH / 2.0f) / HALF_FOV;
+
+        context.fill(x, y, x + WIDTH, y + HEIGHT, BACKGROUND_COLOR);
+
+        // 方位标签
+        for (int i = 0; i < CARDINAL_LABELS.length; i++) {
+            float relative = MathHelper.wrapDegrees(i * 90.0f - yaw);
+            if (Math.abs(relative) > HALF_FOV) {
+                continue;
+            }
+            int labelX = Math.round(centerX + relative * pixelsPerDegree);
+            context.fill(labelX, y, labelX + 1, y + 2, TICK_COLOR);
+            context.drawCenteredTextWithShadow(textRenderer, CARDINAL_LABELS[i], labelX, y + 1, TICK_COLOR);
+        }
+
+        // 目标标记：每个非空桶一个
+        for (int bucket = 0; bucket < YawSectors.SECTOR_COUNT; bucket++) {
+            int count = bucketCounts[bucket];
+            if (count == 0) {
+                continue;
+            }
+            float relative = MathHelper.wrapDegrees(bucket * YawSectors.SECTOR_DEGREES - yaw);
+            if (Math.abs(relative) > HALF_FOV) {
+                continue;
+            }
+
+            int markerX = Math.round(centerX + relative * pixelsPerDegree);
+            int color = bucketColors[bucket] | 0xFF000000;
+            context.fill(markerX - 1, y + 2, markerX + 1, y + HEIGHT, color);
+            if (count > 1) {
+                String label = COUNT_LABELS[Math.min(count, COUNT_LABELS.length - 1)];
+                context.drawCenteredTextWithShadow(textRenderer, label, markerX, y + HEIGHT + 1, color);
+            }
+        }
+
+        // 中心指示线
+        int center = Math.round(centerX);
+        context.fill(center, y, center + 1, y + HEIGHT, CENTER_COLOR);
+    }
+
+    @Override
+    public String getName() {
+        return "compass";
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.yynps737.voxelptr.client.hud;
 
+import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.DrawContext;
 
 /**
@@ -26,6 +27,15 @@ public abstract class HudElement {
      */
     public abstract void render(DrawContext context, float tickDelta);
 
+    /**
+     * 每个客户端 tick 调用一次，用于在渲染路径之外准备显示数据
+     * 默认不做任何事
+     *
+     * @param client 客户端实例
+     */
+    public void tick(MinecraftClient client) {
+    }
+
     /**
      * 获取元素名称
      *
@@ -2,6 +2,8 @@ package io.github.yynps737.voxelptr.client.hud;
 
 import io.github.yynps737.voxelptr.VoxelPtr;
 import io.github.yynps737.voxelptr.core.VoxelPtrCore;
+import io.github.yynps737.voxelptr.metrics.HudRenderEvent;
+import io.github.yynps737.voxelptr.metrics.MetricsRegistry;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.DrawContext;
 
@@ -17,6 +19,12 @@ public class HudManager {
     private final VoxelPtrCore core;
     private final List<HudElement> elements;
     private String lastHudPosition = "";
+    private int lastRadarSize = -1;
+
+    /**
+     * 最近一帧渲染所有 HUD 元素的耗时（纳秒），供性能测试读取
+     */
+    private volatile long lastRenderNanos;
 
     public HudManager(VoxelPtrCore core) {
         this.core = core;
@@ -33,6 +41,14 @@ public class HudManager {
         TargetListHud targetListHud = new TargetListHud(core, 5, 5);
         elements.add(targetListHud);
 
+        // 创建雷达 HUD（位置由 updateHudPosition 决定，默认关闭）
+        RadarHud radarHud = new RadarHud(core, 5, 5);
+        elements.add(radarHud);
+
+        // 创建罗盘条 HUD（屏幕顶部中央，默认关闭）
+        CompassHud compassHud = new CompassHud(core, 5, 2);
+        elements.add(compassHud);
+
         VoxelPtr.LOGGER.info("初始化了 {} 个 HUD 元素", elements.size());
     }
 
@@ -47,6 +63,11 @@ public class HudManager {
             return; // HUD 已禁用
         }
 
+        HudRenderEvent event = new HudRenderEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int rendered = 0;
+
         // 根据配置更新 HUD 位置
         updateHudPosition();
 
@@ -54,11 +75,49 @@ public class HudManager {
             try {
                 if (element.isEnabled()) {
                     element.render(context, tickDelta);
+                    rendered++;
                 }
             } catch (Exception e) {
                 VoxelPtr.LOGGER.error("渲染 HUD 元素 {} 时出错", element.getName(), e);
             }
         }
+
+        lastRenderNanos = System.nanoTime() - start;
+        MetricsRegistry.HUD_RENDER.record(lastRenderNanos);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.elements = rendered;
+            event.commit();
+        }
+    }
+
+    /**
+     * 获取最近一帧渲染 HUD 的耗时
+     *
+     * @return 耗时（纳秒），HUD 禁用时保持上一次的值
+     */
+    public long getLastRenderNanos() {
+        return lastRenderNanos;
+    }
+
+    /**
+     * 每个客户端 tick 更新所有 HUD 元素的显示数据
+     *
+     * @param client 客户端实例
+     */
+    public void tickHud(MinecraftClient client) {
+        if (!core.getConfig().isEnabled() || !core.getConfig().isHudEnabled()) {
+            return; // HUD 已禁用
+        }
+
+        for (HudElement element : elements) {
+            try {
+                element.tick(client);
+            } catch (Exception e) {
+                VoxelPtr.LOGGER.error("更新 HUD 元素 {} 时出错", element.getName(), e);
+            }
+        }
     }
 
     /**
@@ -67,13 +126,15 @@ public class HudManager {
      */
     private void updateHudPosition() {
         String position = core.getConfig().getHudPosition();
+        int radarSize = core.getConfig().getRadarSize();
 
-        // 性能优化：位置未改变则跳过
-        if (position.equals(lastHudPosition)) {
+        // 性能优化：位置和雷达大小未改变则跳过
+        if (position.equals(lastHudPosition) && radarSize == lastRadarSize) {
             return;
         }
 
         lastHudPosition = position;
+        lastRadarSize = radarSize;
         MinecraftClient client = MinecraftClient.getInstance();
 
         if (client.getWindow() == null) {
@@ -115,6 +176,19 @@ public class HudManager {
 
             targetListHud.setPosition(x, y);
         }
+
+        // 雷达放在目标列表另一侧的顶部
+        HudElement radarHud = getElement("radar");
+        if (radarHud != null) {
+            boolean listOnRight = position.endsWith("_right");
+            int x = listOnRight ? 6 : screenWidth - radarSize - 6;
+            radarHud.setPosition(x, 6);
+        }
+
+        HudElement compassHud = getElement("compass");
+        if (compassHud != null) {
+            compassHud.setPosition((screenWidth - CompassHud.WIDTH) / 2, 2);
+        }
     }
 
     /**
@@ -0,0 +1,89 @@
+package io.github.yynps737.voxelptr.client.hud;
+
+import io.github.yynps737.voxelptr.VoxelPtr;
+import io.github.yynps737.voxelptr.core.VoxelPtrCore;
+import io.github.yynps737.voxelptr.metrics.Histogram;
+import io.github.yynps737.voxelptr.metrics.MetricsRegistry;
+import io.github.yynps737.voxelptr.scanner.ChunkScanCache;
+import net.minecraft.client.gui.hud.debug.DebugHudEntry;
+import net.minecraft.client.gui.hud.debug.DebugHudLines;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * F3 调试界面中的 VoxelPtr 指标
+ * 每秒根据 MetricsRegistry 的两次采样生成一次文本，渲染时只添加缓存的行
+ * 与原版调试信息一致使用英文，便于玩家截图反馈
+ *
+ * 1.21.9+ API: 调试界面改为按条目注册，可在调试选项（F3 + F6）中开关
+ */
+public class MetricsDebugHudEntry implements DebugHudEntry {
+
+    public static final Identifier ID = Identifier.of(VoxelPtr.MOD_ID, "metrics");
+
+    private static final long REFRESH_NANOS = 1_000_000_000L;
+
+    private MetricsRegistry.Sample previous = MetricsRegistry.sample();
+    private List<String> cachedLines = List.of("[VoxelPtr] collecting metrics...");
+
+    @Override
+    public void render(DebugHudLines lines, @Nullable World world, @Nullable WorldChunk clientChunk,
+                       @Nullable WorldChunk chunk) {
+        // 只在刷新时采样（复制直方图），其余帧直接使用缓存的行
+        if (System.nanoTime() - previous.getTimeNanos() >= REFRESH_NANOS) {
+            MetricsRegistry.Sample current = MetricsRegistry.sample();
+            cachedLines = buildLines(current.since(previous));
+            previous = current;
+        }
+        for (String line : cachedLines) {
+            lines.addLine(line);
+        }
+    }
+
+    private static List<String> buildLines(MetricsRegistry.Interval interval) {
+        Histogram.Snapshot scan = interval.getScanLatency();
+        Histogram.Snapshot tick = interval.getTick();
+        Histogram.Snapshot hud = interval.getHudRender();
+
+        String cacheLine;
+        double hitRate = interval.getCacheHitRate();
+        ChunkScanCache cache = getCache();
+        String hitText = hitRate >= 0 ? String.format("%.1f%% hit", hitRate * 100) : "- hit";
+        if (cache != null) {
+            cacheLine = String.format("[VoxelPtr] Cache: %s, %d chunks, %d blocks",
+                    hitText, cache.size(), cache.getTotalTargetCount());
+        } else {
+            cacheLine = "[VoxelPtr] Cache: " + hitText;
+        }
+
+        return List.of(
+                String.format("[VoxelPtr] Scan: %.1f chunks/s, queue %d, p50 %s p99 %s max %s",
+                        interval.getChunksPerSecond(), interval.getQueueDepth(),
+                        millis(scan.getValueAtPercentile(0.50)), millis(scan.getValueAtPercentile(0.99)),
+                        millis(scan.getMax())),
+                cacheLine,
+                String.format("[VoxelPtr] Tracker: %d targets, tick p50 %s p99 %s max %s",
+                        interval.getTrackerSize(), millis(tick.getValueAtPercentile(0.50)),
+                        millis(tick.getValueAtPercentile(0.99)), millis(tick.getMax())),
+                String.format("[VoxelPtr] HUD: p50 %s p99 %s max %s",
+                        millis(hud.getValueAtPercentile(0.50)), millis(hud.getValueAtPercentile(0.99)),
+                        millis(hud.getMax()))
+        );
+    }
+
+    private static ChunkScanCache getCache() {
+        VoxelPtrCore core = VoxelPtr.getCore();
+        if (core == null || core.getScannerManager() == null || core.getScannerManager().getBlockScanner() == null) {
+            return null;
+        }
+        return core.getScannerManager().getBlockScanner().getCache();
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2fms", nanos / 1e6);
+    }
+}
@@ -0,0 +1,269 @@
+package io.github.yynps737.voxelptr.client.hud;
+
+import io.github.yynps737.voxelptr.VoxelPtr;
+import io.github.yynps737.voxelptr.config.VoxelPtrConfig;
+import io.github.yynps737.voxelptr.core.VoxelPtrCore;
+import io.github.yynps737.voxelptr.target.Target;
+import io.github.yynps737.voxelptr.target.TargetSnapshot;
+import io.github.yynps737.voxelptr.target.TargetTracker;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gl.RenderPipelines;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.texture.NativeImage;
+import net.minecraft.client.texture.NativeImageBackedTexture;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import org.joml.Matrix3x2fStack;
+
+import java.util.Arrays;
+
+/**
+ * 雷达 HUD
+ * 俯视图显示玩家周围的目标，玩家朝向始终向上
+ *
+ * 核心优化策略：
+ * - 目标绘制到缓存的动态纹理（世界坐标对齐，北向上，1 像素 = 1 格），每帧只绘制一个四边形
+ * - 纹理以玩家所在区块为中心，只在玩家跨区块时整体重绘
+ * - 目标变化时增量更新：按目标记录已绘制的像素，只擦除消失或移动的目标、绘制新增的目标
+ * - 快照按距离排序，只访问显示范围（方形显示区域的外接圆）内的目标
+ * - 玩家朝向由 GPU 旋转四边形实现，转动视角不修改纹理
+ * - 每帧开销与目标数量无关
+ */
+public class RadarHud extends HudElement {
+
+    private static final Identifier TEXTURE_ID = Identifier.of(VoxelPtr.MOD_ID, "radar");
+
+    /**
+     * 纹理比显示范围多出的边距（格），玩家在区块内移动时纹理仍覆盖整个显示范围
+     */
+    private static final int TEXTURE_MARGIN = 16;
+
+    /**
+     * 目标点的边长（像素）
+     */
+    private static final int DOT_SIZE = 2;
+
+    private static final int BACKGROUND_COLOR = 0x80000000;
+    private static final int BORDER_COLOR = 0xFF808080;
+    private static final int PLAYER_COLOR = 0xFFFFFFFF;
+
+    /**
+     * 未绘制的目标
+     */
+    private static final int NOT_PLOTTED = Integer.MIN_VALUE;
+
+    private final VoxelPtrCore core;
+
+    private NativeImageBackedTexture texture;
+    private int textureSize;
+
+    /**
+     * 每个像素上的目标数（多个目标重叠时，最后一个离开才擦除）
+     */
+    private int[] pixelCounts = new int[0];
+
+    /**
+     * 每个已绘制目标的像素坐标（y * textureSize + x）
+     * 与 nextPlotted 双缓冲，跨快照复用，不为每次更新分配新映射
+     */
+    private Reference2IntOpenHashMap<Target> plotted = new Reference2IntOpenHashMap<>();
+    private Reference2IntOpenHashMap<Target> nextPlotted = new Reference2IntOpenHashMap<>();
+
+    // 纹理左上角对应的世界坐标（随玩家所在区块变化）
+    private int originX;
+    private int originZ;
+    private long lastChunkKey = Long.MIN_VALUE;
+    private long lastSnapshotEpoch = -1;
+    private boolean dirty;
+
+    public RadarHud(VoxelPtrCore core, int x, int y) {
+        super(x, y);
+        this.core = core;
+        this.plotted.defaultReturnValue(NOT_PLOTTED);
+        this.nextPlotted.defaultReturnValue(NOT_PLOTTED);
+    }
+
+    /**
+     * 每个 tick 同步纹理：跨区块时整体重绘，快照变化时增量更新
+     */
+    @Override
+    public void tick(MinecraftClient client) {
+        VoxelPtrConfig config = core.getConfig();
+        TargetTracker tracker = core.getTargetTracker();
+        if (!config.isRadarEnabled() || client.player == null || tracker == null) {
+            return;
+        }
+
+        int size = (config.getRadarRange() + TEXTURE_MARGIN) * 2;
+        if (texture == null || textureSize != size) {
+            createTexture(client, size);
+        }
+
+        // 1.21.9+ API: getPos() 改为 getEntityPos()
+        Vec3d playerPos = client.player.getEntityPos();
+        int chunkX = MathHelper.floor(playerPos.x) >> 4;
+        int chunkZ = MathHelper.floor(playerPos.z) >> 4;
+        long chunkKey = ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+
+        TargetSnapshot snapshot = tracker.getSnapshot();
+        if (chunkKey != lastChunkKey) {
+            // 跨区块：以新区块中心为纹理中心整体重绘
+            lastChunkKey = chunkKey;
+            originX = (chunkX << 4) + 8 - textureSize / 2;
+            originZ = (chunkZ << 4) + 8 - textureSize / 2;
+            clearTexture();
+            lastSnapshotEpoch = -1;
+        }
+
+        if (snapshot.getEpoch() != lastSnapshotEpoch) {
+            lastSnapshotEpoch = snapshot.getEpoch();
+            updateTargets(snapshot, config.getRadarRange());
+        }
+    }
+
+    /**
+     * 增量更新：擦除消失或移动的目标，绘制新增或移动后的目标
+     *
+     * @param range 显示范围（格，方形显示区域的半边长）
+     */
+    private void updateTargets(TargetSnapshot snapshot, int range) {
+        Reference2IntOpenHashMap<Target> current = nextPlotted;
+
+        // 旋转后的方形显示区域最远可见到半对角线，之后的目标更远，不再访问
+        int end = snapshot.lowerBound(2.0 * range * range);
+        for (int i = 0; i < end; i++) {
+            Target target = snapshot.get(i);
+            Vec3d pos = snapshot.getPosition(i);
+            int px = MathHelper.floor(pos.x) - originX;
+            int pz = MathHelper.floor(pos.z) - originZ;
+            if (px < 0 || pz < 0 || px > textureSize - DOT_SIZE || pz > textureSize - DOT_SIZE) {
+                continue; // 超出纹理范围
+            }
+            current.put(target, pz * textureSize + px);
+        }
+
+        // 1. 擦除消失或移动的目标
+        for (var entry : plotted.reference2IntEntrySet()) {
+            int pixel = entry.getIntValue();
+            if (current.getInt(entry.getKey()) != pixel) {
+                erase(pixel);
+            }
+        }
+
+        // 2. 绘制新增或移动后的目标
+        for (var entry : current.reference2IntEntrySet()) {
+            int pixel = entry.getIntValue();
+            if (plotted.getInt(entry.getKey()) != pixel) {
+                plot(pixel, entry.getKey().getColor());
+            }
+        }
+
+        // 交换缓冲区（清空旧映射，不拖住已移除的目标）
+        plotted.clear();
+        nextPlotted = plotted;
+        plotted = current;
+    }
+
+    private void plot(int pixel, int color) {
+        NativeImage image = texture.getImage();
+        int px = pixel % textureSize;
+        int pz = pixel / textureSize;
+        for (int dz = 0; dz < DOT_SIZE; dz++) {
+            for (int dx = 0; dx < DOT_SIZE; dx++) {
+                pixelCounts[(pz + dz) * textureSize + px + dx]++;
+                image.setColorArgb(px + dx, pz + dz, color | 0xFF000000);
+            }
+        }
+        dirty = true;
+    }
+
+    private void erase(int pixel) {
+        NativeImage image = texture.getImage();
+        int px = pixel % textureSize;
+        int pz = pixel / textureSize;
+        for (int dz = 0; dz < DOT_SIZE; dz++) {
+            for (int dx = 0; dx < DOT_SIZE; dx++) {
+                int index = (pz + dz) * textureSize + px + dx;
+                // 重叠的其他目标仍在时保留像素
+                if (--pixelCounts[index] <= 0) {
+                    pixelCounts[index] = 0;
+                    image.setColorArgb(px + dx, pz + dz, 0);
+                }
+            }
+        }
+        dirty = true;
+    }
+
+    private void clearTexture() {
+        texture.getImage().fillRect(0, 0, textureSize, textureSize, 0);
+        Arrays.fill(pixelCounts, 0);
+        plotted.clear();
+        dirty = true;
+    }
+
+    private void createTexture(MinecraftClient client, int size) {
+        if (texture != null) {
+            client.getTextureManager().destroyTexture(TEXTURE_ID);
+        }
+        textureSize = size;
+        texture = new NativeImageBackedTexture(() -> "VoxelPtr radar", new NativeImage(size, size, true));
+        client.getTextureManager().registerTexture(TEXTURE_ID, texture);
+        pixelCounts = new int[size * size];
+        plotted.clear();
+        lastChunkKey = Long.MIN_VALUE;
+        lastSnapshotEpoch = -1;
+    }
+
+    @Override
+    public void render(DrawContext context, float tickDelta) {
+        VoxelPtrConfig config = core.getConfig();
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (!enabled || !config.isRadarEnabled() || client.player == null || texture == null) {
+            return;
+        }
+
+        // 纹理有变化时才上传
+        if (dirty) {
+            texture.upload();
+            dirty = false;
+        }
+
+        int size = config.getRadarSize();
+        float scale = size / (config.getRadarRange() * 2.0f);
+        float centerX = x + size / 2.0f;
+        float centerY = y + size / 2.0f;
+
+        // 背景和边框
+        context.fill(x - 1, y - 1, x + size + 1, y + size + 1, BORDER_COLOR);
+        context.fill(x, y, x + size, y + size, BACKGROUND_COLOR);
+
+        // 玩家位置和朝向按 tickDelta 插值，由矩阵平移和旋转完成
+        Vec3d playerPos = client.player.getLerpedPos(tickDelta);
+        float yaw = client.player.getYaw(tickDelta);
+
+        context.enableScissor(x, y, x + size, y + size);
+        Matrix3x2fStack matrices = context.getMatrices();
+        matrices.pushMatrix();
+        matrices.translate(centerX, centerY);
+        // 旋转 180° - yaw，使玩家前方向量 (-sin(yaw), cos(yaw)) 指向屏幕上方
+        matrices.rotate((float) Math.toRadians(180.0f - yaw));
+        matrices.scale(scale, scale);
+        matrices.translate((float) (originX - playerPos.x), (float) (originZ - playerPos.z));
+        context.drawTexture(RenderPipelines.GUI_TEXTURED, TEXTURE_ID, 0, 0, 0, 0,
+                textureSize, textureSize, textureSize, textureSize);
+        matrices.popMatrix();
+        context.disableScissor();
+
+        // 玩家标记（固定在中心）
+        int cx = Math.round(centerX);
+        int cy = Math.round(centerY);
+        context.fill(cx - 1, cy - 2, cx + 1, cy + 2, PLAYER_COLOR);
+    }
+
+    @Override
+    public String getName() {
+        return "radar";
+    }
+}
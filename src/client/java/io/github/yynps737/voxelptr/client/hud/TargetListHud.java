@@ -1,131 +1,222 @@
 package io.github.yynps737.voxelptr.client.hud;
 
+import io.github.yynps737.voxelptr.client.KeyBindingManager;
 import io.github.yynps737.voxelptr.client.VoxelPtrClient;
+import io.github.yynps737.voxelptr.config.VoxelPtrConfig;
 import io.github.yynps737.voxelptr.core.VoxelPtrCore;
 import io.github.yynps737.voxelptr.target.Target;
+import io.github.yynps737.voxelptr.target.TargetSnapshot;
 import io.github.yynps737.voxelptr.target.TargetTracker;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.resource.language.I18n;
-import net.minecraft.entity.Entity;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
 import net.minecraft.util.math.Vec3d;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
-
 /**
  * 目标列表 HUD
  * 显示所有活跃目标的列表（带方向指示）
+ *
+ * 性能优化：
+ * - 行、距离、相对偏移和方向在客户端 tick 中生成（TargetListModel），渲染线程只按 tickDelta
+ *   插值距离并绘制，每帧开销与目标总数无关
+ * - 每行缓存已生成的 OrderedText，只有目标、距离档位（0.1 格）或方向变化时才重新生成，
+ *   稳定的帧不生成任何字符串
+ * - 方向只有 27 种组合，全部预先生成；翻译键只在语言切换时重新解析
+ * - 方向按偏航角扇区计算，扇区带迟滞（YawSectors），平滑转动视角不会让缓存持续失效；
+ *   玩家移动时随每 tick 的相对偏移更新
+ * - 标题、模式和预设行同样缓存，数量、预设或语言变化时才重新生成
  */
 public class TargetListHud extends HudElement {
 
+    /**
+     * 方向判定阈值（格），避免极近距离时方向指示跳动
+     */
+    private static final double DIRECTION_THRESHOLD = 1.0;
+
+    /**
+     * 单行缓存
+     */
+    private static final class Line {
+        Target target;
+        String name;
+        int distanceBucket = -1;
+        int direction = -1;
+        int yawSector = -1;
+        long modelVersion = -1;
+        OrderedText text;
+    }
+
     private final VoxelPtrCore core;
 
-    // 性能优化：缓存目标列表
-    private List<Target> cachedTargets = new ArrayList<>();
-    private long lastUpdateTime = 0;
-    private static final long UPDATE_INTERVAL_MS = 100; // 每100ms更新一次（10 FPS）
+    // 性能优化：记录上次处理的快照序号，快照未更新时不重新选择行
+    private long lastSnapshotEpoch = -1;
+    private float lastMinDistance = -1;
+    private float lastMaxDistance = -1;
+    private int lastMaxTargets = -1;
 
-    // 性能优化：缓存方向字符串（避免每帧重复计算三角函数）
-    private final Map<UUID, String> directionCache = new HashMap<>();
-    private float lastPlayerYaw = 0;
-    private static final float YAW_THRESHOLD = 5.0f; // 玩家旋转超过5度时更新
+    // 距离过滤后的显示范围：快照中 [rangeStart, rangeStart + rowCount)
+    private int rangeStart = 0;
+    private int rowCount = 0;
 
-    // 性能优化：缓存最大名称长度（避免每帧重新计算）
+    // tick 中生成的模型（渲染线程只读）
+    private TargetListModel model = TargetListModel.EMPTY;
+    private long modelVersion = 0;
+    private Vec3d lastTickPlayerPos;
+
+    // 行缓存（按行号复用）
+    private Line[] lines = new Line[0];
+    private final StringBuilder builder = new StringBuilder(64);
+
+    // 性能优化：缓存最大名称长度（名称对齐用，变化时所有行重新生成）
     private int cachedMaxNameLength = 0;
 
+    // 语言相关缓存：语言切换时全部重新生成
+    private String lastLanguage;
+    private boolean namesStale = true;
+    private final String[] directionStrings = new String[27];
+    private OrderedText modeLine;
+    private OrderedText presetLine;
+    private int lastPresetIndex = -1;
+    private OrderedText titleLine;
+    private int lastTitleCount = -1;
+
+    // 当前偏航角扇区（带迟滞）
+    private int yawSector = -1;
+
     public TargetListHud(VoxelPtrCore core, int x, int y) {
         super(x, y);
         this.core = core;
     }
 
     /**
-     * 获取方向字符串（基于玩家局部坐标系的向量投影算法）
+     * 计算方向编码（基于玩家局部坐标系的向量投影算法）
      *
      * 核心原理：
-     * 1. 计算世界坐标系下的相对位移向量 (Delta Vector)
-     * 2. 构建玩家的局部基向量 (Local Basis Vectors): 前方(Forward) 和 右方(Right)
+     * 1. 使用世界坐标系下的相对位移向量 (Delta Vector)
+     * 2. 使用玩家的局部基向量 (Local Basis Vectors): 前方(Forward) 和 右方(Right)
      * 3. 使用点积 (Dot Product) 将位移向量投影到局部基向量上，得到相对距离
      *
-     * 性能优化：使用缓存避免每帧重复计算三角函数
+     * @return 编码 = 上下 * 9 + 左右 * 3 + 前后，每个分量 0=负方向、1=无、2=正方向
      */
-    private String getDirectionString(Entity player, Target target) {
-        float currentYaw = player.getYaw();
+    private static int getDirectionCode(double dx, double dy, double dz, int sector) {
+        double forwardDist = (dx * YawSectors.forwardX(sector)) + (dz * YawSectors.forwardZ(sector)); // 正数=前，负数=后
+        double rightDist = (dx * YawSectors.rightX(sector)) + (dz * YawSectors.rightZ(sector)); // 正数=右，负数=左
+
+        return axisCode(dy) * 9 + axisCode(rightDist) * 3 + axisCode(forwardDist);
+    }
+
+    private static int axisCode(double value) {
+        if (value > DIRECTION_THRESHOLD) {
+            return 2;
+        }
+        if (value < -DIRECTION_THRESHOLD) {
+            return 0;
+        }
+        return 1;
+    }
 
-        // 检查玩家是否旋转超过阈值
-        float yawDelta = Math.abs(currentYaw - lastPlayerYaw);
-        boolean yawChanged = yawDelta > YAW_THRESHOLD;
+    /**
+     * 语言切换时重新解析翻译键，并让所有缓存的文本失效
+     */
+    private void checkLanguage(MinecraftClient client) {
+        String language = client.getLanguageManager().getLanguage();
+        if (language.equals(lastLanguage)) {
+            return;
+        }
+        lastLanguage = language;
+
+        String vertical = I18n.translate("hud.voxelptr.direction.vertical");
+        String horizontal = I18n.translate("hud.voxelptr.direction.horizontal");
+        String depth = I18n.translate("hud.voxelptr.direction.depth");
+        String[] upDown = {"↓", "-", "↑"};
+        String[] leftRight = {"←", "-", "→"};
+        String[] frontBack = {"↓", "-", "↑"};
+        for (int code = 0; code < directionStrings.length; code++) {
+            directionStrings[code] = vertical + ":" + upDown[code / 9] + " "
+                    + horizontal + ":" + leftRight[(code / 3) % 3] + " "
+                    + depth + ":" + frontBack[code % 3];
+        }
 
-        // 如果玩家没有显著旋转且缓存中有该目标，直接返回缓存
-        if (!yawChanged && directionCache.containsKey(target.getId())) {
-            return directionCache.get(target.getId());
+        modeLine = null;
+        lastPresetIndex = -1;
+        lastTitleCount = -1;
+        // 目标名称同样依赖语言：下一个 tick 重新读取，行文本全部重新生成
+        namesStale = true;
+        for (Line line : lines) {
+            if (line != null) {
+                line.text = null;
+            }
         }
+    }
 
-        // 玩家旋转了，清空所有缓存并更新 yaw
-        if (yawChanged) {
-            directionCache.clear();
-            lastPlayerYaw = currentYaw;
+    /**
+     * 每个客户端 tick 生成一次 HUD 模型：选择显示的行，计算距离、相对偏移和方向
+     * 渲染线程不再访问快照，也不计算距离
+     */
+    @Override
+    public void tick(MinecraftClient client) {
+        TargetTracker tracker = core.getTargetTracker();
+        if (!enabled || client.player == null || tracker == null) {
+            model = TargetListModel.EMPTY;
+            lastTickPlayerPos = null;
+            return;
         }
-        // 1. 获取世界坐标系下的相对位移 (World Space Delta)
+
+        // 性能优化：直接读取追踪器每 tick 发布的排序快照（无锁、无拷贝）
+        TargetSnapshot snapshot = tracker.getSnapshot();
+        VoxelPtrConfig config = core.getConfig();
+        if (snapshot.getEpoch() != lastSnapshotEpoch
+                || config.getMinDistance() != lastMinDistance
+                || config.getMaxDistanceFilter() != lastMaxDistance
+                || config.getMaxHudTargets() != lastMaxTargets) {
+            lastSnapshotEpoch = snapshot.getEpoch();
+            lastMaxTargets = config.getMaxHudTargets();
+            lastMinDistance = config.getMinDistance();
+            lastMaxDistance = config.getMaxDistanceFilter();
+
+            // 环形范围查询：二分定位最小距离，范围外的目标不访问
+            double maxSq = lastMaxDistance > 0 ? (double) lastMaxDistance * lastMaxDistance : Double.MAX_VALUE;
+            rangeStart = snapshot.lowerBound((double) lastMinDistance * lastMinDistance);
+            int rangeEnd = rangeStart;
+            int limit = Math.min(snapshot.size(), rangeStart + lastMaxTargets);
+            while (rangeEnd < limit && snapshot.getSquaredDistance(rangeEnd) <= maxSq) {
+                rangeEnd++;
+            }
+            rowCount = rangeEnd - rangeStart;
+        }
+
         // 1.21.9+ API: getPos() 改为 getEntityPos()
-        Vec3d playerPos = player.getEntityPos();
-        Vec3d targetPos = target.getPosition();
-        
-        double dx = targetPos.x - playerPos.x;
-        double dy = targetPos.y - playerPos.y;
-        double dz = targetPos.z - playerPos.z;
-
-        // 2. 构建玩家局部坐标系的基向量 (Local Basis Vectors)
-        // Minecraft Yaw 定义: 0=南(+Z), -90=东(+X), 90=西(-X), 180=北(-Z)
-        float yaw = player.getYaw();
-        double yawRad = Math.toRadians(yaw);
-        double sin = Math.sin(yawRad);
-        double cos = Math.cos(yawRad);
-
-        // 前方向量 (Forward Vector): 玩家视线在水平面的单位向量
-        // 推导: Yaw=0(南) -> (0, 1); Yaw=-90(东) -> (1, 0)
-        // 公式: x = -sin(yaw), z = cos(yaw)
-        double fwdX = -sin;
-        double fwdZ = cos;
-
-        // 右方向量 (Right Vector): 垂直于前方向量，指向玩家右手边
-        // 推导: 顺时针旋转90度。Yaw=0(南) -> 右手是西(-X) -> (-1, 0)
-        // 公式: x = -cos(yaw), z = -sin(yaw)
-        double rightX = -cos;
-        double rightZ = -sin;
-
-        // 3. 向量投影 (Vector Projection)
-        // 使用点积计算目标在玩家局部坐标轴上的分量
-        // dist = V_delta · V_basis
-        
-        double forwardDist = (dx * fwdX) + (dz * fwdZ); // 正数=前，负数=后
-        double rightDist   = (dx * rightX) + (dz * rightZ); // 正数=右，负数=左
-        
-        // 4. 生成可视化指示
-        // 阈值设为 1.0，避免在极近距离时方向指示跳动
-        String upDown = "-";
-        if (dy > 1.0) upDown = "↑";       // 上 (Y轴正方向)
-        else if (dy < -1.0) upDown = "↓"; // 下 (Y轴负方向)
-
-        String leftRight = "-";
-        if (rightDist > 1.0) leftRight = "→";      // 右 (在右方向量上有正投影)
-        else if (rightDist < -1.0) leftRight = "←"; // 左 (在右方向量上有负投影)
-
-        String frontBack = "-";
-        if (forwardDist > 1.0) frontBack = "↑";      // 前 (在前方向量上有正投影)
-        else if (forwardDist < -1.0) frontBack = "↓"; // 后 (在前方向量上有负投影)
-
-        String result = I18n.translate("hud.voxelptr.direction.vertical") + ":" + upDown + " " +
-                I18n.translate("hud.voxelptr.direction.horizontal") + ":" + leftRight + " " +
-                I18n.translate("hud.voxelptr.direction.depth") + ":" + frontBack;
-
-        // 缓存结果
-        directionCache.put(target.getId(), result);
-        return result;
+        Vec3d playerPos = client.player.getEntityPos();
+        Vec3d previousPos = lastTickPlayerPos != null ? lastTickPlayerPos : playerPos;
+        lastTickPlayerPos = playerPos;
+        int sector = YawSectors.update(yawSector, client.player.getYaw());
+
+        TargetListModel previous = model;
+        TargetListModel next = new TargetListModel(++modelVersion, rowCount, sector);
+        for (int i = 0; i < rowCount; i++) {
+            Target target = snapshot.get(rangeStart + i);
+            Vec3d targetPos = snapshot.getPosition(rangeStart + i);
+            double dx = targetPos.x - playerPos.x;
+            double dy = targetPos.y - playerPos.y;
+            double dz = targetPos.z - playerPos.z;
+
+            next.targets[i] = target;
+            // 同一行的目标不变时沿用上一个模型的名称
+            next.names[i] = !namesStale && i < previous.size() && previous.targets[i] == target
+                    ? previous.names[i] : target.getDisplayName();
+            next.previousDistances[i] = (float) previousPos.distanceTo(targetPos);
+            next.distances[i] = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+            next.offsetX[i] = dx;
+            next.offsetY[i] = dy;
+            next.offsetZ[i] = dz;
+            next.directions[i] = getDirectionCode(dx, dy, dz, sector);
+        }
+        namesStale = false;
+        model = next;
     }
 
     @Override
@@ -139,30 +230,14 @@ public class TargetListHud extends HudElement {
             return;
         }
 
-        TargetTracker tracker = core.getTargetTracker();
-        if (tracker == null) {
-            return;
-        }
-
-        Entity player = client.player;
+        checkLanguage(client);
 
-        // 性能优化：每100ms才更新一次目标列表
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastUpdateTime > UPDATE_INTERVAL_MS) {
-            cachedTargets = tracker.getNearestTargets(player, core.getConfig().getMaxHudTargets());
-            lastUpdateTime = currentTime;
-            // 目标列表变化时，清空方向缓存
-            directionCache.clear();
-            // 同时更新缓存的最大名称长度
-            cachedMaxNameLength = cachedTargets.stream()
-                    .mapToInt(t -> t.getDisplayName().length())
-                    .max()
-                    .orElse(0);
-        }
-
-        if (cachedTargets.isEmpty()) {
+        TargetListModel current = model;
+        int rows = current.size();
+        if (rows == 0) {
             return;
         }
+        ensureLines(current);
 
         TextRenderer textRenderer = client.textRenderer;
 
@@ -171,44 +246,128 @@ public class TargetListHud extends HudElement {
         // 渲染模式和预设信息
         var clientCore = VoxelPtrClient.getClientCore();
         if (clientCore != null && clientCore.getKeyBindingManager() != null) {
-            var keyManager = clientCore.getKeyBindingManager();
-            String modeName = keyManager.getCurrentModeName();
-            String presetName = keyManager.getCurrentPresetName();
+            KeyBindingManager keyManager = clientCore.getKeyBindingManager();
+            if (modeLine == null) {
+                modeLine = Text.literal(keyManager.getCurrentModeName()).formatted(Formatting.AQUA).asOrderedText();
+            }
+            if (keyManager.getCurrentPresetIndex() != lastPresetIndex) {
+                lastPresetIndex = keyManager.getCurrentPresetIndex();
+                presetLine = Text.literal(keyManager.getCurrentPresetName()).formatted(Formatting.GREEN).asOrderedText();
+            }
 
             // 第一行：模式
-            context.drawTextWithShadow(textRenderer, "§b" + modeName, x, yOffset, 0xFFFFFF);
+            context.drawTextWithShadow(textRenderer, modeLine, x, yOffset, 0xFFFFFF);
             yOffset += 10;
 
             // 第二行：预设
-            context.drawTextWithShadow(textRenderer, "§a" + presetName, x, yOffset, 0xFFFFFF);
+            context.drawTextWithShadow(textRenderer, presetLine, x, yOffset, 0xFFFFFF);
             yOffset += 10;
         }
 
         // 第三行：目标数量
-        String title = I18n.translate("hud.voxelptr.targets", String.valueOf(cachedTargets.size()));
-        context.drawTextWithShadow(textRenderer, title, x, yOffset, 0xFFFFFF);
+        if (rows != lastTitleCount) {
+            lastTitleCount = rows;
+            titleLine = Text.literal(I18n.translate("hud.voxelptr.targets", String.valueOf(rows))).asOrderedText();
+        }
+        context.drawTextWithShadow(textRenderer, titleLine, x, yOffset, 0xFFFFFF);
         yOffset += 12;
 
-        // 渲染每个目标（带方向指示）
-        // 性能优化：使用缓存的 maxNameLength，避免每帧重新计算
-        for (int i = 0; i < Math.min(cachedTargets.size(), core.getConfig().getMaxHudTargets()); i++) {
-            Target target = cachedTargets.get(i);
-            float distance = target.getDistanceTo(player);
-            String direction = getDirectionString(player, target);
+        // 偏航角按帧更新（视角转动不等 tick），扇区与模型相同时直接使用模型中的方向
+        yawSector = YawSectors.update(yawSector, client.player.getYaw());
+
+        // 渲染每个目标：距离按 tickDelta 插值，只有距离档位或方向变化的行才重新生成文本
+        for (int i = 0; i < rows; i++) {
+            Line line = lines[i];
+            int distanceBucket = Math.round(current.getInterpolatedDistance(i, tickDelta) * 10.0f);
+
+            int direction;
+            if (yawSector == current.getYawSector()) {
+                direction = current.directions[i];
+            } else if (line.modelVersion == current.getVersion() && line.yawSector == yawSector) {
+                direction = line.direction;
+            } else {
+                direction = getDirectionCode(current.offsetX[i], current.offsetY[i], current.offsetZ[i], yawSector);
+            }
+            line.modelVersion = current.getVersion();
+            line.yawSector = yawSector;
+
+            if (line.text == null || distanceBucket != line.distanceBucket || direction != line.direction) {
+                line.distanceBucket = distanceBucket;
+                line.direction = direction;
+                line.text = buildLineText(line);
+            }
+
+            context.drawTextWithShadow(textRenderer, line.text, x, yOffset, line.target.getColor());
+            yOffset += 10;
+        }
+    }
 
-            // 使用固定宽度格式化名称，左对齐并填充空格
-            // 格式: "钻石矿石     👆↑ 12.5m"
-            String text = String.format("%-" + cachedMaxNameLength + "s %s %.1fm",
-                    target.getDisplayName(),
-                    direction,
-                    distance
-            );
+    /**
+     * 模型更新后，把各行的目标和名称同步到行缓存
+     * 同一行的目标和名称不变时保留已生成的文本
+     */
+    private void ensureLines(TargetListModel current) {
+        int rows = current.size();
+        if (lines.length < rows) {
+            Line[] grown = new Line[Math.max(rows, lines.length * 2)];
+            System.arraycopy(lines, 0, grown, 0, lines.length);
+            lines = grown;
+        }
 
-            int color = target.getColor();
-            context.drawTextWithShadow(textRenderer, text, x, yOffset, color);
+        int maxNameLength = 0;
+        for (int i = 0; i < rows; i++) {
+            Line line = lines[i];
+            if (line == null) {
+                line = new Line();
+                lines[i] = line;
+            }
+
+            Target target = current.targets[i];
+            String name = current.names[i];
+            if (line.target != target || line.name != name) {
+                line.target = target;
+                line.name = name;
+                line.text = null;
+            }
+            maxNameLength = Math.max(maxNameLength, name.length());
+        }
 
-            yOffset += 10;
+        // 对齐宽度变化时所有行重新生成
+        if (maxNameLength != cachedMaxNameLength) {
+            cachedMaxNameLength = maxNameLength;
+            for (int i = 0; i < rows; i++) {
+                lines[i].text = null;
+            }
+        }
+
+        // 超出范围的行释放目标引用
+        for (int i = rows; i < lines.length && lines[i] != null; i++) {
+            lines[i].target = null;
+            lines[i].name = null;
+            lines[i].text = null;
+        }
+    }
+
+    /**
+     * 生成一行文本
+     * 格式: "钻石矿石     上下:- 左右:→ 前后:↑ 12.5m"（名称左对齐并填充空格）
+     */
+    private OrderedText buildLineText(Line line) {
+        builder.setLength(0);
+        builder.append(line.name);
+        for (int pad = line.name.length(); pad < cachedMaxNameLength; pad++) {
+            builder.append(' ');
         }
+        builder.append(' ').append(directionStrings[line.direction]).append(' ')
+                .append(line.distanceBucket / 10).append('.').append(line.distanceBucket % 10).append('m');
+        return Text.literal(builder.toString()).asOrderedText();
+    }
+
+    /**
+     * 获取最近一次 tick 生成的模型（渲染和性能测试只读）
+     */
+    public TargetListModel getModel() {
+        return model;
     }
 
     @Override
@@ -0,0 +1,88 @@
+package io.github.yynps737.voxelptr.client.hud;
+
+import io.github.yynps737.voxelptr.target.Target;
+
+/**
+ * 目标列表 HUD 的数据模型
+ * 每个客户端 tick 生成一次（已排序的行、距离、相对偏移、方向），渲染线程只读取和插值
+ *
+ * - 每行记录上一 tick 和本 tick 玩家位置到目标的距离，渲染时按 tickDelta 插值，任意帧率下距离都平滑变化
+ * - 方向按生成时的偏航角扇区预先计算；渲染时扇区不同才用相对偏移重新计算
+ * - 发布后不再修改，可直接在渲染线程读取
+ */
+public final class TargetListModel {
+
+    public static final TargetListModel EMPTY = new TargetListModel(0, 0, -1);
+
+    private final long version;
+    private final int size;
+    private final int yawSector;
+
+    final Target[] targets;
+    final String[] names;
+    final float[] previousDistances;
+    final float[] distances;
+    final double[] offsetX;
+    final double[] offsetY;
+    final double[] offsetZ;
+    final int[] directions;
+
+    /**
+     * 构造函数（由 TargetListHud 在 tick 中填充各数组后发布）
+     *
+     * @param version 模型版本（每次生成递增）
+     * @param size 行数
+     * @param yawSector 生成方向时使用的偏航角扇区
+     */
+    TargetListModel(long version, int size, int yawSector) {
+        this.version = version;
+        this.size = size;
+        this.yawSector = yawSector;
+        this.targets = new Target[size];
+        this.names = new String[size];
+        this.previousDistances = new float[size];
+        this.distances = new float[size];
+        this.offsetX = new double[size];
+        this.offsetY = new double[size];
+        this.offsetZ = new double[size];
+        this.directions = new int[size];
+    }
+
+    /**
+     * 获取模型版本
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取行数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 获取生成方向时使用的偏航角扇区
+     */
+    public int getYawSector() {
+        return yawSector;
+    }
+
+    /**
+     * 获取某一行的目标
+     */
+    public Target getTarget(int row) {
+        return targets[row];
+    }
+
+    /**
+     * 获取某一行按 tickDelta 插值后的距离
+     *
+     * @param row 行号
+     * @param tickDelta tick 进度 (0-1)
+     */
+    public float getInterpolatedDistance(int row, float tickDelta) {
+        return previousDistances[row] + (distances[row] - previousDistances[row]) * tickDelta;
+    }
+}
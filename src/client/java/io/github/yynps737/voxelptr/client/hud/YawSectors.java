@@ -0,0 +1,113 @@
+package io.github.yynps737.voxelptr.client.hud;
+
+import net.minecraft.util.math.MathHelper;
+
+/**
+ * 偏航角扇区量化
+ * 把玩家朝向量化为固定数量的扇区，基向量按扇区预先计算，HUD 每帧不做三角函数运算
+ *
+ * - 扇区切换带迟滞：偏航角需越过扇区边界一定余量才切换，鼠标在边界附近抖动不会反复失效缓存
+ * - 基向量约定与原向量投影算法一致：Yaw=0 朝南(+Z)，-90 朝东(+X)
+ *   前方向量 (-sin(yaw), cos(yaw))，右方向量 (-cos(yaw), -sin(yaw))
+ */
+public final class YawSectors {
+
+    /**
+     * 扇区数量（每个扇区 5.625 度）
+     */
+    public static final int SECTOR_COUNT = 64;
+
+    /**
+     * 每个扇区的角度
+     */
+    public static final float SECTOR_DEGREES = 360.0f / SECTOR_COUNT;
+
+    /**
+     * 切换扇区的迟滞余量（度）
+     */
+    private static final float HYSTERESIS_DEGREES = 1.0f;
+
+    // 各扇区中心的前方向量
+    private static final double[] FORWARD_X = new double[SECTOR_COUNT];
+    private static final double[] FORWARD_Z = new double[SECTOR_COUNT];
+
+    static {
+        for (int sector = 0; sector < SECTOR_COUNT; sector++) {
+            double yawRad = Math.toRadians(sector * SECTOR_DEGREES);
+            FORWARD_X[sector] = -Math.sin(yawRad);
+            FORWARD_Z[sector] = Math.cos(yawRad);
+        }
+    }
+
+    private YawSectors() {
+    }
+
+    /**
+     * 计算偏航角所在的扇区（扇区以中心角为准，扇区 0 覆盖 [-半个扇区, +半个扇区)）
+     *
+     * @param yaw 偏航角（任意范围）
+     * @return 扇区编号 [0, SECTOR_COUNT)
+     */
+    public static int sectorOf(float yaw) {
+        float wrapped = MathHelper.floorMod(yaw + SECTOR_DEGREES * 0.5f, 360.0f);
+        return Math.min((int) (wrapped / SECTOR_DEGREES), SECTOR_COUNT - 1);
+    }
+
+    /**
+     * 计算朝向水平位移 (dx, dz) 时的偏航角
+     * 前方向量 (-sin(yaw), cos(yaw)) 的反函数
+     *
+     * @param dx X 方向位移
+     * @param dz Z 方向位移
+     * @return 偏航角 (-180, 180]
+     */
+    public static float yawOf(double dx, double dz) {
+        return (float) Math.toDegrees(Math.atan2(-dx, dz));
+    }
+
+    /**
+     * 带迟滞的扇区更新：只有偏航角离开当前扇区超过余量时才切换
+     *
+     * @param current 当前扇区（-1 表示尚未初始化）
+     * @param yaw 偏航角
+     * @return 新的扇区
+     */
+    public static int update(int current, float yaw) {
+        int sector = sectorOf(yaw);
+        if (current < 0 || sector == current) {
+            return sector;
+        }
+
+        // 与当前扇区中心的角度差未超过半个扇区 + 余量时保持不变
+        float delta = Math.abs(MathHelper.wrapDegrees(yaw - current * SECTOR_DEGREES));
+        return delta <= SECTOR_DEGREES * 0.5f + HYSTERESIS_DEGREES ? current : sector;
+    }
+
+    /**
+     * 扇区中心的前方向量 X 分量
+     */
+    public static double forwardX(int sector) {
+        return FORWARD_X[sector];
+    }
+
+    /**
+     * 扇区中心的前方向量 Z 分量
+     */
+    public static double forwardZ(int sector) {
+        return FORWARD_Z[sector];
+    }
+
+    /**
+     * 扇区中心的右方向量 X 分量（前方向量顺时针旋转 90 度）
+     */
+    public static double rightX(int sector) {
+        return -FORWARD_Z[sector];
+    }
+
+    /**
+     * 扇区中心的右方向量 Z 分量
+     */
+    public static double rightZ(int sector) {
+        return FORWARD_X[sector];
+    }
+}
@@ -0,0 +1,243 @@
+package io.github.yynps737.voxelptr.client.render;
+
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.util.math.Vec3d;
+import org.joml.Matrix4f;
+
+/**
+ * 单个区块的高亮几何数据（预先生成的线条和面片顶点）
+ *
+ * - 顶点坐标相对区块原点 (startX, 0, startZ) 存储，法线和颜色预先计算
+ * - 顶点按区块段分组，渲染时可按区块段剔除
+ * - 只在区块扫描结果变化时重建（由 VeinOutlineBuilder 在后台线程生成），每帧只做批量拷贝
+ */
+public class ChunkHighlightMesh {
+
+    /**
+     * 线条每个顶点的浮点数：x, y, z, nx, ny, nz
+     */
+    private static final int LINE_FLOATS_PER_VERTEX = 6;
+
+    /**
+     * 面片每个顶点的浮点数：x, y, z
+     */
+    private static final int QUAD_FLOATS_PER_VERTEX = 3;
+
+    /**
+     * 单个方块轮廓的顶点数（12 条边），用于把顶点数换算为方框数
+     */
+    public static final int VERTICES_PER_BOX = 24;
+
+    private final int originX;
+    private final int originZ;
+
+    private final float[] lineVertices;
+    private final int[] lineColors;
+    private final float[] quadVertices;
+    private final int[] quadColors;
+
+    /**
+     * 包含顶点的区块段 Y 坐标（升序）
+     */
+    private final int[] sectionYs;
+
+    /**
+     * 每个区块段的起始顶点下标（长度为 sectionYs.length + 1）
+     */
+    private final int[] lineStarts;
+    private final int[] quadStarts;
+
+    private ChunkHighlightMesh(Builder builder) {
+        this.originX = builder.originX;
+        this.originZ = builder.originZ;
+        this.lineVertices = builder.lineVertices.toFloatArray();
+        this.lineColors = builder.lineColors.toIntArray();
+        this.quadVertices = builder.quadVertices.toFloatArray();
+        this.quadColors = builder.quadColors.toIntArray();
+        this.sectionYs = builder.sectionYs.toIntArray();
+        this.lineStarts = builder.lineStarts.toIntArray();
+        this.quadStarts = builder.quadStarts.toIntArray();
+    }
+
+    /**
+     * 几何数据构建器
+     * 按区块段 Y 坐标升序调用 beginSection，再追加该区块段的线条和面片
+     * 坐标均为世界坐标，内部转换为相对区块原点
+     */
+    public static final class Builder {
+
+        private final int originX;
+        private final int originZ;
+        private final FloatArrayList lineVertices = new FloatArrayList();
+        private final IntArrayList lineColors = new IntArrayList();
+        private final FloatArrayList quadVertices = new FloatArrayList();
+        private final IntArrayList quadColors = new IntArrayList();
+        private final IntArrayList sectionYs = new IntArrayList();
+        private final IntArrayList lineStarts = new IntArrayList();
+        private final IntArrayList quadStarts = new IntArrayList();
+
+        public Builder(int originX, int originZ) {
+            this.originX = originX;
+            this.originZ = originZ;
+        }
+
+        /**
+         * 开始一个新的区块段
+         *
+         * @param sectionY 区块段 Y 坐标（必须大于上一个区块段）
+         */
+        public void beginSection(int sectionY) {
+            sectionYs.add(sectionY);
+            lineStarts.add(lineColors.size());
+            quadStarts.add(quadColors.size());
+        }
+
+        /**
+         * 追加一条线（法线为线条方向，预先归一化）
+         */
+        public void addLine(float x1, float y1, float z1, float x2, float y2, float z2, int color) {
+            float nx = x2 - x1;
+            float ny = y2 - y1;
+            float nz = z2 - z1;
+            float len = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (len > 0) {
+                nx /= len;
+                ny /= len;
+                nz /= len;
+            } else {
+                ny = 1;
+            }
+
+            addLineVertex(x1, y1, z1, nx, ny, nz, color);
+            addLineVertex(x2, y2, z2, nx, ny, nz, color);
+        }
+
+        private void addLineVertex(float x, float y, float z, float nx, float ny, float nz, int color) {
+            lineVertices.add(x - originX);
+            lineVertices.add(y);
+            lineVertices.add(z - originZ);
+            lineVertices.add(nx);
+            lineVertices.add(ny);
+            lineVertices.add(nz);
+            lineColors.add(color);
+        }
+
+        /**
+         * 追加一个四边形面片（四个顶点按环绕顺序）
+         */
+        public void addQuad(float x1, float y1, float z1, float x2, float y2, float z2,
+                            float x3, float y3, float z3, float x4, float y4, float z4, int color) {
+            addQuadVertex(x1, y1, z1, color);
+            addQuadVertex(x2, y2, z2, color);
+            addQuadVertex(x3, y3, z3, color);
+            addQuadVertex(x4, y4, z4, color);
+        }
+
+        private void addQuadVertex(float x, float y, float z, int color) {
+            quadVertices.add(x - originX);
+            quadVertices.add(y);
+            quadVertices.add(z - originZ);
+            quadColors.add(color);
+        }
+
+        public ChunkHighlightMesh build() {
+            lineStarts.add(lineColors.size());
+            quadStarts.add(quadColors.size());
+            return new ChunkHighlightMesh(this);
+        }
+    }
+
+    /**
+     * 将一个区块段的线条写入顶点消费者
+     *
+     * @param sectionIndex 区块段下标（0 到 getSectionCount() - 1）
+     * @param consumer 线条顶点消费者（整帧共用）
+     * @param matrix 当前变换矩阵（只含相机旋转）
+     * @param cameraPos 相机位置
+     */
+    public void drawSectionLines(int sectionIndex, VertexConsumer consumer, Matrix4f matrix, Vec3d cameraPos) {
+        float offsetX = (float) (originX - cameraPos.x);
+        float offsetY = (float) -cameraPos.y;
+        float offsetZ = (float) (originZ - cameraPos.z);
+
+        int end = lineStarts[sectionIndex + 1];
+        for (int v = lineStarts[sectionIndex]; v < end; v++) {
+            int i = v * LINE_FLOATS_PER_VERTEX;
+            consumer.vertex(matrix, lineVertices[i] + offsetX, lineVertices[i + 1] + offsetY, lineVertices[i + 2] + offsetZ)
+                    .color(lineColors[v])
+                    .normal(lineVertices[i + 3], lineVertices[i + 4], lineVertices[i + 5]);
+        }
+    }
+
+    /**
+     * 将一个区块段的面片写入顶点消费者
+     *
+     * @param sectionIndex 区块段下标
+     * @param consumer 面片顶点消费者（整帧共用）
+     * @param matrix 当前变换矩阵
+     * @param cameraPos 相机位置
+     */
+    public void drawSectionQuads(int sectionIndex, VertexConsumer consumer, Matrix4f matrix, Vec3d cameraPos) {
+        float offsetX = (float) (originX - cameraPos.x);
+        float offsetY = (float) -cameraPos.y;
+        float offsetZ = (float) (originZ - cameraPos.z);
+
+        int end = quadStarts[sectionIndex + 1];
+        for (int v = quadStarts[sectionIndex]; v < end; v++) {
+            int i = v * QUAD_FLOATS_PER_VERTEX;
+            consumer.vertex(matrix, quadVertices[i] + offsetX, quadVertices[i + 1] + offsetY, quadVertices[i + 2] + offsetZ)
+                    .color(quadColors[v]);
+        }
+    }
+
+    /**
+     * 获取包含顶点的区块段数量
+     */
+    public int getSectionCount() {
+        return sectionYs.length;
+    }
+
+    /**
+     * 获取区块段的 Y 坐标（区块段坐标）
+     */
+    public int getSectionY(int sectionIndex) {
+        return sectionYs[sectionIndex];
+    }
+
+    /**
+     * 获取区块段的线条顶点数
+     */
+    public int getSectionLineVertexCount(int sectionIndex) {
+        return lineStarts[sectionIndex + 1] - lineStarts[sectionIndex];
+    }
+
+    /**
+     * 获取区块段的面片顶点数
+     */
+    public int getSectionQuadVertexCount(int sectionIndex) {
+        return quadStarts[sectionIndex + 1] - quadStarts[sectionIndex];
+    }
+
+    /**
+     * 获取区块 X 坐标（区块坐标）
+     */
+    public int getChunkX() {
+        return originX >> 4;
+    }
+
+    /**
+     * 获取区块 Z 坐标（区块坐标）
+     */
+    public int getChunkZ() {
+        return originZ >> 4;
+    }
+
+    /**
+     * 获取顶点总数
+     */
+    public int getVertexCount() {
+        return lineColors.length + quadColors.length;
+    }
+}
@@ -0,0 +1,233 @@
+package io.github.yynps737.voxelptr.client.render;
+
+import io.github.yynps737.voxelptr.VoxelPtr;
+import io.github.yynps737.voxelptr.scanner.ChunkScanCache;
+import io.github.yynps737.voxelptr.target.types.BlockTarget;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 区块高亮几何缓存
+ * 与 ChunkScanCache 一样按区块分组，只重建扫描结果发生变化的区块
+ *
+ * - 轮廓由 VeinOutlineBuilder 在后台线程生成，渲染线程只提交任务和接收结果
+ * - 区块变化时同时重建周围 8 个区块（跨区块矿脉的轮廓边依赖相邻区块）
+ * - 每个区块记录构建代数，过期的构建结果直接丢弃
+ * - 只在接入扫描缓存期间让其记录变化的区块；高亮关闭时 detach，避免变化记录无限增长
+ *
+ * 线程模型：除构建任务外，所有方法只在渲染线程调用
+ */
+public class ChunkHighlightMeshCache {
+
+    /**
+     * 构建结果
+     */
+    private static final class BuildResult {
+        final long chunkKey;
+        final int generation;
+        final ChunkHighlightMesh mesh;
+
+        BuildResult(long chunkKey, int generation, ChunkHighlightMesh mesh) {
+            this.chunkKey = chunkKey;
+            this.generation = generation;
+            this.mesh = mesh;
+        }
+    }
+
+    /**
+     * 每个区块的几何数据（Key: ChunkPos.toLong()）
+     */
+    private final Long2ObjectOpenHashMap<ChunkHighlightMesh> meshes = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * 每个区块最近一次提交的构建代数
+     */
+    private final Long2IntOpenHashMap generations = new Long2IntOpenHashMap();
+
+    /**
+     * 后台线程完成的构建结果
+     */
+    private final Queue<BuildResult> completed = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 后台构建线程
+     */
+    private final ExecutorService buildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "VoxelPtr-Mesher");
+        thread.setDaemon(true); // 守护线程，游戏关闭时自动停止
+        return thread;
+    });
+
+    /**
+     * 当前接入的扫描缓存（其变化区块记录由本缓存消费）
+     */
+    private ChunkScanCache attached;
+
+    /**
+     * 本次同步需要重建的区块（复用，避免每帧分配）
+     */
+    private final LongOpenHashSet rebuild = new LongOpenHashSet();
+
+    /**
+     * 当前是否生成填充面
+     */
+    private boolean filled;
+
+    /**
+     * 累计重建次数（用于调试）
+     */
+    private long rebuildCount;
+
+    /**
+     * 与扫描缓存同步：接收已完成的构建结果，并为变化的区块提交新的构建任务
+     *
+     * @param scanCache 扫描缓存
+     * @param filled 是否生成填充面（变化时重建全部区块）
+     */
+    public void sync(ChunkScanCache scanCache, boolean filled) {
+        if (scanCache != attached) {
+            // 接入新的扫描缓存：开启记录后其全部区块被标记为变化，下面会全部重建
+            detach();
+            scanCache.setDirtyTracking(true);
+            attached = scanCache;
+        }
+
+        // 1. 接收后台线程完成的结果（过期的直接丢弃）
+        BuildResult result;
+        while ((result = completed.poll()) != null) {
+            if (generations.get(result.chunkKey) != result.generation) {
+                continue;
+            }
+            if (result.mesh == null) {
+                meshes.remove(result.chunkKey);
+                generations.remove(result.chunkKey);
+            } else {
+                meshes.put(result.chunkKey, result.mesh);
+            }
+        }
+
+        // 2. 收集需要重建的区块：变化的区块及其周围 8 个区块
+        rebuild.clear();
+        if (filled != this.filled) {
+            this.filled = filled;
+            rebuild.addAll(generations.keySet());
+        }
+        for (long chunkKey : scanCache.drainDirtyChunks()) {
+            int chunkX = ChunkPos.getPackedX(chunkKey);
+            int chunkZ = ChunkPos.getPackedZ(chunkKey);
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    long neighborKey = ChunkPos.toLong(chunkX + dx, chunkZ + dz);
+                    // 相邻区块只有已有（或正在构建）几何数据时才需要重建
+                    if ((dx == 0 && dz == 0) || generations.containsKey(neighborKey)) {
+                        rebuild.add(neighborKey);
+                    }
+                }
+            }
+        }
+
+        // 3. 提交后台构建
+        for (long chunkKey : rebuild) {
+            int generation = generations.get(chunkKey) + 1;
+            generations.put(chunkKey, generation);
+            submitBuild(scanCache, chunkKey, generation, filled);
+        }
+    }
+
+    /**
+     * 在后台线程读取区块及相邻区块的目标并生成轮廓
+     */
+    private void submitBuild(ChunkScanCache scanCache, long chunkKey, int generation, boolean filled) {
+        buildExecutor.execute(() -> {
+            try {
+                ChunkPos pos = new ChunkPos(chunkKey);
+                List<BlockTarget> own = scanCache.copyTargets(pos);
+                if (own == null || own.isEmpty()) {
+                    completed.add(new BuildResult(chunkKey, generation, null));
+                    return;
+                }
+
+                Long2IntOpenHashMap occupancy = new Long2IntOpenHashMap();
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dz = -1; dz <= 1; dz++) {
+                        List<BlockTarget> targets = (dx == 0 && dz == 0)
+                                ? own : scanCache.copyTargets(new ChunkPos(pos.x + dx, pos.z + dz));
+                        if (targets == null) {
+                            continue;
+                        }
+                        for (BlockTarget target : targets) {
+                            occupancy.put(target.getBlockPos().asLong(), target.getColor());
+                        }
+                    }
+                }
+
+                completed.add(new BuildResult(chunkKey, generation, VeinOutlineBuilder.build(pos, occupancy, filled)));
+            } catch (Exception e) {
+                VoxelPtr.LOGGER.error("生成区块 {} 的高亮几何数据时出错", new ChunkPos(chunkKey), e);
+            }
+        });
+        rebuildCount++;
+    }
+
+    /**
+     * 断开扫描缓存（高亮关闭时调用）
+     * 停止其变化区块记录并清空几何数据；断开期间的变化没有记录，重新接入时全部重建
+     */
+    public void detach() {
+        if (attached == null) {
+            return;
+        }
+        attached.setDirtyTracking(false);
+        attached = null;
+        clear();
+    }
+
+    /**
+     * 关闭后台构建线程
+     */
+    public void shutdown() {
+        detach();
+        buildExecutor.shutdownNow();
+    }
+
+    /**
+     * 获取所有区块的几何数据
+     */
+    public Collection<ChunkHighlightMesh> getMeshes() {
+        return meshes.values();
+    }
+
+    /**
+     * 获取缓存的区块数
+     */
+    public int size() {
+        return meshes.size();
+    }
+
+    /**
+     * 获取累计重建次数
+     */
+    public long getRebuildCount() {
+        return rebuildCount;
+    }
+
+    /**
+     * 清空所有几何数据
+     * 已提交的构建任务完成后会因代数不匹配而被丢弃
+     */
+    public void clear() {
+        meshes.clear();
+        for (long chunkKey : generations.keySet()) {
+            generations.put(chunkKey, generations.get(chunkKey) + 1);
+        }
+    }
+}
@@ -272,6 +272,103 @@ public class RenderUtil {
         matrices.pop();
     }
 
+    /**
+     * 向已有的顶点消费者追加方框轮廓（批量渲染用，不创建缓冲区、不立即绘制）
+     * 坐标先以 double 减去相机位置再转为 float，远离原点时也不会丢失精度
+     *
+     * @param consumer 顶点消费者（同一帧内所有方框共用）
+     * @param matrix 当前变换矩阵（只含相机旋转）
+     * @param minX 最小 X（世界坐标）
+     * @param minY 最小 Y
+     * @param minZ 最小 Z
+     * @param maxX 最大 X
+     * @param maxY 最大 Y
+     * @param maxZ 最大 Z
+     * @param cameraPos 相机位置
+     * @param red 红色 (0-1)
+     * @param green 绿色 (0-1)
+     * @param blue 蓝色 (0-1)
+     * @param alpha 透明度 (0-1)
+     */
+    public static void appendBoxOutline(
+            VertexConsumer consumer,
+            Matrix4f matrix,
+            double minX, double minY, double minZ,
+            double maxX, double maxY, double maxZ,
+            Vec3d cameraPos,
+            float red,
+            float green,
+            float blue,
+            float alpha
+    ) {
+        drawBoxEdges(consumer, matrix,
+                (float) (minX - cameraPos.x), (float) (minY - cameraPos.y), (float) (minZ - cameraPos.z),
+                (float) (maxX - cameraPos.x), (float) (maxY - cameraPos.y), (float) (maxZ - cameraPos.z),
+                red, green, blue, alpha);
+    }
+
+    /**
+     * 向已有的顶点消费者追加一条线（批量渲染用）
+     *
+     * @param consumer 顶点消费者
+     * @param matrix 当前变换矩阵（只含相机旋转）
+     * @param fromX 起点 X（世界坐标）
+     * @param fromY 起点 Y
+     * @param fromZ 起点 Z
+     * @param toX 终点 X
+     * @param toY 终点 Y
+     * @param toZ 终点 Z
+     * @param cameraPos 相机位置
+     */
+    public static void appendLine(
+            VertexConsumer consumer,
+            Matrix4f matrix,
+            double fromX, double fromY, double fromZ,
+            double toX, double toY, double toZ,
+            Vec3d cameraPos,
+            float red,
+            float green,
+            float blue,
+            float alpha
+    ) {
+        addLine(consumer, matrix,
+                (float) (fromX - cameraPos.x), (float) (fromY - cameraPos.y), (float) (fromZ - cameraPos.z),
+                (float) (toX - cameraPos.x), (float) (toY - cameraPos.y), (float) (toZ - cameraPos.z),
+                red, green, blue, alpha);
+    }
+
+    /**
+     * 向已有的顶点消费者追加点标记：过中心的三条轴线（6 个顶点，远处目标的低细节替代）
+     *
+     * @param consumer 顶点消费者
+     * @param matrix 当前变换矩阵（只含相机旋转）
+     * @param x 中心 X（世界坐标）
+     * @param y 中心 Y
+     * @param z 中心 Z
+     * @param halfSize 轴线半长
+     * @param cameraPos 相机位置
+     */
+    public static void appendPointMarker(
+            VertexConsumer consumer,
+            Matrix4f matrix,
+            double x, double y, double z,
+            double halfSize,
+            Vec3d cameraPos,
+            float red,
+            float green,
+            float blue,
+            float alpha
+    ) {
+        float cx = (float) (x - cameraPos.x);
+        float cy = (float) (y - cameraPos.y);
+        float cz = (float) (z - cameraPos.z);
+        float h = (float) halfSize;
+
+        addLine(consumer, matrix, cx - h, cy, cz, cx + h, cy, cz, red, green, blue, alpha);
+        addLine(consumer, matrix, cx, cy - h, cz, cx, cy + h, cz, red, green, blue, alpha);
+        addLine(consumer, matrix, cx, cy, cz - h, cx, cy, cz + h, red, green, blue, alpha);
+    }
+
     /**
      * 绘制方框的 12 条边
      */
@@ -0,0 +1,382 @@
+package io.github.yynps737.voxelptr.client.render;
+
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectRBTreeMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * 矿脉轮廓生成器
+ * 把相邻的目标方块视为一个整体，只生成外轮廓，而不是每个方块 12 条边
+ *
+ * 核心算法：
+ * - 轮廓边：网格上每条单位棱周围有 4 个格子，只有 1 个或 3 个被占据（凸棱、凹棱），
+ *   或 2 个对角占据时才绘制；共面的内部棱和完全被包围的棱都被剔除
+ * - 共线的轮廓边合并为一条长线（同色、同一区块段内）
+ * - 填充模式：暴露的面按方向和平面分组，在 16x16 掩码上贪心合并为最大矩形
+ *
+ * 跨区块的矿脉：占据信息包含相邻区块，每条边和每个面只由所属区块生成一次
+ * 纯函数，可在后台线程调用
+ */
+public final class VeinOutlineBuilder {
+
+    /**
+     * 填充面的透明度
+     */
+    private static final int FACE_ALPHA = 0x40;
+
+    /**
+     * 填充面沿法线方向的偏移，避免与方块表面深度冲突
+     */
+    private static final float FACE_OFFSET = 0.002f;
+
+    /**
+     * 三个轴的单位向量
+     */
+    private static final int[][] AXES = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}};
+
+    /**
+     * 六个面方向：{dx, dy, dz}，顺序为 -Y, +Y, -X, +X, -Z, +Z
+     */
+    private static final int[][] FACE_DIRECTIONS = {
+            {0, -1, 0}, {0, 1, 0}, {-1, 0, 0}, {1, 0, 0}, {0, 0, -1}, {0, 0, 1}
+    };
+
+    private VeinOutlineBuilder() {
+    }
+
+    /**
+     * 单个区块段的几何数据（生成过程中的临时容器）
+     */
+    private static final class SectionGeometry {
+        final FloatArrayList lines = new FloatArrayList();
+        final IntArrayList lineColors = new IntArrayList();
+        final FloatArrayList quads = new FloatArrayList();
+        final IntArrayList quadColors = new IntArrayList();
+    }
+
+    /**
+     * 生成区块的矿脉轮廓
+     *
+     * @param chunkPos 区块坐标
+     * @param occupancy 目标方块占据信息（Key: BlockPos.asLong()，Value: ARGB 颜色），
+     *                  需包含本区块和周围 8 个区块的目标
+     * @param filled 是否生成填充面
+     * @return 几何数据
+     */
+    public static ChunkHighlightMesh build(ChunkPos chunkPos, Long2IntOpenHashMap occupancy, boolean filled) {
+        Int2ObjectRBTreeMap<SectionGeometry> sections = new Int2ObjectRBTreeMap<>();
+
+        buildEdges(chunkPos, occupancy, sections);
+        if (filled) {
+            buildFaces(chunkPos, occupancy, sections);
+        }
+
+        ChunkHighlightMesh.Builder builder = new ChunkHighlightMesh.Builder(chunkPos.getStartX(), chunkPos.getStartZ());
+        for (Int2ObjectMap.Entry<SectionGeometry> entry : sections.int2ObjectEntrySet()) {
+            builder.beginSection(entry.getIntKey());
+            SectionGeometry geometry = entry.getValue();
+
+            FloatArrayList lines = geometry.lines;
+            for (int i = 0, n = geometry.lineColors.size(); i < n; i++) {
+                int o = i * 6;
+                builder.addLine(lines.getFloat(o), lines.getFloat(o + 1), lines.getFloat(o + 2),
+                        lines.getFloat(o + 3), lines.getFloat(o + 4), lines.getFloat(o + 5),
+                        geometry.lineColors.getInt(i));
+            }
+
+            FloatArrayList quads = geometry.quads;
+            for (int i = 0, n = geometry.quadColors.size(); i < n; i++) {
+                int o = i * 12;
+                builder.addQuad(quads.getFloat(o), quads.getFloat(o + 1), quads.getFloat(o + 2),
+                        quads.getFloat(o + 3), quads.getFloat(o + 4), quads.getFloat(o + 5),
+                        quads.getFloat(o + 6), quads.getFloat(o + 7), quads.getFloat(o + 8),
+                        quads.getFloat(o + 9), quads.getFloat(o + 10), quads.getFloat(o + 11),
+                        geometry.quadColors.getInt(i));
+            }
+        }
+        return builder.build();
+    }
+
+    // ========== 轮廓边 ==========
+
+    /**
+     * 生成本区块拥有的轮廓边（按棱的起点坐标归属区块），并合并共线的边
+     */
+    private static void buildEdges(ChunkPos chunkPos, Long2IntOpenHashMap occupancy,
+                                   Int2ObjectRBTreeMap<SectionGeometry> sections) {
+        int startX = chunkPos.getStartX();
+        int startZ = chunkPos.getStartZ();
+
+        // 1. 收集候选棱（Key: 起点 BlockPos.asLong()，Value: 颜色），每个轴一组
+        Long2IntOpenHashMap[] edges = new Long2IntOpenHashMap[3];
+        for (int axis = 0; axis < 3; axis++) {
+            edges[axis] = new Long2IntOpenHashMap();
+        }
+
+        for (Long2IntMap.Entry entry : occupancy.long2IntEntrySet()) {
+            long packed = entry.getLongKey();
+            int bx = BlockPos.unpackLongX(packed);
+            int by = BlockPos.unpackLongY(packed);
+            int bz = BlockPos.unpackLongZ(packed);
+
+            // 只有紧邻本区块的方块才可能贡献本区块拥有的棱
+            if (bx < startX - 1 || bx > startX + 16 || bz < startZ - 1 || bz > startZ + 16) {
+                continue;
+            }
+
+            for (int axis = 0; axis < 3; axis++) {
+                int[] u = AXES[(axis + 1) % 3];
+                int[] v = AXES[(axis + 2) % 3];
+                for (int du = 0; du <= 1; du++) {
+                    for (int dv = 0; dv <= 1; dv++) {
+                        int cx = bx + u[0] * du + v[0] * dv;
+                        int cy = by + u[1] * du + v[1] * dv;
+                        int cz = bz + u[2] * du + v[2] * dv;
+                        if (cx >> 4 != chunkPos.x || cz >> 4 != chunkPos.z) {
+                            continue; // 不属于本区块
+                        }
+                        long edgeKey = BlockPos.asLong(cx, cy, cz);
+                        if (edges[axis].containsKey(edgeKey)) {
+                            continue;
+                        }
+                        int color = classifyEdge(occupancy, cx, cy, cz, u, v);
+                        if (color != 0) {
+                            edges[axis].put(edgeKey, color);
+                        }
+                    }
+                }
+            }
+        }
+
+        // 2. 合并共线的棱（同色、同一区块段内）
+        for (int axis = 0; axis < 3; axis++) {
+            Long2IntOpenHashMap axisEdges = edges[axis];
+            int[] dir = AXES[axis];
+            for (Long2IntMap.Entry entry : axisEdges.long2IntEntrySet()) {
+                long edgeKey = entry.getLongKey();
+                int color = entry.getIntValue();
+                int x = BlockPos.unpackLongX(edgeKey);
+                int y = BlockPos.unpackLongY(edgeKey);
+                int z = BlockPos.unpackLongZ(edgeKey);
+
+                // 不是一段的起点，由起点负责生成
+                if (continues(axisEdges, x - dir[0], y - dir[1], z - dir[2], y, color)) {
+                    continue;
+                }
+
+                int length = 1;
+                while (continues(axisEdges, x + dir[0] * length, y + dir[1] * length, z + dir[2] * length, y, color)) {
+                    length++;
+                }
+
+                SectionGeometry geometry = sections.computeIfAbsent(y >> 4, k -> new SectionGeometry());
+                geometry.lines.add(x);
+                geometry.lines.add(y);
+                geometry.lines.add(z);
+                geometry.lines.add(x + dir[0] * length);
+                geometry.lines.add(y + dir[1] * length);
+                geometry.lines.add(z + dir[2] * length);
+                geometry.lineColors.add(color);
+            }
+        }
+    }
+
+    /**
+     * 相邻的棱是否能合并：存在、同色、同一区块段
+     */
+    private static boolean continues(Long2IntOpenHashMap axisEdges, int x, int y, int z, int startY, int color) {
+        if (y >> 4 != startY >> 4) {
+            return false;
+        }
+        return axisEdges.getOrDefault(BlockPos.asLong(x, y, z), 0) == color;
+    }
+
+    /**
+     * 判断一条单位棱是否为轮廓边
+     * 棱周围的 4 个格子：起点、起点 - u、起点 - v、起点 - u - v
+     *
+     * @return 轮廓边的颜色，不需要绘制时返回 0
+     */
+    private static int classifyEdge(Long2IntOpenHashMap occupancy, int x, int y, int z, int[] u, int[] v) {
+        int c00 = occupancy.get(BlockPos.asLong(x, y, z));
+        int c10 = occupancy.get(BlockPos.asLong(x - u[0], y - u[1], z - u[2]));
+        int c01 = occupancy.get(BlockPos.asLong(x - v[0], y - v[1], z - v[2]));
+        int c11 = occupancy.get(BlockPos.asLong(x - u[0] - v[0], y - u[1] - v[1], z - u[2] - v[2]));
+
+        int count = (c00 != 0 ? 1 : 0) + (c10 != 0 ? 1 : 0) + (c01 != 0 ? 1 : 0) + (c11 != 0 ? 1 : 0);
+        boolean draw = count == 1 || count == 3
+                || (count == 2 && ((c00 != 0 && c11 != 0) || (c10 != 0 && c01 != 0)));
+        if (!draw) {
+            return 0;
+        }
+        return c00 != 0 ? c00 : c10 != 0 ? c10 : c01 != 0 ? c01 : c11;
+    }
+
+    // ========== 填充面 ==========
+
+    /**
+     * 生成本区块方块的暴露面，按平面贪心合并为矩形
+     */
+    private static void buildFaces(ChunkPos chunkPos, Long2IntOpenHashMap occupancy,
+                                   Int2ObjectRBTreeMap<SectionGeometry> sections) {
+        int startX = chunkPos.getStartX();
+        int startZ = chunkPos.getStartZ();
+
+        // Key: 方向 | 区块段 | 平面坐标，Value: 16x16 颜色掩码（0 表示无面）
+        Long2ObjectOpenHashMap<int[]> planes = new Long2ObjectOpenHashMap<>();
+
+        for (Long2IntMap.Entry entry : occupancy.long2IntEntrySet()) {
+            long packed = entry.getLongKey();
+            int bx = BlockPos.unpackLongX(packed);
+            int by = BlockPos.unpackLongY(packed);
+            int bz = BlockPos.unpackLongZ(packed);
+            if (bx >> 4 != chunkPos.x || bz >> 4 != chunkPos.z) {
+                continue; // 面由方块所在的区块生成
+            }
+
+            int lx = bx - startX;
+            int ly = by & 15;
+            int lz = bz - startZ;
+            int section = by >> 4;
+
+            for (int face = 0; face < 6; face++) {
+                int[] d = FACE_DIRECTIONS[face];
+                if (occupancy.containsKey(BlockPos.asLong(bx + d[0], by + d[1], bz + d[2]))) {
+                    continue; // 被相邻目标方块遮挡
+                }
+
+                int plane;
+                int u;
+                int v;
+                if (face < 2) {
+                    plane = by + (face == 1 ? 1 : 0);
+                    u = lx;
+                    v = lz;
+                } else if (face < 4) {
+                    plane = bx + (face == 3 ? 1 : 0);
+                    u = lz;
+                    v = ly;
+                } else {
+                    plane = bz + (face == 5 ? 1 : 0);
+                    u = lx;
+                    v = ly;
+                }
+
+                long planeKey = ((long) face << 40) | ((long) (section + 128) << 32) | (plane & 0xFFFFFFFFL);
+                planes.computeIfAbsent(planeKey, k -> new int[256])[v * 16 + u] = entry.getIntValue();
+            }
+        }
+
+        for (Long2ObjectMap.Entry<int[]> entry : planes.long2ObjectEntrySet()) {
+            long planeKey = entry.getLongKey();
+            int face = (int) (planeKey >>> 40);
+            int section = (int) ((planeKey >>> 32) & 0xFF) - 128;
+            int plane = (int) planeKey;
+            SectionGeometry geometry = sections.computeIfAbsent(section, k -> new SectionGeometry());
+            greedyMerge(entry.getValue(), face, plane, startX, section << 4, startZ, geometry);
+        }
+    }
+
+    /**
+     * 在 16x16 掩码上贪心合并同色矩形
+     */
+    private static void greedyMerge(int[] mask, int face, int plane, int startX, int startY, int startZ,
+                                    SectionGeometry geometry) {
+        for (int v = 0; v < 16; v++) {
+            for (int u = 0; u < 16; u++) {
+                int color = mask[v * 16 + u];
+                if (color == 0) {
+                    continue;
+                }
+
+                // 沿 u 方向扩展
+                int width = 1;
+                while (u + width < 16 && mask[v * 16 + u + width] == color) {
+                    width++;
+                }
+
+                // 沿 v 方向扩展（整行同色才扩展）
+                int height = 1;
+                outer:
+                while (v + height < 16) {
+                    for (int k = 0; k < width; k++) {
+                        if (mask[(v + height) * 16 + u + k] != color) {
+                            break outer;
+                        }
+                    }
+                    height++;
+                }
+
+                for (int dv = 0; dv < height; dv++) {
+                    for (int du = 0; du < width; du++) {
+                        mask[(v + dv) * 16 + u + du] = 0;
+                    }
+                }
+
+                emitQuad(face, plane, u, v, width, height, startX, startY, startZ,
+                        (FACE_ALPHA << 24) | (color & 0x00FFFFFF), geometry);
+            }
+        }
+    }
+
+    /**
+     * 把平面内的矩形转换为世界坐标的四边形
+     */
+    private static void emitQuad(int face, int plane, int u, int v, int width, int height,
+                                 int startX, int startY, int startZ, int color, SectionGeometry geometry) {
+        // 沿法线方向外移，避免深度冲突
+        float offset = (face % 2 == 0) ? -FACE_OFFSET : FACE_OFFSET;
+        float p = plane + offset;
+        float u1;
+        float u2;
+        float v1;
+        float v2;
+
+        FloatArrayList quads = geometry.quads;
+        if (face < 2) {
+            // 水平面：u = x，v = z
+            u1 = startX + u;
+            u2 = u1 + width;
+            v1 = startZ + v;
+            v2 = v1 + height;
+            addVertex(quads, u1, p, v1);
+            addVertex(quads, u2, p, v1);
+            addVertex(quads, u2, p, v2);
+            addVertex(quads, u1, p, v2);
+        } else if (face < 4) {
+            // X 方向的面：u = z，v = y
+            u1 = startZ + u;
+            u2 = u1 + width;
+            v1 = startY + v;
+            v2 = v1 + height;
+            addVertex(quads, p, v1, u1);
+            addVertex(quads, p, v1, u2);
+            addVertex(quads, p, v2, u2);
+            addVertex(quads, p, v2, u1);
+        } else {
+            // Z 方向的面：u = x，v = y
+            u1 = startX + u;
+            u2 = u1 + width;
+            v1 = startY + v;
+            v2 = v1 + height;
+            addVertex(quads, u1, v1, p);
+            addVertex(quads, u2, v1, p);
+            addVertex(quads, u2, v2, p);
+            addVertex(quads, u1, v2, p);
+        }
+        geometry.quadColors.add(color);
+    }
+
+    private static void addVertex(FloatArrayList quads, float x, float y, float z) {
+        quads.add(x);
+        quads.add(y);
+        quads.add(z);
+    }
+}
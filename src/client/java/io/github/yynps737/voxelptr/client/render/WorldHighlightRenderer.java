@@ -0,0 +1,469 @@
+package io.github.yynps737.voxelptr.client.render;
+
+import io.github.yynps737.voxelptr.config.VoxelPtrConfig;
+import io.github.yynps737.voxelptr.core.VoxelPtrCore;
+import io.github.yynps737.voxelptr.scanner.impl.ChunkEventScanner;
+import io.github.yynps737.voxelptr.target.Target;
+import io.github.yynps737.voxelptr.target.TargetSnapshot;
+import io.github.yynps737.voxelptr.target.types.BlockTarget;
+import io.github.yynps737.voxelptr.target.types.EntityTarget;
+import io.github.yynps737.voxelptr.target.types.StructureTarget;
+import io.github.yynps737.voxelptr.target.types.VeinTarget;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntComparator;
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.render.Camera;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import org.joml.Matrix4f;
+
+/**
+ * 世界高亮渲染器
+ * 在世界中绘制目标轮廓
+ *
+ * 核心优化策略：
+ * - 每帧只获取一次 RenderLayer.getLines() 的顶点消费者，所有方框写入同一个批次（一次绘制调用）
+ * - 顶点坐标相对相机计算，不逐个方框修改矩阵栈
+ * - 按区块段（16x16x16）做视锥剔除，同一区块段的目标只判断一次
+ * - 距离分级：近处完整轮廓，中距离退化为单个点标记，超过最远距离不绘制
+ * - 每帧固定顶点预算：目标与矿脉区块段按距离统一排队，从近到远分配，超出后更远的全部放弃
+ * - 矿脉几何数据按区块缓存（ChunkHighlightMeshCache），由 VeinOutlineBuilder 在后台线程生成
+ *   外轮廓边（和贪心合并的表面），每帧按可见区块段批量拷贝预生成的顶点
+ * - 填充面与线条各一个批次：先提交面片，再提交所有线条
+ */
+public class WorldHighlightRenderer {
+
+    /**
+     * 区块段外接球半径（8 * sqrt(3)）
+     */
+    private static final double SECTION_RADIUS = 13.86;
+
+    /**
+     * 视锥角额外余量（度），覆盖疾跑等动态 FOV 变化
+     */
+    private static final double FOV_MARGIN_DEGREES = 10.0;
+
+    private static final byte VISIBLE = 1;
+    private static final byte CULLED = 2;
+
+    /**
+     * 细节层级：完整轮廓 / 远处的点标记
+     */
+    private static final byte LOD_FULL = 0;
+    private static final byte LOD_POINT = 1;
+
+    /**
+     * 各层级每个目标的顶点数：完整轮廓 12 条边、点标记 3 条轴线、追踪线 1 条
+     */
+    private static final int FULL_VERTICES = ChunkHighlightMesh.VERTICES_PER_BOX;
+    private static final int POINT_VERTICES = 6;
+    private static final int TRACER_VERTICES = 2;
+
+    /**
+     * 追踪线起点在相机前方的距离（起点与相机重合时线条退化为一个点）
+     */
+    private static final double TRACER_START_DISTANCE = 1.0;
+
+    private final VoxelPtrCore core;
+
+    /**
+     * 矿脉轮廓的区块几何缓存
+     */
+    private final ChunkHighlightMeshCache meshCache = new ChunkHighlightMeshCache();
+
+    // 本帧可见的区块段（复用，避免每帧分配）
+    private final ObjectArrayList<ChunkHighlightMesh> visibleMeshes = new ObjectArrayList<>();
+    private final IntArrayList visibleSections = new IntArrayList();
+    private final DoubleArrayList visibleDistances = new DoubleArrayList();
+    private int[] visibleOrder = new int[64];
+    private final IntComparator byDistance =
+            (a, b) -> Double.compare(visibleDistances.getDouble(a), visibleDistances.getDouble(b));
+
+    // 本帧要绘制的目标及其细节层级（复用）
+    private final ObjectArrayList<Target> plannedTargets = new ObjectArrayList<>();
+    private final ByteArrayList plannedLods = new ByteArrayList();
+
+    /**
+     * 本帧区块段可见性缓存（Key: ChunkSectionPos.asLong()），每帧清空复用
+     */
+    private final Long2ByteOpenHashMap sectionVisibility = new Long2ByteOpenHashMap();
+
+    // 本帧视锥参数（保守的圆锥近似）
+    private Vec3d cameraPos = Vec3d.ZERO;
+    private double forwardX;
+    private double forwardY;
+    private double forwardZ;
+    private double coneSin;
+    private double coneCos;
+
+    // 本帧批次状态
+    private VertexConsumer consumer;
+    private Matrix4f matrix;
+
+    /**
+     * 上一帧写入的顶点数（用于调试）
+     */
+    private int lastFrameVertices;
+
+    public WorldHighlightRenderer(VoxelPtrCore core) {
+        this.core = core;
+    }
+
+    /**
+     * 渲染所有可见目标的轮廓
+     *
+     * @param matrices 矩阵栈（只含相机旋转）
+     * @param consumers 顶点消费者提供者
+     * @param camera 相机
+     */
+    public void render(MatrixStack matrices, VertexConsumerProvider consumers, Camera camera) {
+        VoxelPtrConfig config = core.getConfig();
+        if (!config.isEnabled() || !config.isWorldHighlightEnabled() || core.getTargetTracker() == null) {
+            meshCache.detach(); // 不再消费扫描缓存的变化记录
+            lastFrameVertices = 0;
+            return;
+        }
+
+        updateViewCone(camera);
+        sectionVisibility.clear();
+        matrix = matrices.peek().getPositionMatrix();
+
+        // 距离过滤与 HUD 一致，另外受高亮最远距离限制
+        float minDistance = config.getMinDistance();
+        float maxDistance = config.getHighlightMaxDistance();
+        if (config.getMaxDistanceFilter() > 0 && (maxDistance <= 0 || config.getMaxDistanceFilter() < maxDistance)) {
+            maxDistance = config.getMaxDistanceFilter();
+        }
+        float detailDistance = config.getHighlightDetailDistance();
+        boolean filled = "filled".equals(config.getHighlightStyle());
+        boolean tracers = config.isTracerEnabled();
+
+        // 1. 收集可见的矿脉区块段（只在完整轮廓距离内，按距离排序）
+        int sectionCount = 0;
+        ChunkEventScanner blockScanner = core.getScannerManager() != null
+                ? core.getScannerManager().getBlockScanner() : null;
+        if (blockScanner != null) {
+            meshCache.sync(blockScanner.getCache(), filled);
+            sectionCount = collectVisibleSections(minDistance, Math.min(maxDistance > 0 ? maxDistance : Float.MAX_VALUE,
+                    detailDistance));
+        } else {
+            meshCache.detach();
+        }
+
+        // 2. 按距离从近到远分配顶点预算（区块段与单个目标统一排队），超出上限后更远的全部放弃
+        int meshSections = planFrame(config.getMaxHighlightBoxes() * FULL_VERTICES, sectionCount,
+                minDistance, maxDistance, detailDistance, tracers);
+
+        // 3. 填充面单独一个批次，先于线条绘制（切换渲染层会提交上一个批次）
+        if (filled && meshSections > 0) {
+            consumer = consumers.getBuffer(RenderLayer.getDebugQuads());
+            for (int i = 0; i < meshSections; i++) {
+                int index = visibleOrder[i];
+                visibleMeshes.get(index).drawSectionQuads(visibleSections.getInt(index), consumer, matrix, cameraPos);
+            }
+        }
+
+        // 4. 所有线条共用一个顶点消费者，进入同一批次
+        consumer = consumers.getBuffer(RenderLayer.getLines());
+        for (int i = 0; i < plannedTargets.size(); i++) {
+            drawTarget(plannedTargets.get(i), plannedLods.getByte(i), tracers);
+        }
+        for (int i = 0; i < meshSections; i++) {
+            int index = visibleOrder[i];
+            visibleMeshes.get(index).drawSectionLines(visibleSections.getInt(index), consumer, matrix, cameraPos);
+        }
+
+        plannedTargets.clear();
+        consumer = null;
+        matrix = null;
+    }
+
+    /**
+     * 分配本帧顶点预算
+     * 快照中的目标和可见区块段都已按距离排序，归并遍历两者，优先保证最近的目标
+     *
+     * - 完整轮廓距离内：完整轮廓（矿脉由区块几何缓存绘制）
+     * - 完整轮廓距离到最远距离：单个点标记（矿脉也退化为点标记）
+     * - 最远距离之外：不绘制
+     *
+     * @return 本帧要绘制的区块段数（visibleOrder 的前缀）
+     */
+    private int planFrame(int vertexBudget, int sectionCount, float minDistance, float maxDistance,
+                          float detailDistance, boolean tracers) {
+        plannedTargets.clear();
+        plannedLods.clear();
+
+        TargetSnapshot snapshot = core.getTargetTracker().getSnapshot();
+        int targetIndex = minDistance > 0 ? snapshot.lowerBound((double) minDistance * minDistance) : 0;
+        double maxSq = maxDistance > 0 ? (double) maxDistance * maxDistance : Double.MAX_VALUE;
+        double detailSq = (double) detailDistance * detailDistance;
+        int sectionIndex = 0;
+        int vertexCount = 0;
+
+        while (true) {
+            double targetSq = targetIndex < snapshot.size() ? snapshot.getSquaredDistance(targetIndex) : Double.MAX_VALUE;
+            if (targetSq > maxSq) {
+                targetSq = Double.MAX_VALUE; // 之后的目标更远
+            }
+            double sectionDistance = sectionIndex < sectionCount
+                    ? visibleDistances.getDouble(visibleOrder[sectionIndex]) : Double.MAX_VALUE;
+            if (targetSq == Double.MAX_VALUE && sectionDistance == Double.MAX_VALUE) {
+                break;
+            }
+
+            if (sectionDistance != Double.MAX_VALUE && sectionDistance * sectionDistance <= targetSq) {
+                ChunkHighlightMesh mesh = visibleMeshes.get(visibleOrder[sectionIndex]);
+                int section = visibleSections.getInt(visibleOrder[sectionIndex]);
+                int cost = mesh.getSectionLineVertexCount(section) + mesh.getSectionQuadVertexCount(section);
+                if (vertexCount + cost > vertexBudget) {
+                    break;
+                }
+                vertexCount += cost;
+                sectionIndex++;
+                continue;
+            }
+
+            Target target = snapshot.get(targetIndex++);
+            byte lod = targetSq <= detailSq ? LOD_FULL : LOD_POINT;
+            if (lod == LOD_FULL && target instanceof VeinTarget) {
+                continue; // 近处的矿脉由区块几何缓存绘制
+            }
+            if (!isTargetVisible(target, lod)) {
+                continue;
+            }
+            int cost = (lod == LOD_FULL ? FULL_VERTICES : POINT_VERTICES) + (tracers ? TRACER_VERTICES : 0);
+            if (vertexCount + cost > vertexBudget) {
+                break;
+            }
+            vertexCount += cost;
+            plannedTargets.add(target);
+            plannedLods.add(lod);
+        }
+
+        lastFrameVertices = vertexCount;
+        return sectionIndex;
+    }
+
+    /**
+     * 收集可见区块段的预生成几何数据，按距离从近到远排序
+     * 距离过滤以区块段为单位（保守判断，区块段与过滤范围有交集即绘制）
+     *
+     * @return 可见区块段数
+     */
+    private int collectVisibleSections(float minDistance, float maxDistance) {
+        visibleMeshes.clear();
+        visibleSections.clear();
+        visibleDistances.clear();
+
+        for (ChunkHighlightMesh mesh : meshCache.getMeshes()) {
+            int chunkX = mesh.getChunkX();
+            int chunkZ = mesh.getChunkZ();
+            for (int s = 0; s < mesh.getSectionCount(); s++) {
+                int sectionY = mesh.getSectionY(s);
+                double dx = (chunkX << 4) + 8 - cameraPos.x;
+                double dy = (sectionY << 4) + 8 - cameraPos.y;
+                double dz = (chunkZ << 4) + 8 - cameraPos.z;
+                double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+                if (distance - SECTION_RADIUS > maxDistance) {
+                    continue;
+                }
+                if (minDistance > 0 && distance + SECTION_RADIUS < minDistance) {
+                    continue;
+                }
+                if (!isSectionVisible(chunkX, sectionY, chunkZ)) {
+                    continue;
+                }
+                visibleMeshes.add(mesh);
+                visibleSections.add(s);
+                visibleDistances.add(distance);
+            }
+        }
+
+        int count = visibleMeshes.size();
+        if (visibleOrder.length < count) {
+            visibleOrder = new int[Math.max(count, visibleOrder.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            visibleOrder[i] = i;
+        }
+        IntArrays.quickSort(visibleOrder, 0, count, byDistance);
+        return count;
+    }
+
+    /**
+     * 目标是否在视锥内
+     * 完整轮廓按方块所在区块段或包围盒外接球剔除，点标记按目标位置所在区块段剔除
+     */
+    private boolean isTargetVisible(Target target, byte lod) {
+        if (lod == LOD_FULL) {
+            if (target instanceof BlockTarget block) {
+                BlockPos pos = block.getBlockPos();
+                return isSectionVisible(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+            }
+            if (target instanceof StructureTarget structure) {
+                BlockBox box = structure.getBoundingBox();
+                return isBoxVisible(box.getMinX(), box.getMinY(), box.getMinZ(),
+                        box.getMaxX() + 1, box.getMaxY() + 1, box.getMaxZ() + 1);
+            }
+            if (target instanceof EntityTarget entity) {
+                Box box = entity.getEntity().getBoundingBox();
+                return isBoxVisible(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ);
+            }
+        }
+        Vec3d pos = target.getPosition();
+        return isSectionVisible(MathHelper.floor(pos.x) >> 4, MathHelper.floor(pos.y) >> 4,
+                MathHelper.floor(pos.z) >> 4);
+    }
+
+    /**
+     * 按细节层级绘制目标（可见性已在分配预算时判断）
+     * 矿脉的完整轮廓由区块几何缓存绘制，不经过这里
+     */
+    private void drawTarget(Target target, byte lod, boolean tracer) {
+        int color = target.getColor();
+        float red = ((color >> 16) & 0xFF) / 255.0f;
+        float green = ((color >> 8) & 0xFF) / 255.0f;
+        float blue = (color & 0xFF) / 255.0f;
+        float alpha = ((color >> 24) & 0xFF) / 255.0f;
+        Vec3d pos = target.getPosition();
+
+        if (lod == LOD_POINT) {
+            // 标记大小随距离增长，保持大致恒定的屏幕尺寸
+            double size = Math.max(0.5, pos.distanceTo(cameraPos) / 48.0);
+            RenderUtil.appendPointMarker(consumer, matrix, pos.x, pos.y, pos.z, size, cameraPos,
+                    red, green, blue, alpha);
+        } else if (target instanceof BlockTarget block) {
+            BlockPos blockPos = block.getBlockPos();
+            RenderUtil.appendBoxOutline(consumer, matrix,
+                    blockPos.getX(), blockPos.getY(), blockPos.getZ(),
+                    blockPos.getX() + 1, blockPos.getY() + 1, blockPos.getZ() + 1,
+                    cameraPos, red, green, blue, alpha);
+        } else if (target instanceof StructureTarget structure) {
+            BlockBox box = structure.getBoundingBox();
+            RenderUtil.appendBoxOutline(consumer, matrix, box.getMinX(), box.getMinY(), box.getMinZ(),
+                    box.getMaxX() + 1, box.getMaxY() + 1, box.getMaxZ() + 1, cameraPos, red, green, blue, alpha);
+        } else if (target instanceof EntityTarget entity) {
+            Box box = entity.getEntity().getBoundingBox();
+            RenderUtil.appendBoxOutline(consumer, matrix, box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ,
+                    cameraPos, red, green, blue, alpha);
+        } else {
+            RenderUtil.appendBoxOutline(consumer, matrix, pos.x - 0.5, pos.y - 0.5, pos.z - 0.5,
+                    pos.x + 0.5, pos.y + 0.5, pos.z + 0.5, cameraPos, red, green, blue, alpha);
+        }
+
+        if (tracer) {
+            RenderUtil.appendLine(consumer, matrix,
+                    cameraPos.x + forwardX * TRACER_START_DISTANCE,
+                    cameraPos.y + forwardY * TRACER_START_DISTANCE,
+                    cameraPos.z + forwardZ * TRACER_START_DISTANCE,
+                    pos.x, pos.y, pos.z, cameraPos, red, green, blue, alpha);
+        }
+    }
+
+    /**
+     * 包围盒是否在视锥内（按外接球判断）
+     */
+    private boolean isBoxVisible(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        double halfX = (maxX - minX) * 0.5;
+        double halfY = (maxY - minY) * 0.5;
+        double halfZ = (maxZ - minZ) * 0.5;
+        double radius = Math.sqrt(halfX * halfX + halfY * halfY + halfZ * halfZ);
+        return isSphereVisible(minX + halfX, minY + halfY, minZ + halfZ, radius);
+    }
+
+    /**
+     * 区块段是否在视锥内（每帧每个区块段只计算一次）
+     */
+    private boolean isSectionVisible(int sectionX, int sectionY, int sectionZ) {
+        long key = ChunkSectionPos.asLong(sectionX, sectionY, sectionZ);
+        byte cached = sectionVisibility.get(key);
+        if (cached != 0) {
+            return cached == VISIBLE;
+        }
+
+        boolean visible = isSphereVisible((sectionX << 4) + 8, (sectionY << 4) + 8, (sectionZ << 4) + 8,
+                SECTION_RADIUS);
+        sectionVisibility.put(key, visible ? VISIBLE : CULLED);
+        return visible;
+    }
+
+    /**
+     * 球体与视锥（圆锥近似）是否相交
+     */
+    private boolean isSphereVisible(double centerX, double centerY, double centerZ, double radius) {
+        double dx = centerX - cameraPos.x;
+        double dy = centerY - cameraPos.y;
+        double dz = centerZ - cameraPos.z;
+        double lengthSq = dx * dx + dy * dy + dz * dz;
+        if (lengthSq <= radius * radius) {
+            return true; // 相机在球体内
+        }
+
+        // 球心到圆锥侧面的距离：perp * cos(a) - along * sin(a)
+        double along = dx * forwardX + dy * forwardY + dz * forwardZ;
+        double perp = Math.sqrt(Math.max(0.0, lengthSq - along * along));
+        return perp * coneCos - along * coneSin <= radius;
+    }
+
+    /**
+     * 根据相机朝向和 FOV 更新本帧的视锥圆锥
+     */
+    private void updateViewCone(Camera camera) {
+        // 1.21.9+ API: Camera.getPos() 改为 getCameraPos()
+        cameraPos = camera.getCameraPos();
+
+        double yaw = Math.toRadians(camera.getYaw());
+        double pitch = Math.toRadians(camera.getPitch());
+        double cosPitch = Math.cos(pitch);
+        forwardX = -Math.sin(yaw) * cosPitch;
+        forwardY = -Math.sin(pitch);
+        forwardZ = Math.cos(yaw) * cosPitch;
+
+        MinecraftClient client = MinecraftClient.getInstance();
+        double aspect = 16.0 / 9.0;
+        if (client.getWindow() != null && client.getWindow().getFramebufferHeight() > 0) {
+            aspect = (double) client.getWindow().getFramebufferWidth() / client.getWindow().getFramebufferHeight();
+        }
+
+        // 以屏幕对角线为圆锥半角，保证覆盖整个视锥
+        double halfVertical = Math.toRadians(client.options.getFov().getValue() * 0.5);
+        double halfDiagonal = Math.atan(Math.tan(halfVertical) * Math.sqrt(1.0 + aspect * aspect));
+        double halfAngle = MathHelper.clamp(halfDiagonal + Math.toRadians(FOV_MARGIN_DEGREES), 0.0, Math.PI * 0.5);
+        coneSin = Math.sin(halfAngle);
+        coneCos = Math.cos(halfAngle);
+    }
+
+    /**
+     * 关闭渲染器，停止后台几何构建线程
+     */
+    public void shutdown() {
+        meshCache.shutdown();
+    }
+
+    /**
+     * 获取矿脉轮廓的区块几何缓存
+     */
+    public ChunkHighlightMeshCache getMeshCache() {
+        return meshCache;
+    }
+
+    /**
+     * 获取上一帧写入的顶点数
+     */
+    public int getLastFrameVertices() {
+        return lastFrameVertices;
+    }
+}
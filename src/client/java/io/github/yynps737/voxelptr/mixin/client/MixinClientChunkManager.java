@@ -3,6 +3,7 @@ package io.github.yynps737.voxelptr.mixin.client;
 import io.github.yynps737.voxelptr.VoxelPtr;
 import io.github.yynps737.voxelptr.core.VoxelPtrCore;
 import io.github.yynps737.voxelptr.scanner.impl.ChunkEventScanner;
+import io.github.yynps737.voxelptr.trace.TraceRecorder;
 import net.minecraft.client.world.ClientChunkManager;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.network.packet.s2c.play.ChunkData;
@@ -44,6 +45,12 @@ public class MixinClientChunkManager {
 
         if (chunk != null) {
             try {
+                // 记录区块事件（未在记录时为 null）
+                TraceRecorder recorder = TraceRecorder.getActive();
+                if (recorder != null) {
+                    recorder.recordChunkLoad(chunk.getPos(), chunk.getBottomSectionCoord(), chunk.getSectionArray());
+                }
+
                 VoxelPtrCore core = VoxelPtr.getCore();
                 if (core != null && core.getScannerManager() != null) {
                     ChunkEventScanner blockScanner = core.getScannerManager().getBlockScanner();
@@ -52,6 +59,8 @@ public class MixinClientChunkManager {
                         // 异步扫描区块
                         blockScanner.onChunkLoad(chunk);
                     }
+
+                    // 方块实体由 ClientBlockEntityEvents.BLOCK_ENTITY_LOAD 通知（区块加载时同样触发），这里不再重复读取
                 }
             } catch (Exception e) {
                 VoxelPtr.LOGGER.error("处理区块加载事件时出错: {}", new ChunkPos(x, z), e);
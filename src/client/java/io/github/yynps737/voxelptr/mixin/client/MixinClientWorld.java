@@ -3,6 +3,7 @@ package io.github.yynps737.voxelptr.mixin.client;
 import io.github.yynps737.voxelptr.VoxelPtr;
 import io.github.yynps737.voxelptr.core.VoxelPtrCore;
 import io.github.yynps737.voxelptr.scanner.impl.ChunkEventScanner;
+import io.github.yynps737.voxelptr.trace.TraceRecorder;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.world.ClientWorld;
 import net.minecraft.util.math.BlockPos;
@@ -36,6 +37,12 @@ public class MixinClientWorld {
         // 只在方块状态成功更新时处理
         if (cir.getReturnValue()) {
             try {
+                // 记录区块事件（未在记录时为 null）
+                TraceRecorder recorder = TraceRecorder.getActive();
+                if (recorder != null) {
+                    recorder.recordBlockUpdate(pos, state);
+                }
+
                 VoxelPtrCore core = VoxelPtr.getCore();
                 if (core != null && core.getScannerManager() != null) {
                     ChunkEventScanner blockScanner = core.getScannerManager().getBlockScanner();
@@ -0,0 +1,197 @@
+package io.github.yynps737.voxelptr.gametest;
+
+import io.github.yynps737.voxelptr.VoxelPtr;
+import io.github.yynps737.voxelptr.client.VoxelPtrClient;
+import io.github.yynps737.voxelptr.client.hud.HudManager;
+import io.github.yynps737.voxelptr.client.hud.TargetListHud;
+import io.github.yynps737.voxelptr.core.VoxelPtrCore;
+import io.github.yynps737.voxelptr.target.TargetTracker;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
+import net.fabricmc.fabric.api.client.gametest.v1.FabricClientGameTest;
+import net.fabricmc.fabric.api.client.gametest.v1.context.ClientGameTestContext;
+import net.fabricmc.fabric.api.client.gametest.v1.context.TestSingleplayerContext;
+import net.minecraft.block.Block;
+import net.minecraft.block.Blocks;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.Arrays;
+
+/**
+ * 客户端性能回归测试（Fabric 客户端游戏测试，无头运行）
+ * 覆盖 JMH 无法触及的 Mixin 接线：区块加载 → 扫描 → 追踪器 → HUD 的完整链路
+ *
+ * 1. 在远离出生点的超平坦区域放置已知布局的钻石矿脉（每个区块若干条，互不相连）
+ * 2. 传送过去，测量从布局区块加载到 HUD 显示第一个目标、到全部矿脉进入追踪器的时间
+ * 3. 布局全部可见后，测量 TargetTracker.tick 每 tick 的耗时和 HUD 每帧的渲染耗时
+ *
+ * 任何指标超过阈值时测试失败（构建失败）。阈值为系统属性，可用 gradle -Pperf.* 覆盖：
+ * - voxelptr.perf.maxLoadToHudMs：区块加载到 HUD 可见 / 全部追踪的上限（毫秒，默认 1000）
+ * - voxelptr.perf.maxTickP99Us：追踪器 tick 耗时 p99 上限（微秒，默认 500）
+ * - voxelptr.perf.maxHudRenderP99Us：HUD 渲染耗时 p99 上限（微秒，默认 2000）
+ */
+public class PerfClientGameTest implements FabricClientGameTest {
+
+    /**
+     * 布局中心（远离出生点，传送前客户端不会加载这些区块）
+     */
+    private static final int LAYOUT_CENTER = 4096;
+
+    /**
+     * 布局边长（区块）和每个区块的矿脉数
+     */
+    private static final int LAYOUT_CHUNKS = 8;
+    private static final int VEINS_PER_CHUNK = 4;
+    private static final int EXPECTED_VEINS = LAYOUT_CHUNKS * LAYOUT_CHUNKS * VEINS_PER_CHUNK;
+
+    /**
+     * 超平坦世界的泥土层（玩家站在 y = -60）
+     */
+    private static final int ORE_Y = -63;
+    private static final int PLAYER_Y = -60;
+
+    private static final int TIMEOUT_TICKS = 60 * 20;
+    private static final int SAMPLE_TICKS = 200;
+
+    private final long maxLoadToHudNanos = Long.getLong("voxelptr.perf.maxLoadToHudMs", 1000L) * 1_000_000L;
+    private final long maxTickP99Nanos = Long.getLong("voxelptr.perf.maxTickP99Us", 500L) * 1_000L;
+    private final long maxHudRenderP99Nanos = Long.getLong("voxelptr.perf.maxHudRenderP99Us", 2000L) * 1_000L;
+
+    // 布局区块的加载时间（客户端线程写入）
+    private final LongOpenHashSet layoutChunks = new LongOpenHashSet();
+    private final LongOpenHashSet loadedLayoutChunks = new LongOpenHashSet();
+    private long firstLayoutLoadNanos;
+    private long lastLayoutLoadNanos;
+
+    @Override
+    public void runTest(ClientGameTestContext context) {
+        int minChunk = (LAYOUT_CENTER >> 4) - LAYOUT_CHUNKS / 2;
+        for (int chunkX = minChunk; chunkX < minChunk + LAYOUT_CHUNKS; chunkX++) {
+            for (int chunkZ = minChunk; chunkZ < minChunk + LAYOUT_CHUNKS; chunkZ++) {
+                layoutChunks.add(ChunkPos.toLong(chunkX, chunkZ));
+            }
+        }
+
+        // 与 Mixin 注入的扫描同一时刻触发，用作区块加载的时间点
+        ClientChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
+            long key = chunk.getPos().toLong();
+            if (layoutChunks.contains(key) && loadedLayoutChunks.add(key)) {
+                long now = System.nanoTime();
+                if (loadedLayoutChunks.size() == 1) {
+                    firstLayoutLoadNanos = now;
+                }
+                lastLayoutLoadNanos = now;
+            }
+        });
+
+        try (TestSingleplayerContext singleplayer = context.worldBuilder().create()) {
+            singleplayer.getClientWorld().waitForChunksRender();
+
+            // 1. 在服务端放置矿脉布局（setBlockState 会同步加载目标区块）
+            singleplayer.getServer().runOnServer(server -> placeLayout(server.getOverworld(), minChunk));
+
+            // 2. 传送到布局中心，测量区块加载 → HUD 可见 → 全部追踪
+            singleplayer.getServer().runCommand(String.format("tp @a %d %d %d",
+                    LAYOUT_CENTER, PLAYER_Y, LAYOUT_CENTER));
+
+            context.waitFor(client -> getTargetListHud().getModel().size() > 0, TIMEOUT_TICKS);
+            long firstHudNanos = System.nanoTime();
+            context.waitFor(client -> loadedLayoutChunks.size() == layoutChunks.size()
+                    && getTracker().getTargetCount() >= EXPECTED_VEINS, TIMEOUT_TICKS);
+            long allTrackedNanos = System.nanoTime();
+            singleplayer.getClientWorld().waitForChunksRender();
+
+            long loadToFirstHud = firstHudNanos - firstLayoutLoadNanos;
+            long loadToAllTracked = allTrackedNanos - lastLayoutLoadNanos;
+
+            // 3. 稳定状态下逐 tick 采样追踪器 tick 和 HUD 渲染耗时
+            long[] tickNanos = new long[SAMPLE_TICKS];
+            long[] hudNanos = new long[SAMPLE_TICKS];
+            for (int i = 0; i < SAMPLE_TICKS; i++) {
+                context.waitTick();
+                tickNanos[i] = context.computeOnClient(PerfClientGameTest::timeTrackerTick);
+                hudNanos[i] = context.computeOnClient(client -> getHudManager().getLastRenderNanos());
+            }
+            Arrays.sort(tickNanos);
+            Arrays.sort(hudNanos);
+
+            VoxelPtr.LOGGER.info("性能测试: {} 个矿脉, 区块加载 → HUD 可见 {} ms, 最后区块加载 → 全部追踪 {} ms",
+                    getTracker().getTargetCount(), millis(loadToFirstHud), millis(loadToAllTracked));
+            VoxelPtr.LOGGER.info("性能测试: 追踪器 tick p50 {} us, p99 {} us; HUD 渲染 p50 {} us, p99 {} us",
+                    micros(percentile(tickNanos, 0.50)), micros(percentile(tickNanos, 0.99)),
+                    micros(percentile(hudNanos, 0.50)), micros(percentile(hudNanos, 0.99)));
+
+            StringBuilder message = new StringBuilder();
+            check(message, "区块加载 → HUD 可见", loadToFirstHud, maxLoadToHudNanos);
+            check(message, "区块加载 → 全部追踪", loadToAllTracked, maxLoadToHudNanos);
+            check(message, "追踪器 tick p99", percentile(tickNanos, 0.99), maxTickP99Nanos);
+            check(message, "HUD 渲染 p99", percentile(hudNanos, 0.99), maxHudRenderP99Nanos);
+            if (!message.isEmpty()) {
+                throw new AssertionError("性能回归:" + message);
+            }
+        }
+    }
+
+    /**
+     * 每个布局区块放置 VEINS_PER_CHUNK 条 2x2x2 的矿脉，间隔足够远，不会聚类到一起
+     */
+    private static void placeLayout(ServerWorld world, int minChunk) {
+        for (int chunkX = minChunk; chunkX < minChunk + LAYOUT_CHUNKS; chunkX++) {
+            for (int chunkZ = minChunk; chunkZ < minChunk + LAYOUT_CHUNKS; chunkZ++) {
+                for (int vein = 0; vein < VEINS_PER_CHUNK; vein++) {
+                    int baseX = (chunkX << 4) + 2 + (vein & 1) * 8;
+                    int baseZ = (chunkZ << 4) + 2 + (vein >> 1) * 8;
+                    for (int i = 0; i < 8; i++) {
+                        BlockPos pos = new BlockPos(baseX + (i & 1), ORE_Y + ((i >> 1) & 1), baseZ + (i >> 2));
+                        world.setBlockState(pos, Blocks.DIAMOND_ORE.getDefaultState(), Block.NOTIFY_LISTENERS);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 在客户端线程上执行一次追踪器 tick（含世界有效性检查）并计时
+     */
+    private static long timeTrackerTick(MinecraftClient client) {
+        long start = System.nanoTime();
+        // 1.21.9+ API: getPos() 改为 getEntityPos()
+        getTracker().tick(client.world, client.player.getEntityPos());
+        return System.nanoTime() - start;
+    }
+
+    private static void check(StringBuilder message, String name, long nanos, long limit) {
+        if (nanos > limit) {
+            message.append(String.format(" %s %.3f ms 超过上限 %.3f ms;", name, nanos / 1e6, limit / 1e6));
+        }
+    }
+
+    private static TargetTracker getTracker() {
+        VoxelPtrCore core = VoxelPtr.getCore();
+        return core.getTargetTracker();
+    }
+
+    private static HudManager getHudManager() {
+        return VoxelPtrClient.getClientCore().getHudManager();
+    }
+
+    private static TargetListHud getTargetListHud() {
+        return (TargetListHud) getHudManager().getElement("target_list");
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(0, index)];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1e6);
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1e3);
+    }
+}
@@ -0,0 +1,226 @@
+package io.github.yynps737.voxelptr.bench;
+
+import io.github.yynps737.voxelptr.VoxelPtr;
+import io.github.yynps737.voxelptr.scanner.ScannerManager;
+import io.github.yynps737.voxelptr.scanner.impl.ChunkEventScanner;
+import io.github.yynps737.voxelptr.target.Target;
+import io.github.yynps737.voxelptr.target.TargetTracker;
+import io.github.yynps737.voxelptr.target.types.VeinTarget;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.chunk.ChunkSection;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.github.yynps737.voxelptr.bench.TimedScanExecutor.percentileMillis;
+
+/**
+ * 合成区块洪泛压力测试（仅开发用）
+ * 模拟鞘翅高速飞行：玩家沿 +X 方向移动，前方一列区块按固定速率加载，
+ * 经 ChunkEventScanner 扫描并通过回调合并到 TargetTracker，按 20 TPS 执行 tick
+ *
+ * 运行结束后检查队列增长、堆增长和扫描延迟是否超出上限，超出时以非零状态退出；
+ * 扫描在多个线程上并发完成，结束后还检查追踪器中的矿脉与聚类器完全一致（变化乱序会留下已失效的矿脉）
+ *
+ * 运行: ./gradlew chunkFloodStress [-Pstress.rate=400] [-Pstress.oreDensity=1.0] [-Pstress.duration=60] ...
+ * 参数（key=value）：
+ * - rate：每秒加载的区块数（默认 400）
+ * - oreDensity：矿脉数量倍率（默认 1.0，原版密度）
+ * - duration：持续时间（秒，默认 60）
+ * - preset：方块预设（默认 diamond）
+ * - viewDistance：视距（区块，默认 12），决定前方一列的宽度和保持加载的范围
+ * - maxDistance：最大距离过滤（格，默认 0 不限制）
+ * - maxQueue：扫描队列深度上限（默认 2000）
+ * - maxHeapGrowthMb：GC 后堆增长上限（MB，默认 256）
+ * - maxScanP99Ms：扫描延迟 p99 上限（毫秒，默认 500）
+ */
+public final class ChunkFloodStress {
+
+    private static final int TICKS_PER_SECOND = 20;
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1) / TICKS_PER_SECOND;
+
+    /**
+     * 预生成的区块模板数（区块段只读，按新坐标重复使用）
+     */
+    private static final int TEMPLATE_COUNT = 64;
+
+    private static final int SCAN_THREADS = 2;
+    private static final long SEED = 20251019L;
+
+    private final Map<String, String> options;
+
+    private ChunkFloodStress(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+
+        SyntheticChunks.bootstrap();
+        Configurator.setLevel(VoxelPtr.MOD_ID, Level.WARN);
+
+        boolean passed = new ChunkFloodStress(options).run();
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run() throws InterruptedException {
+        float rate = getFloat("rate", 400.0f);
+        float oreDensity = getFloat("oreDensity", 1.0f);
+        int duration = (int) getFloat("duration", 60.0f);
+        String preset = options.getOrDefault("preset", "diamond");
+        int viewDistance = (int) getFloat("viewDistance", 12.0f);
+        float maxDistance = getFloat("maxDistance", 0.0f);
+        int maxQueue = (int) getFloat("maxQueue", 2000.0f);
+        float maxHeapGrowthMb = getFloat("maxHeapGrowthMb", 256.0f);
+        float maxScanP99Ms = getFloat("maxScanP99Ms", 500.0f);
+
+        System.out.printf("区块洪泛: %.0f 区块/秒, 矿脉密度 %.2f, 持续 %d 秒, 预设 %s, 视距 %d%n",
+                rate, oreDensity, duration, preset, viewDistance);
+
+        // 1. 预生成区块模板
+        List<ChunkSection[]> templates = new ArrayList<>(TEMPLATE_COUNT);
+        for (int i = 0; i < TEMPLATE_COUNT; i++) {
+            templates.add(SyntheticChunks.generate(new ChunkPos(i, 0), SEED, oreDensity));
+        }
+
+        TimedScanExecutor executor = new TimedScanExecutor(SCAN_THREADS);
+        ChunkEventScanner scanner = new ChunkEventScanner(ScannerManager.blocksForPreset(preset), executor);
+        TargetTracker tracker = new TargetTracker();
+        scanner.setScanCompleteCallback(tracker::applyChanges);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baselineHeap = memory.getHeapMemoryUsage().getUsed();
+
+        // 2. 按 20 TPS 推进：每个 tick 加载 rate / 20 个区块，玩家跟随加载前沿移动
+        Long2ObjectOpenHashMap<ChunkSection[]> loaded = new Long2ObjectOpenHashMap<>();
+        int width = viewDistance * 2 + 1;
+        long chunksLoaded = 0;
+        double pending = 0;
+        int maxQueueDepth = 0;
+        long lateTicks = 0;
+        long totalTicks = (long) duration * TICKS_PER_SECOND;
+        long nextTick = System.nanoTime();
+
+        for (long tick = 0; tick < totalTicks; tick++) {
+            pending += rate / TICKS_PER_SECOND;
+            while (pending >= 1.0) {
+                pending -= 1.0;
+                int chunkX = (int) (chunksLoaded / width);
+                int chunkZ = (int) (chunksLoaded % width) - viewDistance;
+                ChunkPos pos = new ChunkPos(chunkX, chunkZ);
+                ChunkSection[] sections = templates.get((int) (chunksLoaded % TEMPLATE_COUNT));
+                loaded.put(pos.toLong(), sections);
+                scanner.onSectionsLoaded(pos, SyntheticChunks.BOTTOM_SECTION_COORD, sections);
+                chunksLoaded++;
+
+                // 卸载视距之外的区块（玩家身后）
+                int unloadX = chunkX - viewDistance * 2 - 1;
+                if (unloadX >= 0) {
+                    loaded.remove(ChunkPos.toLong(unloadX, chunkZ));
+                }
+            }
+
+            // 玩家位于加载前沿后方视距处
+            int frontX = (int) (chunksLoaded / width);
+            Vec3d playerPos = new Vec3d(((frontX - viewDistance) << 4) + 8.0, 100.0, 8.0);
+            tracker.tick(null, playerPos);
+            scanner.updateScanBounds(playerPos, maxDistance, SyntheticChunks.BOTTOM_SECTION_COORD,
+                    (x, z) -> loaded.get(ChunkPos.toLong(x, z)));
+
+            maxQueueDepth = Math.max(maxQueueDepth, executor.getQueueDepth());
+
+            // 按真实时间推进，落后时不追赶睡眠
+            nextTick += TICK_NANOS;
+            long sleep = nextTick - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(sleep);
+            } else {
+                lateTicks++;
+            }
+        }
+
+        int finalQueueDepth = executor.getQueueDepth();
+        executor.awaitIdle(10, TimeUnit.MINUTES); // 先等待后续扫描，关闭后它们会被拒绝
+        executor.shutdown();
+        tracker.tick(null, tracker.getSnapshot().getOrigin());
+
+        System.gc();
+        long heapGrowth = memory.getHeapMemoryUsage().getUsed() - baselineHeap;
+        long[] latencies = executor.getSortedLatencies();
+        double p99 = percentileMillis(latencies, 0.99);
+
+        // 扫描全部完成后，追踪器中的矿脉应与聚类器一致
+        Set<UUID> clustered = new HashSet<>();
+        for (VeinTarget vein : scanner.getVeinClusterer().getVeins()) {
+            clustered.add(vein.getId());
+        }
+        Set<UUID> tracked = new HashSet<>();
+        for (Target target : tracker.getActiveTargets()) {
+            if (target instanceof VeinTarget) {
+                tracked.add(target.getId());
+            }
+        }
+        Set<UUID> stale = new HashSet<>(tracked);
+        stale.removeAll(clustered);
+        Set<UUID> missing = new HashSet<>(clustered);
+        missing.removeAll(tracked);
+
+        // 3. 报告和上限检查
+        System.out.printf("已加载 %d 个区块（%d 个 tick 落后于 20 TPS）%n", chunksLoaded, lateTicks);
+        System.out.printf("扫描延迟（%d 次）: p50 %.3f ms, p99 %.3f ms, max %.3f ms%n", latencies.length,
+                percentileMillis(latencies, 0.50), p99, percentileMillis(latencies, 1.0));
+        System.out.printf("扫描队列深度: 最大 %d, 结束时 %d%n", maxQueueDepth, finalQueueDepth);
+        System.out.printf("结果: %d 个目标, %s%n", tracker.getTargetCount(), scanner.getCache().getStats());
+        System.out.printf("GC 后堆增长: %.1f MB%n", heapGrowth / 1048576.0);
+
+        boolean passed = true;
+        if (maxQueueDepth > maxQueue) {
+            System.out.printf("失败: 扫描队列深度 %d 超过上限 %d%n", maxQueueDepth, maxQueue);
+            passed = false;
+        }
+        if (heapGrowth / 1048576.0 > maxHeapGrowthMb) {
+            System.out.printf("失败: 堆增长 %.1f MB 超过上限 %.1f MB%n", heapGrowth / 1048576.0, maxHeapGrowthMb);
+            passed = false;
+        }
+        if (p99 > maxScanP99Ms) {
+            System.out.printf("失败: 扫描延迟 p99 %.3f ms 超过上限 %.1f ms%n", p99, maxScanP99Ms);
+            passed = false;
+        }
+        if (!stale.isEmpty() || !missing.isEmpty()) {
+            System.out.printf("失败: 追踪器与聚类器不一致（%d 个已失效矿脉残留, %d 个矿脉缺失）%n",
+                    stale.size(), missing.size());
+            passed = false;
+        }
+        if (passed) {
+            System.out.println("通过");
+        }
+
+        scanner.shutdown();
+        return passed;
+    }
+
+    private float getFloat(String key, float defaultValue) {
+        String value = options.get(key);
+        return value != null ? Float.parseFloat(value) : defaultValue;
+    }
+}
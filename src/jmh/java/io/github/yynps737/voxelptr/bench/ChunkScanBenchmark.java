@@ -0,0 +1,80 @@
+package io.github.yynps737.voxelptr.bench;
+
+import io.github.yynps737.voxelptr.scanner.ChunkScanCache;
+import io.github.yynps737.voxelptr.scanner.ScannerManager;
+import io.github.yynps737.voxelptr.scanner.impl.ChunkEventScanner;
+import io.github.yynps737.voxelptr.target.types.BlockTarget;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.ChunkSection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 区块扫描热路径基准
+ * 每次操作扫描一个完整区块（全部区块段），结果即 ns/chunk；
+ * 配合 gc 分析器，gc.alloc.rate.norm 即每个区块分配的字节数
+ *
+ * 运行: ./gradlew jmh -PjmhIncludes=ChunkScanBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChunkScanBenchmark {
+
+    /**
+     * 合成区块数（轮流扫描，避免只测到单个区块的分支预测和缓存效果）
+     */
+    private static final int CHUNK_POOL_SIZE = 64;
+
+    private static final long SEED = 20251019L;
+
+    @Param({"diamond", "iron", "gold", "emerald", "coal", "redstone", "lapis", "copper"})
+    public String preset;
+
+    private ChunkEventScanner scanner;
+    private ChunkPos[] positions;
+    private ChunkSection[][] chunks;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticChunks.bootstrap();
+        scanner = new ChunkEventScanner(ScannerManager.blocksForPreset(preset));
+
+        positions = new ChunkPos[CHUNK_POOL_SIZE];
+        chunks = new ChunkSection[CHUNK_POOL_SIZE][];
+        for (int i = 0; i < CHUNK_POOL_SIZE; i++) {
+            positions[i] = new ChunkPos(i % 8, i / 8);
+            chunks[i] = SyntheticChunks.generate(positions[i], SEED);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scanner.shutdown();
+    }
+
+    /**
+     * 扫描一个区块的全部区块段
+     * 与 ChunkEventScanner.scanChunk 的实现相同（scanChunk 只是从 WorldChunk 取出这些参数），
+     * 合成区块没有 WorldChunk，因此直接调用 scanSections
+     */
+    @Benchmark
+    public List<BlockTarget> scanChunk() {
+        int index = next;
+        next = (index + 1) % CHUNK_POOL_SIZE;
+        return scanner.scanSections(positions[index], SyntheticChunks.BOTTOM_SECTION_COORD, chunks[index],
+                ChunkScanCache.ALL_SECTIONS);
+    }
+}
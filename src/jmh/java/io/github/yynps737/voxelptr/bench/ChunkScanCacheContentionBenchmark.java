@@ -0,0 +1,236 @@
+package io.github.yynps737.voxelptr.bench;
+
+import io.github.yynps737.voxelptr.scanner.ChunkScanCache;
+import io.github.yynps737.voxelptr.target.types.BlockTarget;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 区块扫描缓存并发竞争基准
+ * 按生产环境的访问组合驱动同一个缓存：
+ * - 扫描线程（1/2/4/8 个）：put 新扫描的区块
+ * - 主线程（1 个）：方块变化时 updateBlock + addTarget
+ * - 查询线程（1 个）：按半径逐个 get 玩家周围的区块
+ *
+ * JMH 的线程组大小只能在注解中固定，因此每种扫描线程数是一个独立的组（scanners1 ~ scanners8）
+ * Throughput 模式给出各角色的吞吐量，SampleTime 模式给出查询延迟的百分位（p99、p99.9 等）
+ *
+ * 运行: ./gradlew jmh -PjmhIncludes=ChunkScanCacheContentionBenchmark
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChunkScanCacheContentionBenchmark {
+
+    /**
+     * 扫描线程写入的区域边长（区块），略大于缓存容量，LRU 淘汰也会参与竞争
+     */
+    private static final int REGION_SIZE = 40;
+
+    /**
+     * 查询半径（区块），约等于 8 区块渲染距离
+     */
+    private static final int QUERY_RADIUS = 8;
+
+    /**
+     * 每个区块的目标数
+     */
+    private static final int TARGETS_PER_CHUNK = 16;
+
+    private static final long SEED = 20251019L;
+
+    /**
+     * 组内共享的缓存和预生成的扫描结果
+     */
+    @State(Scope.Group)
+    public static class SharedCache {
+        ChunkScanCache cache;
+        ChunkPos[] positions;
+        List<List<BlockTarget>> chunkTargets;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            SyntheticChunks.bootstrap();
+            BlockState ore = Blocks.DEEPSLATE_DIAMOND_ORE.getDefaultState();
+            SplittableRandom random = new SplittableRandom(SEED);
+
+            positions = new ChunkPos[REGION_SIZE * REGION_SIZE];
+            chunkTargets = new ArrayList<>(positions.length);
+            for (int i = 0; i < positions.length; i++) {
+                ChunkPos pos = new ChunkPos(i % REGION_SIZE - REGION_SIZE / 2, i / REGION_SIZE - REGION_SIZE / 2);
+                positions[i] = pos;
+                List<BlockTarget> targets = new ArrayList<>(TARGETS_PER_CHUNK);
+                for (int t = 0; t < TARGETS_PER_CHUNK; t++) {
+                    BlockPos blockPos = new BlockPos(pos.getStartX() + random.nextInt(16), -60 + random.nextInt(76),
+                            pos.getStartZ() + random.nextInt(16));
+                    targets.add(new BlockTarget(blockPos, ore));
+                }
+                chunkTargets.add(targets);
+            }
+
+            // 预热缓存：与进入世界后的稳定状态一致
+            cache = new ChunkScanCache();
+            for (int i = 0; i < positions.length; i++) {
+                cache.put(positions[i], chunkTargets.get(i));
+            }
+        }
+    }
+
+    /**
+     * 每个线程独立的随机数
+     */
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            random = new SplittableRandom(SEED ^ Thread.currentThread().threadId());
+        }
+    }
+
+    // ========== 扫描线程 1 个 ==========
+
+    @Benchmark
+    @Group("scanners1")
+    @GroupThreads(1)
+    public void scanners1_put(SharedCache shared, ThreadRandom random) {
+        put(shared, random);
+    }
+
+    @Benchmark
+    @Group("scanners1")
+    @GroupThreads(1)
+    public void scanners1_main(SharedCache shared, ThreadRandom random) {
+        blockChange(shared, random);
+    }
+
+    @Benchmark
+    @Group("scanners1")
+    @GroupThreads(1)
+    public int scanners1_query(SharedCache shared) {
+        return queryRadius(shared);
+    }
+
+    // ========== 扫描线程 2 个 ==========
+
+    @Benchmark
+    @Group("scanners2")
+    @GroupThreads(2)
+    public void scanners2_put(SharedCache shared, ThreadRandom random) {
+        put(shared, random);
+    }
+
+    @Benchmark
+    @Group("scanners2")
+    @GroupThreads(1)
+    public void scanners2_main(SharedCache shared, ThreadRandom random) {
+        blockChange(shared, random);
+    }
+
+    @Benchmark
+    @Group("scanners2")
+    @GroupThreads(1)
+    public int scanners2_query(SharedCache shared) {
+        return queryRadius(shared);
+    }
+
+    // ========== 扫描线程 4 个 ==========
+
+    @Benchmark
+    @Group("scanners4")
+    @GroupThreads(4)
+    public void scanners4_put(SharedCache shared, ThreadRandom random) {
+        put(shared, random);
+    }
+
+    @Benchmark
+    @Group("scanners4")
+    @GroupThreads(1)
+    public void scanners4_main(SharedCache shared, ThreadRandom random) {
+        blockChange(shared, random);
+    }
+
+    @Benchmark
+    @Group("scanners4")
+    @GroupThreads(1)
+    public int scanners4_query(SharedCache shared) {
+        return queryRadius(shared);
+    }
+
+    // ========== 扫描线程 8 个 ==========
+
+    @Benchmark
+    @Group("scanners8")
+    @GroupThreads(8)
+    public void scanners8_put(SharedCache shared, ThreadRandom random) {
+        put(shared, random);
+    }
+
+    @Benchmark
+    @Group("scanners8")
+    @GroupThreads(1)
+    public void scanners8_main(SharedCache shared, ThreadRandom random) {
+        blockChange(shared, random);
+    }
+
+    @Benchmark
+    @Group("scanners8")
+    @GroupThreads(1)
+    public int scanners8_query(SharedCache shared) {
+        return queryRadius(shared);
+    }
+
+    // ========== 各角色的操作 ==========
+
+    /**
+     * 扫描线程：存入一个区块的扫描结果
+     */
+    private static void put(SharedCache shared, ThreadRandom random) {
+        int index = random.random.nextInt(shared.positions.length);
+        shared.cache.put(shared.positions[index], shared.chunkTargets.get(index));
+    }
+
+    /**
+     * 主线程：一次方块变化（先移除旧目标，再加回新目标，目标数保持稳定）
+     */
+    private static void blockChange(SharedCache shared, ThreadRandom random) {
+        int index = random.random.nextInt(shared.positions.length);
+        ChunkPos chunkPos = shared.positions[index];
+        BlockTarget target = shared.chunkTargets.get(index).get(random.random.nextInt(TARGETS_PER_CHUNK));
+        shared.cache.updateBlock(chunkPos, target.getBlockPos(), Blocks.AIR.getDefaultState());
+        shared.cache.addTarget(chunkPos, target);
+    }
+
+    /**
+     * 查询线程：按半径逐个获取玩家周围区块的目标
+     */
+    private static int queryRadius(SharedCache shared) {
+        int found = 0;
+        for (int dx = -QUERY_RADIUS; dx <= QUERY_RADIUS; dx++) {
+            for (int dz = -QUERY_RADIUS; dz <= QUERY_RADIUS; dz++) {
+                List<BlockTarget> targets = shared.cache.get(new ChunkPos(dx, dz));
+                if (targets != null) {
+                    found += targets.size();
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,420 @@
+package io.github.yynps737.voxelptr.bench;
+
+import io.github.yynps737.voxelptr.VoxelPtr;
+import io.github.yynps737.voxelptr.scanner.ScannerManager;
+import io.github.yynps737.voxelptr.scanner.impl.ChunkEventScanner;
+import io.github.yynps737.voxelptr.target.Target;
+import io.github.yynps737.voxelptr.target.TargetTracker;
+import io.github.yynps737.voxelptr.target.types.VeinTarget;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.chunk.ChunkSection;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 长时间浸泡测试（仅开发用）
+ * 用模拟时钟压缩时间，模拟数小时的移动、挖矿和切换预设，不按真实时间等待：
+ * - 玩家沿一个总体方向漂移的随机游走前进，不断进入新的区块：持续触发 LRU 淘汰，
+ *   以区块坐标为键的泄漏（不同区块数无上限）不会在固定区域内达到平台而漏检
+ * - 可选模拟世界高亮：开启时每 tick 取出扫描缓存的变化区块（与 ChunkHighlightMeshCache 一致），
+ *   关闭时不接入（与关闭高亮的渲染器一致），两种情况下变化区块记录都不应增长
+ * - 每隔一段时间挖掉最近矿脉中的一个方块
+ * - 按固定间隔轮换方块预设（与 KeyBindingManager 的切换流程一致）
+ *
+ * 扫描任务在调用线程上同步执行，结果只取决于种子。
+ * 每个预设周期结束时（同一相位）在 GC 后采样保留堆和对象数量，
+ * 预热之后对样本做最小二乘拟合，投影增长超过容差时以非零状态退出
+ *
+ * 运行: ./gradlew soakTest [-Psoak.hours=8] [-Psoak.maxHeapGrowthMb=32] ...
+ * 参数（key=value）：
+ * - hours：模拟时长（小时，默认 8）
+ * - switchMinutes：切换预设的间隔（模拟分钟，默认 5）
+ * - mineSeconds：挖矿间隔（模拟秒，默认 2）
+ * - highlight：是否模拟世界高亮（true/false，默认 false）
+ * - viewDistance：视距（区块，默认 8）
+ * - maxDistance：最大距离过滤（格，默认 0 不限制）
+ * - maxHeapGrowthMb：预热后保留堆的投影增长上限（MB，默认 32）
+ * - maxCountGrowth：预热后对象数量的投影增长上限（相对均值，默认 0.25）
+ */
+public final class SoakTest {
+
+    private static final int TICKS_PER_SECOND = 20;
+    private static final long TICK_MILLIS = 1000L / TICKS_PER_SECOND;
+
+    /**
+     * 疾跑速度（格/tick）
+     */
+    private static final double SPEED = 5.6 / TICKS_PER_SECOND;
+
+    /**
+     * 改变方向的平均间隔（tick）
+     */
+    private static final int TURN_TICKS = 30 * TICKS_PER_SECOND;
+
+    /**
+     * 每次转向时偏离漂移方向的最大角度（±90°，平均每 tick 沿漂移方向前进 2/π 倍速度）
+     */
+    private static final double MAX_TURN = Math.PI / 2;
+
+    /**
+     * 挖矿记录保留的距离（视距的倍数），更远的记录在采样前丢弃，避免测试自身的记录随路程增长
+     */
+    private static final int MINED_RETAIN_VIEW_DISTANCES = 4;
+
+    /**
+     * 预热比例：之前的样本不参与拟合（缓存和追踪器还在填充）
+     */
+    private static final double WARMUP_FRACTION = 0.25;
+
+    private static final String[] PRESETS = {"diamond", "iron", "coal", "redstone"};
+    private static final String[] METRICS = {"保留堆 MB", "追踪器目标", "缓存区块", "缓存目标", "聚类器方块", "矿脉",
+            "变化区块", "淘汰区块"};
+    private static final long SEED = 20251019L;
+
+    /**
+     * 变化区块和淘汰区块记录在 METRICS 中的起始下标
+     * 正常情况下只含当前 tick 的少量变化，按绝对数量检查增长（以区块坐标为键的泄漏每小时增长数千）
+     */
+    private static final int PENDING_SET_METRICS = 6;
+    private static final double MAX_PENDING_SET_GROWTH = 64;
+
+    private final Map<String, String> options;
+
+    private long now;
+    private final Random random = new Random(SEED);
+
+    /**
+     * 已加载的区块（Key: ChunkPos.toLong()）
+     */
+    private final Long2ObjectOpenHashMap<ChunkSection[]> loaded = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * 已挖掉的方块（Key: ChunkPos.toLong()，Value: BlockPos.asLong()），区块重新加载时重新应用，与真实世界一致
+     */
+    private final Long2ObjectOpenHashMap<LongArrayList> minedByChunk = new Long2ObjectOpenHashMap<>();
+
+    private ChunkEventScanner scanner;
+    private TargetTracker tracker;
+
+    private SoakTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+
+        SyntheticChunks.bootstrap();
+        Configurator.setLevel(VoxelPtr.MOD_ID, Level.WARN);
+
+        boolean passed = new SoakTest(options).run();
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run() {
+        float hours = getFloat("hours", 8.0f);
+        float switchMinutes = getFloat("switchMinutes", 5.0f);
+        float mineSeconds = getFloat("mineSeconds", 2.0f);
+        boolean highlight = Boolean.parseBoolean(options.getOrDefault("highlight", "false"));
+        int viewDistance = (int) getFloat("viewDistance", 8.0f);
+        float maxDistance = getFloat("maxDistance", 0.0f);
+        float maxHeapGrowthMb = getFloat("maxHeapGrowthMb", 32.0f);
+        float maxCountGrowth = getFloat("maxCountGrowth", 0.25f);
+
+        System.out.printf("浸泡测试: 模拟 %.1f 小时, 每 %.1f 分钟切换预设, 每 %.1f 秒挖矿, 视距 %d, 世界高亮 %s%n",
+                hours, switchMinutes, mineSeconds, viewDistance, highlight ? "开启" : "关闭");
+
+        tracker = new TargetTracker(() -> now);
+        scanner = new ChunkEventScanner(ScannerManager.blocksForPreset(PRESETS[0]), new DirectExecutor());
+        scanner.setScanCompleteCallback(tracker::applyChanges);
+        scanner.getCache().setDirtyTracking(highlight);
+
+        long totalTicks = (long) (hours * 3600 * TICKS_PER_SECOND);
+        long switchTicks = Math.max(1, (long) (switchMinutes * 60 * TICKS_PER_SECOND));
+        long mineTicks = Math.max(1, (long) (mineSeconds * TICKS_PER_SECOND));
+        long cycleTicks = switchTicks * PRESETS.length;
+
+        double x = 0;
+        double z = 0;
+        double drift = random.nextDouble() * Math.PI * 2;
+        double heading = drift;
+        int presetIndex = 0;
+        long minedCount = 0;
+        List<double[]> samples = new ArrayList<>();
+        long startNanos = System.nanoTime();
+
+        for (long tick = 1; tick <= totalTicks; tick++) {
+            now += TICK_MILLIS;
+
+            // 1. 漂移的随机游走（无边界，不断进入新的区块）
+            if (random.nextInt(TURN_TICKS) == 0) {
+                heading = drift + (random.nextDouble() * 2 - 1) * MAX_TURN;
+            }
+            x += Math.cos(heading) * SPEED;
+            z += Math.sin(heading) * SPEED;
+            Vec3d playerPos = new Vec3d(x, 100.0, z);
+            int chunkX = MathHelper.floor(x) >> 4;
+            int chunkZ = MathHelper.floor(z) >> 4;
+            updateLoadedChunks(chunkX, chunkZ, viewDistance);
+
+            // 模拟世界高亮：每帧取出变化区块（这里每 tick 一次）
+            if (highlight) {
+                scanner.getCache().drainDirtyChunks();
+            }
+
+            // 2. 与 VoxelPtrCore.tick 的顺序一致：先 tick 追踪器，再更新扫描范围
+            tracker.tick(null, playerPos);
+            scanner.updateScanBounds(playerPos, maxDistance, SyntheticChunks.BOTTOM_SECTION_COORD,
+                    (chunkX, chunkZ) -> loaded.get(ChunkPos.toLong(chunkX, chunkZ)));
+
+            // 3. 挖掉最近矿脉中的一个方块
+            if (tick % mineTicks == 0 && mineNearest(playerPos)) {
+                minedCount++;
+            }
+
+            // 4. 每个预设周期结束时采样（同一相位，避免不同预设的目标数量差异），然后切换预设
+            if (tick % cycleTicks == 0) {
+                pruneMined(chunkX, chunkZ, viewDistance * MINED_RETAIN_VIEW_DISTANCES);
+                samples.add(sample());
+                printSample(samples.size(), samples.get(samples.size() - 1));
+            }
+            if (tick % switchTicks == 0) {
+                presetIndex = (presetIndex + 1) % PRESETS.length;
+                switchPreset(PRESETS[presetIndex]);
+            }
+        }
+
+        System.out.printf("完成: 耗时 %.1f s, 挖掉 %d 个方块, 已加载 %d 个区块%n",
+                (System.nanoTime() - startNanos) / 1e9, minedCount, loaded.size());
+
+        boolean passed = check(samples, maxHeapGrowthMb, maxCountGrowth);
+        scanner.shutdown();
+        return passed;
+    }
+
+    /**
+     * 加载视距内新进入的区块，卸载视距外的区块
+     */
+    private void updateLoadedChunks(int centerX, int centerZ, int viewDistance) {
+        loaded.long2ObjectEntrySet().removeIf(entry -> {
+            long key = entry.getLongKey();
+            return Math.abs(ChunkPos.getPackedX(key) - centerX) > viewDistance
+                    || Math.abs(ChunkPos.getPackedZ(key) - centerZ) > viewDistance;
+        });
+
+        for (int chunkX = centerX - viewDistance; chunkX <= centerX + viewDistance; chunkX++) {
+            for (int chunkZ = centerZ - viewDistance; chunkZ <= centerZ + viewDistance; chunkZ++) {
+                long key = ChunkPos.toLong(chunkX, chunkZ);
+                if (loaded.containsKey(key)) {
+                    continue;
+                }
+                ChunkPos pos = new ChunkPos(chunkX, chunkZ);
+                ChunkSection[] sections = SyntheticChunks.generate(pos, SEED);
+                LongArrayList minedBlocks = minedByChunk.get(key);
+                if (minedBlocks != null) {
+                    for (int i = 0; i < minedBlocks.size(); i++) {
+                        long minedKey = minedBlocks.getLong(i);
+                        setBlock(sections, BlockPos.unpackLongX(minedKey), BlockPos.unpackLongY(minedKey),
+                                BlockPos.unpackLongZ(minedKey), Blocks.AIR.getDefaultState());
+                    }
+                }
+                loaded.put(key, sections);
+                scanner.onSectionsLoaded(pos, SyntheticChunks.BOTTOM_SECTION_COORD, sections);
+            }
+        }
+    }
+
+    /**
+     * 丢弃远处区块的挖矿记录（漂移的游走很少返回，测试自身的记录不应计入保留堆的增长）
+     */
+    private void pruneMined(int centerX, int centerZ, int retainChunks) {
+        minedByChunk.long2ObjectEntrySet().removeIf(entry -> {
+            long key = entry.getLongKey();
+            return Math.abs(ChunkPos.getPackedX(key) - centerX) > retainChunks
+                    || Math.abs(ChunkPos.getPackedZ(key) - centerZ) > retainChunks;
+        });
+    }
+
+    /**
+     * 挖掉离玩家最近的矿脉中的一个方块：先修改区块，再通知扫描器（与客户端顺序一致）
+     *
+     * @return 是否挖掉了方块
+     */
+    private boolean mineNearest(Vec3d playerPos) {
+        for (Target target : tracker.getNearestTargets(playerPos, 1)) {
+            if (!(target instanceof VeinTarget vein)) {
+                continue;
+            }
+            BlockPos pos = vein.getBlocks().get(0).getBlockPos();
+            long chunkKey = ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4);
+            ChunkSection[] sections = loaded.get(chunkKey);
+            if (sections == null) {
+                return false;
+            }
+            BlockState air = Blocks.AIR.getDefaultState();
+            setBlock(sections, pos.getX(), pos.getY(), pos.getZ(), air);
+            minedByChunk.computeIfAbsent(chunkKey, k -> new LongArrayList()).add(pos.asLong());
+            scanner.onBlockUpdate(pos, air);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 切换预设（与 KeyBindingManager.applyBlockPreset 一致：设置目标方块、清空缓存、重新扫描已加载区块）
+     */
+    private void switchPreset(String preset) {
+        scanner.setTargetBlocks(ScannerManager.blocksForPreset(preset));
+        scanner.getCache().clear();
+        for (var entry : loaded.long2ObjectEntrySet()) {
+            scanner.onSectionsLoaded(new ChunkPos(entry.getLongKey()), SyntheticChunks.BOTTOM_SECTION_COORD,
+                    entry.getValue());
+        }
+    }
+
+    private static void setBlock(ChunkSection[] sections, int x, int y, int z, BlockState state) {
+        int index = (y >> 4) - SyntheticChunks.BOTTOM_SECTION_COORD;
+        if (index >= 0 && index < sections.length) {
+            sections[index].setBlockState(x & 15, y & 15, z & 15, state, false);
+        }
+    }
+
+    /**
+     * GC 后采样保留堆和各结构的对象数量（顺序与 METRICS 一致）
+     */
+    private double[] sample() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        System.gc();
+        return new double[]{
+                memory.getHeapMemoryUsage().getUsed() / 1048576.0,
+                tracker.getTargetCount(),
+                scanner.getCache().size(),
+                scanner.getCache().getTotalTargetCount(),
+                scanner.getVeinClusterer().getBlockCount(),
+                scanner.getVeinClusterer().getVeins().size(),
+                scanner.getCache().getDirtyChunkCount(),
+                scanner.getCache().getEvictedChunkCount()
+        };
+    }
+
+    private void printSample(int index, double[] values) {
+        StringBuilder line = new StringBuilder(String.format("样本 %d（%.1f 小时）:", index, now / 3600000.0));
+        for (int i = 0; i < METRICS.length; i++) {
+            line.append(String.format(i == 0 ? " %s %.1f" : ", %s %.0f", METRICS[i], values[i]));
+        }
+        System.out.println(line);
+    }
+
+    /**
+     * 对预热后的样本做最小二乘拟合，检查投影到整个窗口的增长
+     */
+    private static boolean check(List<double[]> samples, float maxHeapGrowthMb, float maxCountGrowth) {
+        int first = (int) Math.ceil(samples.size() * WARMUP_FRACTION);
+        int count = samples.size() - first;
+        if (count < 3) {
+            System.out.printf("失败: 预热后只有 %d 个样本，至少需要 3 个（增加 hours 或减小 switchMinutes）%n", count);
+            return false;
+        }
+
+        boolean passed = true;
+        for (int metric = 0; metric < METRICS.length; metric++) {
+            double sumX = 0;
+            double sumY = 0;
+            for (int i = first; i < samples.size(); i++) {
+                sumX += i;
+                sumY += samples.get(i)[metric];
+            }
+            double meanX = sumX / count;
+            double meanY = sumY / count;
+            double covariance = 0;
+            double variance = 0;
+            for (int i = first; i < samples.size(); i++) {
+                covariance += (i - meanX) * (samples.get(i)[metric] - meanY);
+                variance += (i - meanX) * (i - meanX);
+            }
+            double growth = covariance / variance * (count - 1);
+
+            boolean ok;
+            if (metric == 0) {
+                ok = growth <= maxHeapGrowthMb;
+            } else if (metric >= PENDING_SET_METRICS) {
+                ok = growth <= Math.max(MAX_PENDING_SET_GROWTH, meanY * maxCountGrowth);
+            } else {
+                ok = growth <= Math.max(1.0, meanY) * maxCountGrowth;
+            }
+            System.out.printf("%s: 均值 %.1f, 预热后投影增长 %+.1f%s%n", METRICS[metric], meanY, growth,
+                    ok ? "" : "（超出容差）");
+            passed &= ok;
+        }
+
+        System.out.println(passed ? "通过" : "失败: 稳定状态下仍在增长");
+        return passed;
+    }
+
+    private float getFloat(String key, float defaultValue) {
+        String value = options.get(key);
+        return value != null ? Float.parseFloat(value) : defaultValue;
+    }
+
+    /**
+     * 在调用线程上同步执行任务的执行器，使结果只取决于种子
+     */
+    private static final class DirectExecutor extends AbstractExecutorService {
+
+        private volatile boolean shutdown;
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package io.github.yynps737.voxelptr.bench;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PaletteProvider;
+import net.minecraft.world.chunk.PalettedContainer;
+
+import java.util.Random;
+
+/**
+ * 合成区块生成器（基准测试用）
+ * 只依赖引导后的原版注册表，不需要客户端或世界
+ *
+ * 地形按主世界简化：-64 到 0 为深板岩，0 到 60 为石头，60 到 64 为泥土和草方块，以上为空气
+ * 矿石按原版 1.18+ 的高度范围、矿脉大小和每区块数量近似生成，另外挖出少量洞穴
+ * 每个区块都包含所有矿石，预设只决定扫描器要找哪些方块
+ */
+public final class SyntheticChunks {
+
+    public static final int BOTTOM_SECTION_COORD = -4;
+    public static final int SECTION_COUNT = 24;
+
+    private static final int DEEPSLATE_TOP = 0;
+    private static final int STONE_TOP = 60;
+    private static final int SURFACE_Y = 64;
+
+    /**
+     * 矿石分布：石头变种、深板岩变种、最低 Y、最高 Y、矿脉大小、每区块矿脉数
+     */
+    private record OreDistribution(Block stoneOre, Block deepslateOre, int minY, int maxY, int size, int count) {
+    }
+
+    private static OreDistribution[] distributions;
+
+    private static volatile boolean bootstrapped;
+
+    private SyntheticChunks() {
+    }
+
+    /**
+     * 引导原版注册表（只执行一次）
+     */
+    public static synchronized void bootstrap() {
+        if (bootstrapped) {
+            return;
+        }
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+        distributions = new OreDistribution[]{
+                new OreDistribution(Blocks.COAL_ORE, Blocks.DEEPSLATE_COAL_ORE, 0, 192, 17, 20),
+                new OreDistribution(Blocks.IRON_ORE, Blocks.DEEPSLATE_IRON_ORE, -24, 56, 9, 10),
+                new OreDistribution(Blocks.COPPER_ORE, Blocks.DEEPSLATE_COPPER_ORE, -16, 112, 10, 16),
+                new OreDistribution(Blocks.GOLD_ORE, Blocks.DEEPSLATE_GOLD_ORE, -64, 32, 9, 4),
+                new OreDistribution(Blocks.REDSTONE_ORE, Blocks.DEEPSLATE_REDSTONE_ORE, -64, 15, 8, 8),
+                new OreDistribution(Blocks.LAPIS_ORE, Blocks.DEEPSLATE_LAPIS_ORE, -64, 64, 7, 4),
+                new OreDistribution(Blocks.DIAMOND_ORE, Blocks.DEEPSLATE_DIAMOND_ORE, -64, 16, 6, 7),
+                new OreDistribution(Blocks.EMERALD_ORE, Blocks.DEEPSLATE_EMERALD_ORE, -16, 64, 1, 20),
+        };
+        bootstrapped = true;
+    }
+
+    /**
+     * 生成一个区块的区块段数组（从底部开始）
+     *
+     * @param chunkPos 区块坐标（只影响随机种子）
+     * @param seed 世界种子
+     * @return 区块段数组
+     */
+    public static ChunkSection[] generate(ChunkPos chunkPos, long seed) {
+        return generate(chunkPos, seed, 1.0f);
+    }
+
+    /**
+     * 生成一个区块的区块段数组（从底部开始）
+     *
+     * @param chunkPos 区块坐标（只影响随机种子）
+     * @param seed 世界种子
+     * @param oreDensity 矿脉数量倍率（1 为原版密度）
+     * @return 区块段数组
+     */
+    public static ChunkSection[] generate(ChunkPos chunkPos, long seed, float oreDensity) {
+        bootstrap();
+        Random random = new Random(seed ^ chunkPos.toLong() * 341873128712L);
+        ChunkSection[] sections = new ChunkSection[SECTION_COUNT];
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            sections[i] = newSection();
+        }
+
+        // 1. 地形
+        BlockState bedrock = Blocks.BEDROCK.getDefaultState();
+        BlockState deepslate = Blocks.DEEPSLATE.getDefaultState();
+        BlockState stone = Blocks.STONE.getDefaultState();
+        BlockState dirt = Blocks.DIRT.getDefaultState();
+        BlockState grass = Blocks.GRASS_BLOCK.getDefaultState();
+        int bottomY = BOTTOM_SECTION_COORD << 4;
+        for (int y = bottomY; y < SURFACE_Y; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    BlockState state;
+                    if (y < bottomY + 5 && random.nextInt(y - bottomY + 1) == 0) {
+                        state = bedrock;
+                    } else if (y < DEEPSLATE_TOP) {
+                        state = deepslate;
+                    } else if (y < STONE_TOP) {
+                        state = stone;
+                    } else if (y < SURFACE_Y - 1) {
+                        state = dirt;
+                    } else {
+                        state = grass;
+                    }
+                    set(sections, x, y, z, state);
+                }
+            }
+        }
+
+        // 2. 矿脉（只替换石头和深板岩）
+        for (OreDistribution ore : distributions) {
+            int veins = Math.round(ore.count() * oreDensity);
+            for (int vein = 0; vein < veins; vein++) {
+                int x = random.nextInt(16);
+                int z = random.nextInt(16);
+                int y = ore.minY() + random.nextInt(ore.maxY() - ore.minY() + 1);
+                for (int block = 0; block < ore.size(); block++) {
+                    BlockState current = get(sections, x, y, z);
+                    if (current == stone) {
+                        set(sections, x, y, z, ore.stoneOre().getDefaultState());
+                    } else if (current == deepslate) {
+                        set(sections, x, y, z, ore.deepslateOre().getDefaultState());
+                    }
+                    // 随机游走到相邻方块，保持在区块内
+                    switch (random.nextInt(6)) {
+                        case 0 -> x = Math.min(15, x + 1);
+                        case 1 -> x = Math.max(0, x - 1);
+                        case 2 -> z = Math.min(15, z + 1);
+                        case 3 -> z = Math.max(0, z - 1);
+                        case 4 -> y = Math.min(SURFACE_Y - 1, y + 1);
+                        default -> y = Math.max(bottomY + 5, y - 1);
+                    }
+                }
+            }
+        }
+
+        // 3. 洞穴（椭球形空气，打乱调色板和区块段的均匀性）
+        BlockState air = Blocks.AIR.getDefaultState();
+        int caves = 1 + random.nextInt(3);
+        for (int cave = 0; cave < caves; cave++) {
+            int cx = random.nextInt(16);
+            int cy = bottomY + 8 + random.nextInt(SURFACE_Y - bottomY - 16);
+            int cz = random.nextInt(16);
+            int radius = 3 + random.nextInt(4);
+            for (int y = cy - radius; y <= cy + radius; y++) {
+                for (int z = Math.max(0, cz - radius); z <= Math.min(15, cz + radius); z++) {
+                    for (int x = Math.max(0, cx - radius); x <= Math.min(15, cx + radius); x++) {
+                        int dx = x - cx;
+                        int dy = (y - cy) * 2;
+                        int dz = z - cz;
+                        if (dx * dx + dy * dy + dz * dz <= radius * radius) {
+                            set(sections, x, y, z, air);
+                        }
+                    }
+                }
+            }
+        }
+
+        return sections;
+    }
+
+    /**
+     * 创建空的区块段
+     * 扫描器不读取生物群系，因此不创建生物群系容器
+     */
+    static ChunkSection newSection() {
+        // 1.21.9+ API: 调色板策略改为 PaletteProvider.forBlockStates()
+        PalettedContainer<BlockState> states = new PalettedContainer<>(Blocks.AIR.getDefaultState(),
+                PaletteProvider.forBlockStates(Block.STATE_IDS));
+        return new ChunkSection(states, null);
+    }
+
+    private static BlockState get(ChunkSection[] sections, int x, int y, int z) {
+        return sections[(y >> 4) - BOTTOM_SECTION_COORD].getBlockState(x, y & 15, z);
+    }
+
+    private static void set(ChunkSection[] sections, int x, int y, int z, BlockState state) {
+        sections[(y >> 4) - BOTTOM_SECTION_COORD].setBlockState(x, y & 15, z, state, false);
+    }
+}
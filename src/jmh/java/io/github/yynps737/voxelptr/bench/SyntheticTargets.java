@@ -0,0 +1,117 @@
+package io.github.yynps737.voxelptr.bench;
+
+import io.github.yynps737.voxelptr.target.Target;
+import io.github.yynps737.voxelptr.target.TargetType;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 合成目标生成器（基准测试用）
+ * 目标位于方块中心，观察者位于原点附近
+ *
+ * 分布：
+ * - uniform：在 512x384x512 的范围内均匀分布
+ * - clustered：高斯团簇（每簇约 64 个目标），模拟洞穴、矿洞附近的密集区域
+ * - vein：4~12 个相邻方块的矿脉，按原版矿石高度分布在 -64 到 64 之间
+ */
+public final class SyntheticTargets {
+
+    private static final int HORIZONTAL_RANGE = 256;
+    private static final int MIN_Y = -64;
+    private static final int MAX_Y = 320;
+
+    private SyntheticTargets() {
+    }
+
+    /**
+     * 生成目标
+     *
+     * @param distribution 分布名称（uniform / clustered / vein）
+     * @param count 目标数量
+     * @param seed 随机种子
+     * @return 目标列表
+     */
+    public static List<Target> generate(String distribution, int count, long seed) {
+        Random random = new Random(seed);
+        List<Target> targets = new ArrayList<>(count);
+        switch (distribution) {
+            case "uniform" -> {
+                while (targets.size() < count) {
+                    add(targets,
+                            random.nextInt(HORIZONTAL_RANGE * 2) - HORIZONTAL_RANGE,
+                            MIN_Y + random.nextInt(MAX_Y - MIN_Y),
+                            random.nextInt(HORIZONTAL_RANGE * 2) - HORIZONTAL_RANGE);
+                }
+            }
+            case "clustered" -> {
+                while (targets.size() < count) {
+                    int cx = random.nextInt(HORIZONTAL_RANGE * 2) - HORIZONTAL_RANGE;
+                    int cy = MIN_Y + random.nextInt(MAX_Y - MIN_Y);
+                    int cz = random.nextInt(HORIZONTAL_RANGE * 2) - HORIZONTAL_RANGE;
+                    for (int i = 0; i < 64 && targets.size() < count; i++) {
+                        add(targets,
+                                cx + (int) Math.round(random.nextGaussian() * 8),
+                                cy + (int) Math.round(random.nextGaussian() * 4),
+                                cz + (int) Math.round(random.nextGaussian() * 8));
+                    }
+                }
+            }
+            case "vein" -> {
+                while (targets.size() < count) {
+                    int x = random.nextInt(HORIZONTAL_RANGE * 2) - HORIZONTAL_RANGE;
+                    int y = MIN_Y + random.nextInt(128);
+                    int z = random.nextInt(HORIZONTAL_RANGE * 2) - HORIZONTAL_RANGE;
+                    int size = 4 + random.nextInt(9);
+                    for (int i = 0; i < size && targets.size() < count; i++) {
+                        add(targets, x, y, z);
+                        // 随机游走到相邻方块
+                        switch (random.nextInt(6)) {
+                            case 0 -> x++;
+                            case 1 -> x--;
+                            case 2 -> y++;
+                            case 3 -> y--;
+                            case 4 -> z++;
+                            default -> z--;
+                        }
+                    }
+                }
+            }
+            default -> throw new IllegalArgumentException("未知的目标分布: " + distribution);
+        }
+        return targets;
+    }
+
+    private static void add(List<Target> targets, int x, int y, int z) {
+        targets.add(new SyntheticTarget(new Vec3d(x + 0.5, y + 0.5, z + 0.5)));
+    }
+
+    /**
+     * 合成目标：始终有效，不访问世界
+     * 基准只测量追踪器本身的开销，方块目标的世界查询不在测量范围内
+     */
+    private static final class SyntheticTarget extends Target {
+
+        SyntheticTarget(Vec3d position) {
+            super(TargetType.BLOCK, position);
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "synthetic";
+        }
+
+        @Override
+        public boolean isValid(World world) {
+            return true;
+        }
+
+        @Override
+        public int getColor() {
+            return 0xFF00FFFF;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.yynps737.voxelptr.bench;
+
+import io.github.yynps737.voxelptr.target.Target;
+import io.github.yynps737.voxelptr.target.TargetSnapshot;
+import io.github.yynps737.voxelptr.target.TargetTracker;
+import net.minecraft.util.math.Vec3d;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 目标追踪器查询和 tick 开销基准
+ *
+ * - nearestTargets / targetsWithinDistance：HUD 和渲染使用的查询
+ * - addTargets：一次区块扫描结果的合并（更新已有目标，集合大小不变）
+ * - tickUnchanged：目标和观察者都未变化时的 tick（沿用快照的快速路径）
+ * - tickMoved：观察者移动后的 tick（完整排序并发布快照）
+ *
+ * 运行: ./gradlew jmh -PjmhIncludes=TargetTrackerBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TargetTrackerBenchmark {
+
+    /**
+     * 每次 addTargets 合并的目标数（约一个区块的扫描结果）
+     */
+    private static final int BATCH_SIZE = 256;
+
+    private static final int NEAREST_COUNT = 10;
+    private static final float QUERY_DISTANCE = 64.0f;
+    private static final long SEED = 20251019L;
+
+    private static final Vec3d VIEWER_A = new Vec3d(0.5, 12.0, 0.5);
+    private static final Vec3d VIEWER_B = new Vec3d(1.5, 12.0, 0.5);
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int targetCount;
+
+    @Param({"uniform", "clustered", "vein"})
+    public String distribution;
+
+    private TargetTracker tracker;
+    private List<Target> targets;
+    private int batchStart;
+    private boolean moved;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticChunks.bootstrap();
+        targets = SyntheticTargets.generate(distribution, targetCount, SEED);
+        tracker = new TargetTracker();
+        tracker.addTargets(targets);
+        tracker.tick(null, VIEWER_A);
+    }
+
+    @Benchmark
+    public List<Target> nearestTargets() {
+        return tracker.getNearestTargets(VIEWER_A, NEAREST_COUNT);
+    }
+
+    @Benchmark
+    public List<Target> targetsWithinDistance() {
+        return tracker.getTargetsWithinDistance(VIEWER_A, QUERY_DISTANCE);
+    }
+
+    @Benchmark
+    public int addTargets() {
+        int start = batchStart;
+        int end = Math.min(start + BATCH_SIZE, targets.size());
+        tracker.addTargets(targets.subList(start, end));
+        batchStart = end == targets.size() ? 0 : end;
+        return tracker.getTargetCount();
+    }
+
+    @Benchmark
+    public TargetSnapshot tickUnchanged() {
+        tracker.tick(null, VIEWER_A);
+        return tracker.getSnapshot();
+    }
+
+    @Benchmark
+    public TargetSnapshot tickMoved() {
+        // 两个位置相距 1 格，超过重新排序的阈值，每次都完整排序
+        moved = !moved;
+        tracker.tick(null, moved ? VIEWER_B : VIEWER_A);
+        return tracker.getSnapshot();
+    }
+}
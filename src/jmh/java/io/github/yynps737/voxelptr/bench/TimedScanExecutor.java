@@ -0,0 +1,113 @@
+package io.github.yynps737.voxelptr.bench;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 记录任务延迟的扫描线程池（与生产环境相同的 2 个线程）
+ * 每个任务从提交到执行完毕的时间（排队 + 扫描）计为一次扫描延迟
+ */
+final class TimedScanExecutor extends ThreadPoolExecutor {
+
+    private final LongArrayList latencies = new LongArrayList();
+
+    /**
+     * 已提交但尚未执行完毕的任务数
+     * 任务在执行期间提交的后续任务先计入再减去自身，因此归零后不会再有新任务
+     */
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final Object idleLock = new Object();
+
+    TimedScanExecutor(int threads) {
+        super(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "VoxelPtr-Scanner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long submitted = System.nanoTime();
+        outstanding.incrementAndGet();
+        try {
+            super.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    long latency = System.nanoTime() - submitted;
+                    synchronized (latencies) {
+                        latencies.add(latency);
+                    }
+                    finishTask();
+                }
+            });
+        } catch (RuntimeException e) {
+            finishTask(); // 被拒绝的任务不会执行
+            throw e;
+        }
+    }
+
+    private void finishTask() {
+        if (outstanding.decrementAndGet() == 0) {
+            synchronized (idleLock) {
+                idleLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 等待所有任务（包括执行期间提交的后续扫描）执行完毕
+     * 必须在 shutdown 之前调用，否则后续扫描会被拒绝而丢失
+     *
+     * @return 超时前是否已全部完成
+     */
+    boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (idleLock) {
+            while (outstanding.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(idleLock, remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 当前排队的任务数
+     */
+    int getQueueDepth() {
+        return getQueue().size();
+    }
+
+    /**
+     * 已完成任务的延迟（纳秒，已排序的副本）
+     */
+    long[] getSortedLatencies() {
+        long[] sorted;
+        synchronized (latencies) {
+            sorted = latencies.toLongArray();
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * 已排序延迟数组的百分位（毫秒）
+     */
+    static double percentileMillis(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
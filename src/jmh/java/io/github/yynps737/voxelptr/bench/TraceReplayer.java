@@ -0,0 +1,275 @@
+package io.github.yynps737.voxelptr.bench;
+
+import io.github.yynps737.voxelptr.VoxelPtr;
+import io.github.yynps737.voxelptr.scanner.ScannerManager;
+import io.github.yynps737.voxelptr.scanner.impl.ChunkEventScanner;
+import io.github.yynps737.voxelptr.target.TargetTracker;
+import io.github.yynps737.voxelptr.trace.TraceFormat;
+import io.github.yynps737.voxelptr.trace.TraceReader;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.chunk.ChunkSection;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.yynps737.voxelptr.bench.TimedScanExecutor.percentileMillis;
+
+/**
+ * 区块事件记录的离线重放器
+ * 不启动客户端，把 TraceRecorder 记录的事件按原始顺序全速送入 ChunkEventScanner 和 TargetTracker，
+ * 报告扫描延迟百分位、扫描队列深度、追踪器 tick 耗时和内存占用
+ *
+ * 运行: ./gradlew replayTrace -Ptrace=<记录文件> [-Ppreset=diamond] [-PmaxDistance=64]
+ * 预设和最大距离过滤默认使用记录时的设置
+ *
+ * 重放器自己保存已加载区块的数据（供方块更新和扫描范围更新读取），按记录的区块卸载事件释放；
+ * 版本 1 的记录没有卸载事件，改为释放离玩家超过最大视距的区块。
+ * GC 后的堆在释放这些区块数据之后测量，峰值堆同时报告当时保存的区块数
+ */
+public final class TraceReplayer {
+
+    /**
+     * 与生产环境相同的扫描线程数
+     */
+    private static final int SCAN_THREADS = 2;
+
+    /**
+     * 没有卸载事件的记录保留区块的半径（区块，客户端最大视距 32 加 1 圈余量）
+     */
+    private static final int FALLBACK_RETAIN_RADIUS = 33;
+
+    private final ChunkEventScanner scanner;
+    private final TargetTracker tracker;
+    private final TimedScanExecutor executor;
+    private final float maxDistance;
+    private final boolean hasChunkUnloads;
+
+    /**
+     * 已加载的区块（Key: ChunkPos.toLong()）
+     */
+    private final Long2ObjectOpenHashMap<ChunkSection[]> loadedChunks = new Long2ObjectOpenHashMap<>();
+    private int bottomSectionCoord;
+    private long lastPlayerChunk = Long.MIN_VALUE;
+
+    // 统计
+    private long chunkLoads;
+    private long blockUpdates;
+    private long ticks;
+    private int maxQueueDepth;
+    private long totalQueueDepth;
+    private long peakHeapUsed;
+    private int peakHeapLoadedChunks;
+    private int maxLoadedChunks;
+    private final LongArrayList tickNanos = new LongArrayList();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    private TraceReplayer(String preset, float maxDistance, boolean hasChunkUnloads) {
+        this.executor = new TimedScanExecutor(SCAN_THREADS);
+        this.scanner = new ChunkEventScanner(ScannerManager.blocksForPreset(preset), executor);
+        this.tracker = new TargetTracker();
+        this.maxDistance = maxDistance;
+        this.hasChunkUnloads = hasChunkUnloads;
+        scanner.setScanCompleteCallback(tracker::applyChanges);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || args[0].isEmpty()) {
+            System.err.println("用法: TraceReplayer <记录文件> [预设] [最大距离过滤]");
+            System.exit(1);
+        }
+
+        SyntheticChunks.bootstrap();
+        // 每个区块的扫描日志会拖慢重放，只保留警告和错误
+        Configurator.setLevel(VoxelPtr.MOD_ID, Level.WARN);
+
+        Path path = Path.of(args[0]);
+        try (TraceReader reader = new TraceReader(path)) {
+            // 1.21.6+ API: GameVersion.getName() 改为 name()
+            String gameVersion = SharedConstants.getGameVersion().name();
+            if (!reader.getGameVersion().equals(gameVersion)) {
+                System.err.printf("警告: 记录来自 %s，当前为 %s，方块状态 ID 可能不一致%n",
+                        reader.getGameVersion(), gameVersion);
+            }
+
+            String preset = args.length > 1 && !args[1].isEmpty() ? args[1] : reader.getPreset();
+            float maxDistance = args.length > 2 && !args[2].isEmpty()
+                    ? Float.parseFloat(args[2]) : reader.getMaxDistance();
+
+            if (!reader.hasChunkUnloads()) {
+                System.err.printf("警告: 版本 %d 的记录没有区块卸载事件，释放离玩家超过 %d 个区块的区块%n",
+                        reader.getVersion(), FALLBACK_RETAIN_RADIUS);
+            }
+
+            TraceReplayer replayer = new TraceReplayer(preset, maxDistance, reader.hasChunkUnloads());
+            long start = System.nanoTime();
+            replayer.replay(reader);
+            long replayNanos = System.nanoTime() - start;
+            replayer.drain();
+            long totalNanos = System.nanoTime() - start;
+
+            replayer.report(path, preset, maxDistance, reader.getTimeNanos(), replayNanos, totalNanos);
+            replayer.scanner.shutdown();
+        }
+    }
+
+    /**
+     * 全速重放所有事件（不按记录时的时间间隔等待）
+     */
+    private void replay(TraceReader reader) throws Exception {
+        int type;
+        while ((type = reader.next()) != TraceFormat.END) {
+            switch (type) {
+                case TraceFormat.CHUNK_LOAD -> onChunkLoad(reader);
+                case TraceFormat.CHUNK_UNLOAD -> loadedChunks.remove(ChunkPos.toLong(reader.getX(), reader.getZ()));
+                case TraceFormat.BLOCK_UPDATE -> onBlockUpdate(reader);
+                case TraceFormat.PLAYER_POS -> onTick(new Vec3d(reader.getPlayerX(), reader.getPlayerY(),
+                        reader.getPlayerZ()));
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void onChunkLoad(TraceReader reader) {
+        int[][] states = reader.getSectionStates();
+        ChunkSection[] sections = new ChunkSection[states.length];
+        for (int i = 0; i < states.length; i++) {
+            sections[i] = SyntheticChunks.newSection();
+            int[] ids = states[i];
+            if (ids == null) {
+                continue;
+            }
+            for (int index = 0; index < ids.length; index++) {
+                BlockState state = Block.getStateFromRawId(ids[index]);
+                if (!state.isAir()) {
+                    sections[i].setBlockState(index & 15, index >> 8, (index >> 4) & 15, state, false);
+                }
+            }
+        }
+
+        ChunkPos pos = new ChunkPos(reader.getX(), reader.getZ());
+        bottomSectionCoord = reader.getBottomSectionCoord();
+        loadedChunks.put(pos.toLong(), sections);
+        maxLoadedChunks = Math.max(maxLoadedChunks, loadedChunks.size());
+        chunkLoads++;
+        scanner.onSectionsLoaded(pos, bottomSectionCoord, sections);
+    }
+
+    private void onBlockUpdate(TraceReader reader) {
+        BlockPos pos = new BlockPos(reader.getX(), reader.getY(), reader.getZ());
+        ChunkSection[] sections = loadedChunks.get(ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if (sections == null) {
+            return; // 记录开始前加载的区块，客户端里同样不会扫描
+        }
+        int index = (pos.getY() >> 4) - bottomSectionCoord;
+        if (index < 0 || index >= sections.length) {
+            return;
+        }
+
+        // 与客户端顺序一致：先修改区块，再通知扫描器
+        BlockState state = Block.getStateFromRawId(reader.getStateId());
+        sections[index].setBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15, state);
+        blockUpdates++;
+        scanner.onBlockUpdate(pos, state);
+    }
+
+    /**
+     * 一个客户端 tick：与 VoxelPtrCore.tick 的顺序一致，先 tick 追踪器，再更新扫描范围
+     */
+    private void onTick(Vec3d playerPos) {
+        long start = System.nanoTime();
+        tracker.tick(null, playerPos);
+        scanner.updateScanBounds(playerPos, maxDistance, bottomSectionCoord,
+                (chunkX, chunkZ) -> loadedChunks.get(ChunkPos.toLong(chunkX, chunkZ)));
+        tickNanos.add(System.nanoTime() - start);
+        ticks++;
+
+        int depth = executor.getQueueDepth();
+        maxQueueDepth = Math.max(maxQueueDepth, depth);
+        totalQueueDepth += depth;
+        long heapUsed = memory.getHeapMemoryUsage().getUsed();
+        if (heapUsed > peakHeapUsed) {
+            peakHeapUsed = heapUsed;
+            peakHeapLoadedChunks = loadedChunks.size();
+        }
+
+        if (!hasChunkUnloads) {
+            releaseDistantChunks(playerPos);
+        }
+    }
+
+    /**
+     * 释放离玩家超过最大视距的区块（只用于没有卸载事件的记录，玩家跨越区块时检查一次）
+     */
+    private void releaseDistantChunks(Vec3d playerPos) {
+        int centerX = MathHelper.floor(playerPos.x) >> 4;
+        int centerZ = MathHelper.floor(playerPos.z) >> 4;
+        long playerChunk = ChunkPos.toLong(centerX, centerZ);
+        if (playerChunk == lastPlayerChunk) {
+            return;
+        }
+        lastPlayerChunk = playerChunk;
+        loadedChunks.long2ObjectEntrySet().removeIf(entry -> {
+            long key = entry.getLongKey();
+            return Math.abs(ChunkPos.getPackedX(key) - centerX) > FALLBACK_RETAIN_RADIUS
+                    || Math.abs(ChunkPos.getPackedZ(key) - centerZ) > FALLBACK_RETAIN_RADIUS;
+        });
+    }
+
+    /**
+     * 等待所有扫描任务完成，最后一次 tick 发布最终快照
+     * 先等待执行器空闲再关闭：扫描完成时会提交期间合并进来的后续扫描，提前关闭会把它们拒绝掉
+     */
+    private void drain() throws InterruptedException {
+        if (!executor.awaitIdle(10, TimeUnit.MINUTES)) {
+            System.err.println("警告: 扫描任务 10 分钟内未完成");
+        }
+        executor.shutdown();
+        tracker.tick(null, tracker.getSnapshot().getOrigin());
+    }
+
+    private void report(Path path, String preset, float maxDistance, long recordedNanos, long replayNanos,
+                        long totalNanos) {
+        long[] latencies = executor.getSortedLatencies();
+        long[] ticksSorted = tickNanos.toLongArray();
+        Arrays.sort(ticksSorted);
+
+        // 释放重放器自己保存的区块数据，GC 后的堆只含扫描器、缓存和追踪器
+        int loadedAtEnd = loadedChunks.size();
+        loadedChunks.clear();
+        System.gc();
+        long retainedHeap = memory.getHeapMemoryUsage().getUsed();
+
+        System.out.printf("记录: %s（预设 %s，最大距离 %.0f）%n", path, preset, maxDistance);
+        System.out.printf("事件: %d 区块加载, %d 方块更新, %d tick（记录时长 %.1f s）%n",
+                chunkLoads, blockUpdates, ticks, recordedNanos / 1e9);
+        System.out.printf("重放: 事件 %.1f ms，含等待扫描完成共 %.1f ms%n", replayNanos / 1e6, totalNanos / 1e6);
+        System.out.printf("扫描延迟（%d 次，排队 + 扫描）: p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, "
+                        + "p99.9 %.3f ms, max %.3f ms%n", latencies.length,
+                percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.90),
+                percentileMillis(latencies, 0.99), percentileMillis(latencies, 0.999),
+                percentileMillis(latencies, 1.0));
+        System.out.printf("扫描队列深度: 最大 %d, 平均 %.1f%n",
+                maxQueueDepth, ticks > 0 ? (double) totalQueueDepth / ticks : 0.0);
+        System.out.printf("追踪器 tick: p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                percentileMillis(ticksSorted, 0.50), percentileMillis(ticksSorted, 0.99),
+                percentileMillis(ticksSorted, 1.0));
+        System.out.printf("结果: %d 个目标, %s%n", tracker.getTargetCount(), scanner.getCache().getStats());
+        System.out.printf("重放器保存的区块: 最多 %d 个, 结束时 %d 个%n", maxLoadedChunks, loadedAtEnd);
+        System.out.printf("内存: 峰值堆 %.1f MB（含重放器保存的 %d 个区块）, GC 后 %.1f MB（不含重放器的区块数据）%n",
+                peakHeapUsed / 1048576.0, peakHeapLoadedChunks, retainedHeap / 1048576.0);
+    }
+}
@@ -1,5 +1,8 @@
 package io.github.yynps737.voxelptr.config;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * VoxelPtr 配置类
  * 存储所有可配置的选项
@@ -54,18 +57,120 @@ public class VoxelPtrConfig {
      */
     private int maxHudTargets = 3;
 
+    /**
+     * 是否显示雷达（俯视图，与目标列表位于屏幕两侧）
+     */
+    private boolean radarEnabled = false;
+
+    /**
+     * 雷达显示半径（格）
+     */
+    private int radarRange = 48;
+
+    /**
+     * 雷达在屏幕上的边长（像素）
+     */
+    private int radarSize = 96;
+
+    /**
+     * 是否显示罗盘条（屏幕顶部中央）
+     */
+    private boolean compassEnabled = false;
+
     // ========== 过滤器配置 ==========
 
     /**
      * 最小距离过滤（格）
+     * 比该距离更近的目标不在 HUD 中显示
      */
     private float minDistance = 0.0f;
 
     /**
      * 最大距离过滤（格）
+     * 超出该距离的目标不显示，超出该距离的区块和区块段也不扫描
+     * 小于等于 0 表示不限制
      */
     private float maxDistanceFilter = 64.0f;
 
+    // ========== 实体扫描配置 ==========
+
+    /**
+     * 是否启用实体扫描
+     */
+    private boolean entityScanEnabled = false;
+
+    /**
+     * 追踪敌对生物
+     */
+    private boolean trackHostileMobs = true;
+
+    /**
+     * 追踪掉落物
+     */
+    private boolean trackItemEntities = false;
+
+    /**
+     * 追踪其他玩家
+     */
+    private boolean trackPlayers = false;
+
+    // ========== 方块实体扫描配置 ==========
+
+    /**
+     * 是否启用方块实体扫描（刷怪笼、箱子等）
+     * 只读取区块的方块实体映射，不遍历方块
+     */
+    private boolean blockEntityScanEnabled = false;
+
+    /**
+     * 要追踪的方块实体类型 ID
+     */
+    private List<String> blockEntityTypes = new ArrayList<>(List.of(
+            "minecraft:spawner",
+            "minecraft:trial_spawner",
+            "minecraft:chest"
+    ));
+
+    // ========== 结构扫描配置 ==========
+
+    /**
+     * 是否启用结构识别（地牢、末地传送门、试炼密室）
+     * 在矿物扫描的同一次区块遍历中完成
+     */
+    private boolean structureScanEnabled = false;
+
+    // ========== 世界高亮配置 ==========
+
+    /**
+     * 是否在世界中绘制目标轮廓
+     */
+    private boolean worldHighlightEnabled = true;
+
+    /**
+     * 每帧顶点预算，以方框数计（1 个方框 = 24 个顶点，优先绘制最近的目标）
+     */
+    private int maxHighlightBoxes = 500;
+
+    /**
+     * 矿脉高亮样式：outline（只绘制外轮廓边）/ filled（外轮廓边 + 半透明表面）
+     */
+    private String highlightStyle = "outline";
+
+    /**
+     * 完整轮廓的最远距离（格），更远的目标只绘制点标记
+     */
+    private int highlightDetailDistance = 32;
+
+    /**
+     * 高亮的最远距离（格），更远的目标不绘制
+     */
+    private int highlightMaxDistance = 160;
+
+    /**
+     * 是否绘制从准星到目标的追踪线（计入每帧顶点预算）
+     */
+    private boolean tracerEnabled = false;
+
     // ========== Getters and Setters ==========
 
     public boolean isEnabled() {
@@ -132,6 +237,38 @@ public class VoxelPtrConfig {
         this.maxHudTargets = maxHudTargets;
     }
 
+    public boolean isRadarEnabled() {
+        return radarEnabled;
+    }
+
+    public void setRadarEnabled(boolean radarEnabled) {
+        this.radarEnabled = radarEnabled;
+    }
+
+    public int getRadarRange() {
+        return radarRange;
+    }
+
+    public void setRadarRange(int radarRange) {
+        this.radarRange = radarRange;
+    }
+
+    public int getRadarSize() {
+        return radarSize;
+    }
+
+    public void setRadarSize(int radarSize) {
+        this.radarSize = radarSize;
+    }
+
+    public boolean isCompassEnabled() {
+        return compassEnabled;
+    }
+
+    public void setCompassEnabled(boolean compassEnabled) {
+        this.compassEnabled = compassEnabled;
+    }
+
     public float getMinDistance() {
         return minDistance;
     }
@@ -147,4 +284,108 @@ public class VoxelPtrConfig {
     public void setMaxDistanceFilter(float maxDistanceFilter) {
         this.maxDistanceFilter = maxDistanceFilter;
     }
+
+    public boolean isEntityScanEnabled() {
+        return entityScanEnabled;
+    }
+
+    public void setEntityScanEnabled(boolean entityScanEnabled) {
+        this.entityScanEnabled = entityScanEnabled;
+    }
+
+    public boolean isTrackHostileMobs() {
+        return trackHostileMobs;
+    }
+
+    public void setTrackHostileMobs(boolean trackHostileMobs) {
+        this.trackHostileMobs = trackHostileMobs;
+    }
+
+    public boolean isTrackItemEntities() {
+        return trackItemEntities;
+    }
+
+    public void setTrackItemEntities(boolean trackItemEntities) {
+        this.trackItemEntities = trackItemEntities;
+    }
+
+    public boolean isTrackPlayers() {
+        return trackPlayers;
+    }
+
+    public void setTrackPlayers(boolean trackPlayers) {
+        this.trackPlayers = trackPlayers;
+    }
+
+    public boolean isBlockEntityScanEnabled() {
+        return blockEntityScanEnabled;
+    }
+
+    public void setBlockEntityScanEnabled(boolean blockEntityScanEnabled) {
+        this.blockEntityScanEnabled = blockEntityScanEnabled;
+    }
+
+    public List<String> getBlockEntityTypes() {
+        return blockEntityTypes;
+    }
+
+    public void setBlockEntityTypes(List<String> blockEntityTypes) {
+        this.blockEntityTypes = blockEntityTypes;
+    }
+
+    public boolean isStructureScanEnabled() {
+        return structureScanEnabled;
+    }
+
+    public void setStructureScanEnabled(boolean structureScanEnabled) {
+        this.structureScanEnabled = structureScanEnabled;
+    }
+
+    public boolean isWorldHighlightEnabled() {
+        return worldHighlightEnabled;
+    }
+
+    public void setWorldHighlightEnabled(boolean worldHighlightEnabled) {
+        this.worldHighlightEnabled = worldHighlightEnabled;
+    }
+
+    public int getMaxHighlightBoxes() {
+        return maxHighlightBoxes;
+    }
+
+    public void setMaxHighlightBoxes(int maxHighlightBoxes) {
+        this.maxHighlightBoxes = maxHighlightBoxes;
+    }
+
+    public String getHighlightStyle() {
+        return highlightStyle;
+    }
+
+    public void setHighlightStyle(String highlightStyle) {
+        this.highlightStyle = highlightStyle;
+    }
+
+    public int getHighlightDetailDistance() {
+        return highlightDetailDistance;
+    }
+
+    public void setHighlightDetailDistance(int highlightDetailDistance) {
+        this.highlightDetailDistance = highlightDetailDistance;
+    }
+
+    public int getHighlightMaxDistance() {
+        return highlightMaxDistance;
+    }
+
+    public void setHighlightMaxDistance(int highlightMaxDistance) {
+        this.highlightMaxDistance = highlightMaxDistance;
+    }
+
+    public boolean isTracerEnabled() {
+        return tracerEnabled;
+    }
+
+    public void setTracerEnabled(boolean tracerEnabled) {
+        this.tracerEnabled = tracerEnabled;
+    }
 }
@@ -3,8 +3,10 @@ package io.github.yynps737.voxelptr.core;
 import io.github.yynps737.voxelptr.VoxelPtr;
 import io.github.yynps737.voxelptr.config.ConfigManager;
 import io.github.yynps737.voxelptr.config.VoxelPtrConfig;
+import io.github.yynps737.voxelptr.metrics.MetricsRegistry;
 import io.github.yynps737.voxelptr.scanner.ScannerManager;
 import io.github.yynps737.voxelptr.target.TargetTracker;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 
 /**
@@ -53,16 +55,27 @@ public class VoxelPtrCore {
      * 需要在客户端 tick 事件中调用此方法
      *
      * @param world 当前世界对象（由客户端传入）
+     * @param viewerPos 观察者位置（通常是玩家），用于发布排序快照
      */
-    public void tick(World world) {
+    public void tick(World world, Vec3d viewerPos) {
         if (!configManager.getConfig().isEnabled()) {
             return; // Mod 已禁用
         }
 
+        long start = System.nanoTime();
+
+        if (world != null && scannerManager != null) {
+            // 观察者移动后补扫距离过滤范围内的区块段，并同步实体位置（先于追踪器，快照使用本 tick 的位置）
+            scannerManager.tick(world, viewerPos);
+        }
+
         if (world != null && targetTracker != null) {
-            // 清理过期和无效的目标
-            targetTracker.tick(world);
+            // 清理过期和无效的目标，并发布排序快照
+            targetTracker.tick(world, viewerPos);
+            MetricsRegistry.setTrackerSize(targetTracker.getTargetCount());
         }
+
+        MetricsRegistry.TICK.record(System.nanoTime() - start);
     }
 
     /**
@@ -0,0 +1,40 @@
+package io.github.yynps737.voxelptr.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR 事件：扫描一个区块的区块段（扫描线程）
+ * 默认只记录超过阈值的扫描，未开启 JFR 时不产生开销
+ */
+@Name("voxelptr.ChunkScan")
+@Label("Chunk Scan")
+@Category("VoxelPtr")
+@Description("Scanning the selected sections of one chunk for target blocks")
+@StackTrace(false)
+@Threshold("5 ms")
+public class ChunkScanEvent extends Event {
+
+    @Label("Chunk X")
+    public int chunkX;
+
+    @Label("Chunk Z")
+    public int chunkZ;
+
+    @Label("Sections Scanned")
+    @Description("Sections iterated block by block")
+    public int sectionsScanned;
+
+    @Label("Sections Skipped")
+    @Description("Selected sections skipped because they are empty or their palette has no target block")
+    public int sectionsSkipped;
+
+    @Label("Hits")
+    @Description("Target blocks found")
+    public int hits;
+}
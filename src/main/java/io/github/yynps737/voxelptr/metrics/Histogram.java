@@ -0,0 +1,150 @@
+package io.github.yynps737.voxelptr.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁对数线性直方图（HDR 风格）
+ * 每个 2 的幂区间再均分为 SUB_BUCKETS 个桶，相对误差不超过 1 / SUB_BUCKETS（12.5%），
+ * 可记录任意非负 long 值，内存固定（约 4 KB）
+ *
+ * 记录是两次无锁的原子操作（桶计数自增和 LongAdder 累加总和），任意线程可并发调用；
+ * 两者之间没有同步，并发记录时快照的计数和总和可能相差正在进行的几次记录。
+ * 读取通过 snapshot() 获取累计快照，两个快照相减得到区间内的分布
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 小于 SUB_BUCKETS 的值每个值一个桶，之后每个 2 的幂区间 SUB_BUCKETS 个桶
+     */
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * 记录一个值
+     *
+     * @param value 值（负数按 0 记录）
+     */
+    public void record(long value) {
+        long clamped = Math.max(0L, value);
+        counts.incrementAndGet(bucketIndex(clamped));
+        sum.add(clamped);
+    }
+
+    /**
+     * 获取累计快照
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy, sum.sum());
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int mantissa = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa;
+    }
+
+    /**
+     * 桶内的最大值（报告百分位时偏保守）
+     */
+    static long bucketUpperValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int group = index / SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (group - 1);
+        long width = 1L << (group - 1);
+        return lower > Long.MAX_VALUE - width ? Long.MAX_VALUE : lower + width - 1;
+    }
+
+    /**
+     * 直方图快照（不可变）
+     */
+    public static final class Snapshot {
+
+        public static final Snapshot EMPTY = new Snapshot(new long[BUCKET_COUNT], 0L);
+
+        private final long[] counts;
+        private final long sum;
+        private final long count;
+
+        private Snapshot(long[] counts, long sum) {
+            this.counts = counts;
+            this.sum = sum;
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            this.count = total;
+        }
+
+        /**
+         * 计算自 earlier 以来的区间分布
+         *
+         * @param earlier 同一直方图更早的快照
+         * @return 区间快照
+         */
+        public Snapshot minus(Snapshot earlier) {
+            long[] delta = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                delta[i] = Math.max(0L, counts[i] - earlier.counts[i]);
+            }
+            return new Snapshot(delta, Math.max(0L, sum - earlier.sum));
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * 平均值，没有记录时返回 0
+         */
+        public double getMean() {
+            return count > 0 ? (double) sum / count : 0.0;
+        }
+
+        /**
+         * 百分位对应的值（桶上界），没有记录时返回 0
+         *
+         * @param fraction 百分位（0 ~ 1）
+         */
+        public long getValueAtPercentile(double fraction) {
+            if (count == 0) {
+                return 0L;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(fraction * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return bucketUpperValue(i);
+                }
+            }
+            return getMax();
+        }
+
+        /**
+         * 最大值（所在桶的上界），没有记录时返回 0
+         */
+        public long getMax() {
+            for (int i = BUCKET_COUNT - 1; i >= 0; i--) {
+                if (counts[i] != 0) {
+                    return bucketUpperValue(i);
+                }
+            }
+            return 0L;
+        }
+    }
+}
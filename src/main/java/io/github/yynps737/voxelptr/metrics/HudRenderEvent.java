@@ -0,0 +1,25 @@
+package io.github.yynps737.voxelptr.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR 事件：渲染一帧 VoxelPtr HUD（渲染线程）
+ */
+@Name("voxelptr.HudRender")
+@Label("HUD Render")
+@Category("VoxelPtr")
+@Description("Rendering all enabled VoxelPtr HUD elements for one frame")
+@StackTrace(false)
+@Threshold("1 ms")
+public class HudRenderEvent extends Event {
+
+    @Label("Elements")
+    @Description("HUD elements rendered")
+    public int elements;
+}
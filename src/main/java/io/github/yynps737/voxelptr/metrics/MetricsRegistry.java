@@ -0,0 +1,188 @@
+package io.github.yynps737.voxelptr.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 热路径指标注册表
+ * 计数器使用 LongAdder，耗时使用无锁直方图，记录方只做一次原子操作，不分配对象
+ *
+ * 读取方通过 sample() 获取累计采样，两次采样之差（Interval）即这段时间内的速率和延迟分布：
+ * - F3 调试界面每秒刷新一次
+ * - 性能报告覆盖任意时长
+ */
+public final class MetricsRegistry {
+
+    /**
+     * 区块扫描延迟：从提交到合并完成（排队 + 扫描，纳秒）
+     */
+    public static final Histogram SCAN_LATENCY = new Histogram();
+
+    /**
+     * 每个客户端 tick 中 VoxelPtr 的耗时：追踪器清理和排序 + 扫描范围更新（纳秒）
+     */
+    public static final Histogram TICK = new Histogram();
+
+    /**
+     * 每帧 HUD 渲染耗时（纳秒）
+     */
+    public static final Histogram HUD_RENDER = new Histogram();
+
+    public static final LongAdder SCANS_SUBMITTED = new LongAdder();
+
+    /**
+     * 完成扫描的区块数（每个扫描任务一个区块）
+     */
+    public static final LongAdder CHUNKS_SCANNED = new LongAdder();
+
+    /**
+     * 区块加载时范围内的区块段已全部在缓存中（命中）或需要扫描（未命中）
+     */
+    public static final LongAdder CACHE_HITS = new LongAdder();
+    public static final LongAdder CACHE_MISSES = new LongAdder();
+
+    private static volatile int trackerSize;
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * 更新追踪器中的目标数（每 tick 一次）
+     */
+    public static void setTrackerSize(int size) {
+        trackerSize = size;
+    }
+
+    /**
+     * 当前等待或正在执行的扫描任务数
+     */
+    public static long getScanQueueDepth() {
+        return Math.max(0L, SCANS_SUBMITTED.sum() - CHUNKS_SCANNED.sum());
+    }
+
+    /**
+     * 获取当前累计采样
+     */
+    public static Sample sample() {
+        return new Sample(System.nanoTime(),
+                SCAN_LATENCY.snapshot(), TICK.snapshot(), HUD_RENDER.snapshot(),
+                SCANS_SUBMITTED.sum(), CHUNKS_SCANNED.sum(), CACHE_HITS.sum(), CACHE_MISSES.sum(),
+                trackerSize);
+    }
+
+    /**
+     * 某一时刻的累计采样
+     */
+    public static final class Sample {
+
+        private final long timeNanos;
+        private final Histogram.Snapshot scanLatency;
+        private final Histogram.Snapshot tick;
+        private final Histogram.Snapshot hudRender;
+        private final long scansSubmitted;
+        private final long chunksScanned;
+        private final long cacheHits;
+        private final long cacheMisses;
+        private final int trackerSize;
+
+        private Sample(long timeNanos, Histogram.Snapshot scanLatency, Histogram.Snapshot tick,
+                       Histogram.Snapshot hudRender, long scansSubmitted, long chunksScanned, long cacheHits,
+                       long cacheMisses, int trackerSize) {
+            this.timeNanos = timeNanos;
+            this.scanLatency = scanLatency;
+            this.tick = tick;
+            this.hudRender = hudRender;
+            this.scansSubmitted = scansSubmitted;
+            this.chunksScanned = chunksScanned;
+            this.cacheHits = cacheHits;
+            this.cacheMisses = cacheMisses;
+            this.trackerSize = trackerSize;
+        }
+
+        public long getTimeNanos() {
+            return timeNanos;
+        }
+
+        /**
+         * 计算自 earlier 以来的区间
+         *
+         * @param earlier 更早的采样
+         */
+        public Interval since(Sample earlier) {
+            return new Interval(earlier, this);
+        }
+    }
+
+    /**
+     * 两次采样之间的区间
+     */
+    public static final class Interval {
+
+        private final double seconds;
+        private final Histogram.Snapshot scanLatency;
+        private final Histogram.Snapshot tick;
+        private final Histogram.Snapshot hudRender;
+        private final long chunksScanned;
+        private final long cacheHits;
+        private final long cacheMisses;
+        private final long queueDepth;
+        private final int trackerSize;
+
+        private Interval(Sample start, Sample end) {
+            this.seconds = Math.max(1e-9, (end.timeNanos - start.timeNanos) / 1e9);
+            this.scanLatency = end.scanLatency.minus(start.scanLatency);
+            this.tick = end.tick.minus(start.tick);
+            this.hudRender = end.hudRender.minus(start.hudRender);
+            this.chunksScanned = end.chunksScanned - start.chunksScanned;
+            this.cacheHits = end.cacheHits - start.cacheHits;
+            this.cacheMisses = end.cacheMisses - start.cacheMisses;
+            this.queueDepth = Math.max(0L, end.scansSubmitted - end.chunksScanned);
+            this.trackerSize = end.trackerSize;
+        }
+
+        public double getSeconds() {
+            return seconds;
+        }
+
+        public Histogram.Snapshot getScanLatency() {
+            return scanLatency;
+        }
+
+        public Histogram.Snapshot getTick() {
+            return tick;
+        }
+
+        public Histogram.Snapshot getHudRender() {
+            return hudRender;
+        }
+
+        public long getChunksScanned() {
+            return chunksScanned;
+        }
+
+        public double getChunksPerSecond() {
+            return chunksScanned / seconds;
+        }
+
+        /**
+         * 缓存命中率（0 ~ 1），区间内没有区块加载时返回 -1
+         */
+        public double getCacheHitRate() {
+            long lookups = cacheHits + cacheMisses;
+            return lookups > 0 ? (double) cacheHits / lookups : -1.0;
+        }
+
+        /**
+         * 区间结束时等待或正在执行的扫描任务数
+         */
+        public long getQueueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * 区间结束时追踪器中的目标数
+         */
+        public int getTrackerSize() {
+            return trackerSize;
+        }
+    }
+}
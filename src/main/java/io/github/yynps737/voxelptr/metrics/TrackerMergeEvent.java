@@ -0,0 +1,31 @@
+package io.github.yynps737.voxelptr.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR 事件：把一批矿脉变化合并到追踪器
+ */
+@Name("voxelptr.TrackerMerge")
+@Label("Tracker Merge")
+@Category("VoxelPtr")
+@Description("Applying a batch of added and removed targets to the target tracker")
+@StackTrace(false)
+@Threshold("1 ms")
+public class TrackerMergeEvent extends Event {
+
+    @Label("Added")
+    public int added;
+
+    @Label("Removed")
+    public int removed;
+
+    @Label("Tracker Size")
+    @Description("Targets in the tracker after the merge")
+    public int trackerSize;
+}
@@ -0,0 +1,29 @@
+package io.github.yynps737.voxelptr.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR 事件：追踪器每 tick 的过期和有效性检查（客户端线程）
+ */
+@Name("voxelptr.TrackerValidate")
+@Label("Tracker Validate")
+@Category("VoxelPtr")
+@Description("Per-tick expiry and world validity check of all tracked targets")
+@StackTrace(false)
+@Threshold("1 ms")
+public class TrackerValidateEvent extends Event {
+
+    @Label("Checked")
+    @Description("Targets checked")
+    public int checked;
+
+    @Label("Removed")
+    @Description("Expired or invalid targets removed")
+    public int removed;
+}
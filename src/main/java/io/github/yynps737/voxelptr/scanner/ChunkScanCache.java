@@ -2,6 +2,8 @@ package io.github.yynps737.voxelptr.scanner;
 
 import io.github.yynps737.voxelptr.VoxelPtr;
 import io.github.yynps737.voxelptr.target.types.BlockTarget;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
@@ -16,15 +18,43 @@ import java.util.*;
  * - 区块加载时扫描
  * - 方块变化时更新缓存
  * - LRU 淘汰策略，防止内存无限增长
+ * - 记录内容发生变化的区块，供渲染端只重建变化区块的几何数据
  */
 public class ChunkScanCache {
 
+    /**
+     * 全部区块段已扫描的掩码
+     */
+    public static final long ALL_SECTIONS = -1L;
+
+    /**
+     * 缓存条目
+     * 记录区块中找到的目标，以及已经扫描过的区块段（第 i 位对应从底部数第 i 个区块段）
+     * 超过 64 个区块段的维度始终整块扫描（掩码为 ALL_SECTIONS）
+     */
+    private static final class Entry {
+        final List<BlockTarget> targets;
+        final int bottomSectionCoord;
+        long scannedSections;
+
+        Entry(List<BlockTarget> targets, int bottomSectionCoord, long scannedSections) {
+            this.targets = targets;
+            this.bottomSectionCoord = bottomSectionCoord;
+            this.scannedSections = scannedSections;
+        }
+
+        boolean isSectionScanned(int sectionCoord) {
+            int index = sectionCoord - bottomSectionCoord;
+            return scannedSections == ALL_SECTIONS || (index >= 0 && index < 64 && (scannedSections & (1L << index)) != 0);
+        }
+    }
+
     /**
      * 缓存存储（使用 LinkedHashMap 实现 LRU）
      * Key: 区块坐标
-     * Value: 该区块中找到的目标列表
+     * Value: 该区块的扫描结果
      */
-    private final Map<ChunkPos, List<BlockTarget>> cache;
+    private final Map<ChunkPos, Entry> cache;
 
     /**
      * 最大缓存区块数
@@ -32,47 +62,190 @@ public class ChunkScanCache {
      */
     private static final int MAX_CACHE_SIZE = 1024;
 
+    /**
+     * 自上次 drainDirtyChunks 以来内容发生变化的区块（Key: ChunkPos.toLong()）
+     * 只在有几何缓存消费时记录（见 setDirtyTracking），否则关闭高亮后会随扫描过的区块无限增长
+     */
+    private final LongOpenHashSet dirtyChunks = new LongOpenHashSet();
+
+    /**
+     * 是否记录内容发生变化的区块
+     */
+    private boolean dirtyTracking;
+
+    /**
+     * 自上次 drainEvictedChunks 以来被淘汰或失效的区块（Key: ChunkPos.toLong()）
+     * 扫描器据此从矿脉聚类器中释放这些区块，聚类器的大小始终受缓存容量约束
+     */
+    private final LongOpenHashSet evictedChunks = new LongOpenHashSet();
+
     public ChunkScanCache() {
         // LinkedHashMap with access-order for LRU
-        this.cache = new LinkedHashMap<ChunkPos, List<BlockTarget>>(
+        this.cache = new LinkedHashMap<ChunkPos, Entry>(
                 MAX_CACHE_SIZE,
                 0.75f,
                 true  // accessOrder = true（LRU 模式）
         ) {
             @Override
-            protected boolean removeEldestEntry(Map.Entry<ChunkPos, List<BlockTarget>> eldest) {
-                return size() > MAX_CACHE_SIZE;
+            protected boolean removeEldestEntry(Map.Entry<ChunkPos, Entry> eldest) {
+                if (size() > MAX_CACHE_SIZE) {
+                    markDirty(eldest.getKey().toLong());
+                    evictedChunks.add(eldest.getKey().toLong());
+                    return true;
+                }
+                return false;
             }
         };
     }
 
     /**
-     * 存入缓存
+     * 存入缓存（整个区块已扫描）
      *
      * @param pos 区块坐标
      * @param targets 该区块找到的目标列表
      */
     public synchronized void put(ChunkPos pos, List<BlockTarget> targets) {
         // 复制一份，避免外部修改影响缓存
-        cache.put(pos, new ArrayList<>(targets));
+        cache.put(pos, new Entry(new ArrayList<>(targets), 0, ALL_SECTIONS));
+        markDirty(pos.toLong());
+        evictedChunks.remove(pos.toLong());
         VoxelPtr.LOGGER.debug("缓存区块 {} ({} 个目标)", pos, targets.size());
     }
 
+    /**
+     * 合并部分区块段的扫描结果
+     * 掩码中的区块段原有目标会被新结果替换，其余区块段保持不变
+     *
+     * @param pos 区块坐标
+     * @param bottomSectionCoord 区块最底部区块段的 Y 坐标
+     * @param sectionMask 本次扫描的区块段掩码
+     * @param sectionTargets 本次扫描找到的目标
+     * @return 合并后该区块的全部目标（副本）
+     */
+    public synchronized List<BlockTarget> mergeSections(ChunkPos pos, int bottomSectionCoord, long sectionMask,
+                                                        List<BlockTarget> sectionTargets) {
+        Entry entry = cache.get(pos);
+        if (entry == null || sectionMask == ALL_SECTIONS || entry.bottomSectionCoord != bottomSectionCoord) {
+            entry = new Entry(new ArrayList<>(sectionTargets), bottomSectionCoord, sectionMask);
+            cache.put(pos, entry);
+        } else {
+            entry.targets.removeIf(t -> {
+                int index = (t.getBlockPos().getY() >> 4) - bottomSectionCoord;
+                return index >= 0 && index < 64 && (sectionMask & (1L << index)) != 0;
+            });
+            entry.targets.addAll(sectionTargets);
+            entry.scannedSections |= sectionMask;
+        }
+        markDirty(pos.toLong());
+        evictedChunks.remove(pos.toLong());
+        VoxelPtr.LOGGER.debug("缓存区块 {} ({} 个目标)", pos, entry.targets.size());
+        return new ArrayList<>(entry.targets);
+    }
+
     /**
      * 从缓存获取
+     * 条目的目标列表会被扫描线程和方块更新原地修改，因此返回锁内复制的只读副本，而不是视图
      *
      * @param pos 区块坐标
-     * @return 该区块的目标列表（不可修改视图），如果不存在返回 null
+     * @return 该区块的目标列表（不可修改的副本），如果不存在返回 null
      */
     public synchronized List<BlockTarget> get(ChunkPos pos) {
-        List<BlockTarget> targets = cache.get(pos);
-        if (targets != null) {
-            // 性能优化：返回不可修改视图（零拷贝）而非副本
-            return Collections.unmodifiableList(targets);
+        Entry entry = cache.get(pos);
+        if (entry != null) {
+            return Collections.unmodifiableList(new ArrayList<>(entry.targets));
         }
         return null;
     }
 
+    /**
+     * 获取区块目标的副本（可在其他线程安全遍历）
+     *
+     * @param pos 区块坐标
+     * @return 目标列表副本，如果不存在返回 null
+     */
+    public synchronized List<BlockTarget> copyTargets(ChunkPos pos) {
+        Entry entry = cache.get(pos);
+        return entry != null ? new ArrayList<>(entry.targets) : null;
+    }
+
+    /**
+     * 开启或关闭变化区块的记录
+     * 开启时把所有已缓存的区块标记为变化（关闭期间的变化没有记录），关闭时丢弃未取出的记录
+     *
+     * @param enabled 是否记录
+     */
+    public synchronized void setDirtyTracking(boolean enabled) {
+        if (enabled == dirtyTracking) {
+            return;
+        }
+        dirtyTracking = enabled;
+        if (enabled) {
+            for (ChunkPos pos : cache.keySet()) {
+                dirtyChunks.add(pos.toLong());
+            }
+        } else {
+            dirtyChunks.clear();
+        }
+    }
+
+    private void markDirty(long chunkKey) {
+        if (dirtyTracking) {
+            dirtyChunks.add(chunkKey);
+        }
+    }
+
+    /**
+     * 取出并清空内容发生变化的区块
+     * 调用方应对每个返回的区块重新调用 copyTargets（返回 null 表示已移出缓存）
+     *
+     * @return 区块坐标（ChunkPos.toLong()）数组，无变化时返回空数组
+     */
+    public synchronized long[] drainDirtyChunks() {
+        if (dirtyChunks.isEmpty()) {
+            return LongArrays.EMPTY_ARRAY;
+        }
+        long[] drained = dirtyChunks.toLongArray();
+        dirtyChunks.clear();
+        return drained;
+    }
+
+    /**
+     * 取出并清空被淘汰或失效的区块
+     *
+     * @return 区块坐标（ChunkPos.toLong()）数组，没有时返回空数组
+     */
+    public synchronized long[] drainEvictedChunks() {
+        if (evictedChunks.isEmpty()) {
+            return LongArrays.EMPTY_ARRAY;
+        }
+        long[] drained = evictedChunks.toLongArray();
+        evictedChunks.clear();
+        return drained;
+    }
+
+    /**
+     * 获取已扫描的区块段掩码
+     *
+     * @param pos 区块坐标
+     * @return 掩码，未缓存时返回 0
+     */
+    public synchronized long getScannedSections(ChunkPos pos) {
+        Entry entry = cache.get(pos);
+        return entry != null ? entry.scannedSections : 0L;
+    }
+
+    /**
+     * 检查方块所在的区块段是否已扫描
+     *
+     * @param chunkPos 区块坐标
+     * @param blockPos 方块坐标
+     * @return true 如果已扫描
+     */
+    public synchronized boolean isScanned(ChunkPos chunkPos, BlockPos blockPos) {
+        Entry entry = cache.get(chunkPos);
+        return entry != null && entry.isSectionScanned(blockPos.getY() >> 4);
+    }
+
     /**
      * 检查缓存是否包含指定区块
      *
@@ -92,27 +265,36 @@ public class ChunkScanCache {
      * @param newState 新的方块状态
      */
     public synchronized void updateBlock(ChunkPos chunkPos, BlockPos blockPos, BlockState newState) {
-        List<BlockTarget> targets = cache.get(chunkPos);
-        if (targets == null) {
+        Entry entry = cache.get(chunkPos);
+        if (entry == null) {
             return; // 该区块未缓存，无需更新
         }
 
         // 移除该位置的旧目标
-        targets.removeIf(t -> t.getBlockPos().equals(blockPos));
+        if (entry.targets.removeIf(t -> t.getBlockPos().equals(blockPos))) {
+            markDirty(chunkPos.toLong());
+        }
 
         VoxelPtr.LOGGER.debug("更新区块 {} 的方块 {}", chunkPos, blockPos);
     }
 
     /**
      * 添加单个目标到缓存
-     * 用于方块变化事件
+     * 用于方块变化事件；区块未缓存（从未扫描，或检查后已被淘汰）时不添加，
+     * 避免为未扫描的区块凭空创建条目（其掩码会错误地标记为已全部扫描，且条目只能靠 LRU 淘汰）
      *
      * @param chunkPos 区块坐标
      * @param target 新目标
+     * @return 是否已添加
      */
-    public synchronized void addTarget(ChunkPos chunkPos, BlockTarget target) {
-        List<BlockTarget> targets = cache.computeIfAbsent(chunkPos, k -> new ArrayList<>());
-        targets.add(target);
+    public synchronized boolean addTarget(ChunkPos chunkPos, BlockTarget target) {
+        Entry entry = cache.get(chunkPos);
+        if (entry == null) {
+            return false;
+        }
+        entry.targets.add(target);
+        markDirty(chunkPos.toLong());
+        return true;
     }
 
     /**
@@ -121,7 +303,10 @@ public class ChunkScanCache {
      * @param pos 区块坐标
      */
     public synchronized void invalidate(ChunkPos pos) {
-        cache.remove(pos);
+        if (cache.remove(pos) != null) {
+            markDirty(pos.toLong());
+            evictedChunks.add(pos.toLong());
+        }
         VoxelPtr.LOGGER.debug("清除区块 {} 的缓存", pos);
     }
 
@@ -130,7 +315,11 @@ public class ChunkScanCache {
      */
     public synchronized void clear() {
         int size = cache.size();
+        for (ChunkPos pos : cache.keySet()) {
+            markDirty(pos.toLong());
+        }
         cache.clear();
+        evictedChunks.clear(); // 清空缓存的调用方会同时清空矿脉聚类器
         VoxelPtr.LOGGER.info("清空缓存（已清理 {} 个区块）", size);
     }
 
@@ -150,10 +339,28 @@ public class ChunkScanCache {
      */
     public synchronized int getTotalTargetCount() {
         return cache.values().stream()
-                .mapToInt(List::size)
+                .mapToInt(entry -> entry.targets.size())
                 .sum();
     }
 
+    /**
+     * 获取尚未取出的变化区块数（用于浸泡测试检查增长）
+     *
+     * @return 区块数
+     */
+    public synchronized int getDirtyChunkCount() {
+        return dirtyChunks.size();
+    }
+
+    /**
+     * 获取尚未取出的淘汰区块数（用于浸泡测试检查增长）
+     *
+     * @return 区块数
+     */
+    public synchronized int getEvictedChunkCount() {
+        return evictedChunks.size();
+    }
+
     /**
      * 获取缓存统计信息
      *
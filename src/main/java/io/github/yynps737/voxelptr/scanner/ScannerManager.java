@@ -1,14 +1,19 @@
 package io.github.yynps737.voxelptr.scanner;
 
 import io.github.yynps737.voxelptr.VoxelPtr;
+import io.github.yynps737.voxelptr.config.VoxelPtrConfig;
 import io.github.yynps737.voxelptr.core.VoxelPtrCore;
+import io.github.yynps737.voxelptr.scanner.impl.BlockEntityScanner;
 import io.github.yynps737.voxelptr.scanner.impl.ChunkEventScanner;
+import io.github.yynps737.voxelptr.scanner.impl.EntityEventScanner;
+import io.github.yynps737.voxelptr.scanner.impl.StructureScanner;
 import io.github.yynps737.voxelptr.target.Target;
+import io.github.yynps737.voxelptr.target.TargetTracker;
 import io.github.yynps737.voxelptr.target.TargetType;
-import io.github.yynps737.voxelptr.target.types.BlockTarget;
 import net.minecraft.block.Block;
 import net.minecraft.block.Blocks;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 
 import java.util.*;
@@ -39,6 +44,22 @@ public class ScannerManager {
      */
     private ChunkEventScanner blockScanner;
 
+    /**
+     * 实体扫描器（由客户端实体事件驱动）
+     */
+    private EntityEventScanner entityScanner;
+
+    /**
+     * 方块实体扫描器（刷怪笼、箱子等）
+     * 与方块扫描器同为 BLOCK 类型，因此单独持有，不放入 scanners 映射
+     */
+    private BlockEntityScanner blockEntityScanner;
+
+    /**
+     * 结构扫描器（由方块扫描器在同一次区块遍历中驱动）
+     */
+    private StructureScanner structureScanner;
+
     public ScannerManager(VoxelPtrCore core) {
         this.core = core;
         this.scanners = new HashMap<>();
@@ -56,18 +77,55 @@ public class ScannerManager {
         Set<Block> defaultTargetBlocks = getDefaultTargetBlocks();
         blockScanner = new ChunkEventScanner(defaultTargetBlocks);
 
-        // 设置扫描完成回调，将结果添加到 TargetTracker
-        blockScanner.setScanCompleteCallback(targets -> {
+        // 设置扫描完成回调，将矿脉变化合并到 TargetTracker
+        blockScanner.setScanCompleteCallback((added, removed) -> {
             if (core.getTargetTracker() != null) {
-                core.getTargetTracker().addTargets(targets);
+                core.getTargetTracker().applyChanges(added, removed);
             }
         });
 
         scanners.put(TargetType.BLOCK, blockScanner);
 
+        // 初始化实体扫描器，加载/卸载事件直接同步到 TargetTracker
+        entityScanner = new EntityEventScanner();
+        entityScanner.setTargetChangeCallback(createTrackerListener());
+
+        scanners.put(TargetType.ENTITY, entityScanner);
+
+        // 初始化结构扫描器，挂到方块扫描器上复用区块数据
+        structureScanner = new StructureScanner();
+        structureScanner.setTargetChangeCallback(createTrackerListener());
+        blockScanner.setStructureScanner(structureScanner);
+        scanners.put(TargetType.STRUCTURE, structureScanner);
+
+        // 初始化方块实体扫描器
+        blockEntityScanner = new BlockEntityScanner();
+        blockEntityScanner.setTargetChangeCallback(createTrackerListener());
+
         VoxelPtr.LOGGER.info("扫描器初始化完成（已注册 {} 个扫描器）", scanners.size());
     }
 
+    /**
+     * 创建把单个目标增删同步到 TargetTracker 的监听器
+     */
+    private <T extends Target> TargetChangeListener<T> createTrackerListener() {
+        return new TargetChangeListener<>() {
+            @Override
+            public void onTargetAdded(T target) {
+                if (core.getTargetTracker() != null) {
+                    core.getTargetTracker().addOrUpdateTarget(target);
+                }
+            }
+
+            @Override
+            public void onTargetRemoved(T target) {
+                if (core.getTargetTracker() != null) {
+                    core.getTargetTracker().removeTarget(target.getId());
+                }
+            }
+        };
+    }
+
     /**
      * 获取默认的目标方块集合
      * 默认只扫描钻石矿（性能优化 + 用户选择模式）
@@ -90,6 +148,16 @@ public class ScannerManager {
      * 用于用户切换不同的扫描目标
      */
     public Set<Block> getPresetBlocks(String presetName) {
+        return blocksForPreset(presetName);
+    }
+
+    /**
+     * 获取矿石预设对应的方块集合（不依赖扫描器实例，基准测试也使用）
+     *
+     * @param presetName 预设名称
+     * @return 方块集合，未知预设返回钻石
+     */
+    public static Set<Block> blocksForPreset(String presetName) {
         Set<Block> blocks = new HashSet<>();
 
         switch (presetName.toLowerCase()) {
@@ -212,6 +280,71 @@ public class ScannerManager {
         return scanner.scanSync(world, center, radiusChunks);
     }
 
+    /**
+     * 每 tick 调用，根据观察者位置和距离过滤更新扫描范围
+     *
+     * @param world 当前世界
+     * @param viewerPos 观察者位置
+     */
+    public void tick(World world, Vec3d viewerPos) {
+        VoxelPtrConfig config = core.getConfig();
+
+        if (blockScanner != null && viewerPos != null) {
+            blockScanner.updateScanBounds(world, viewerPos, config.getMaxDistanceFilter());
+        }
+
+        if (entityScanner != null) {
+            // 同步配置（未变化时为空操作）
+            entityScanner.setEnabled(config.isEntityScanEnabled());
+            entityScanner.setFilters(config.isTrackHostileMobs(), config.isTrackItemEntities(), config.isTrackPlayers());
+            // 实体移动超过阈值或跨区块段后追踪器需要重新排序（位置在追踪器之外变化，不会自动标记）
+            if (entityScanner.tick() && core.getTargetTracker() != null) {
+                core.getTargetTracker().markDirty();
+            }
+        }
+
+        if (blockEntityScanner != null) {
+            boolean wasEnabled = blockEntityScanner.isEnabled();
+            blockEntityScanner.setEnabled(config.isBlockEntityScanEnabled());
+            boolean typesChanged = blockEntityScanner.setTargetTypes(config.getBlockEntityTypes());
+            if (blockEntityScanner.isEnabled() && (!wasEnabled || typesChanged) && viewerPos != null) {
+                // 启用或修改类型后，读取已加载区块的方块实体（之后由事件增量更新）
+                blockEntityScanner.rescanLoadedChunks(world, BlockPos.ofFloored(viewerPos), config.getScanRadiusChunks());
+            }
+            blockEntityScanner.tick();
+        }
+
+        if (structureScanner != null) {
+            boolean wasEnabled = structureScanner.isEnabled();
+            structureScanner.setEnabled(config.isStructureScanEnabled());
+            if (structureScanner.isEnabled() && !wasEnabled && blockScanner != null && viewerPos != null) {
+                // 启用后重新扫描已加载区块，让结构扫描器看到已有的区块段
+                blockScanner.rescanLoadedChunks(world, BlockPos.ofFloored(viewerPos), config.getScanRadiusChunks());
+            }
+            structureScanner.tick();
+        }
+    }
+
+    /**
+     * 追踪器被清空后（如切换预设），重新发布事件驱动扫描器和结构扫描器持有的目标
+     * 这些目标不会被重新扫描，否则会从追踪器中消失
+     */
+    public void republishTrackedTargets() {
+        TargetTracker tracker = core.getTargetTracker();
+        if (tracker == null) {
+            return;
+        }
+        if (entityScanner != null) {
+            entityScanner.getTrackedTargets().forEach(tracker::addOrUpdateTarget);
+        }
+        if (blockEntityScanner != null) {
+            blockEntityScanner.getTrackedTargets().forEach(tracker::addOrUpdateTarget);
+        }
+        if (structureScanner != null) {
+            structureScanner.getTrackedTargets().forEach(tracker::addOrUpdateTarget);
+        }
+    }
+
     /**
      * 获取指定类型的扫描器
      *
@@ -232,6 +365,33 @@ public class ScannerManager {
         return blockScanner;
     }
 
+    /**
+     * 获取实体扫描器
+     *
+     * @return 实体扫描器实例
+     */
+    public EntityEventScanner getEntityScanner() {
+        return entityScanner;
+    }
+
+    /**
+     * 获取结构扫描器
+     *
+     * @return 结构扫描器实例
+     */
+    public StructureScanner getStructureScanner() {
+        return structureScanner;
+    }
+
+    /**
+     * 获取方块实体扫描器
+     *
+     * @return 方块实体扫描器实例
+     */
+    public BlockEntityScanner getBlockEntityScanner() {
+        return blockEntityScanner;
+    }
+
     /**
      * 设置方块扫描器的目标方块
      *
@@ -264,7 +424,11 @@ public class ScannerManager {
      * @return 扫描器集合
      */
     public Collection<Scanner<?>> getAllScanners() {
-        return scanners.values();
+        List<Scanner<?>> all = new ArrayList<>(scanners.values());
+        if (blockEntityScanner != null) {
+            all.add(blockEntityScanner);
+        }
+        return all;
     }
 
     /**
@@ -277,6 +441,18 @@ public class ScannerManager {
             blockScanner.shutdown();
         }
 
+        if (entityScanner != null) {
+            entityScanner.shutdown();
+        }
+
+        if (blockEntityScanner != null) {
+            blockEntityScanner.shutdown();
+        }
+
+        if (structureScanner != null) {
+            structureScanner.shutdown();
+        }
+
         scanners.clear();
         VoxelPtr.LOGGER.info("扫描器已全部关闭");
     }
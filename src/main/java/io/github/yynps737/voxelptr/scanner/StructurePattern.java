@@ -0,0 +1,145 @@
+package io.github.yynps737.voxelptr.scanner;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * 结构特征图案
+ * 由一种或多种锚点方块和可选的伴随方块组成，用于在区块扫描时识别结构
+ *
+ * - 锚点方块：结构中罕见且必然存在的方块（如刷怪笼），用于区块段调色板预过滤
+ * - 伴随方块：锚点周围 companionRadius 格内至少存在一个才算匹配（如地牢的苔石）
+ * - 合并半径：同一图案的锚点相距不超过该值时归为同一个结构（如末地传送门的 12 个框架）
+ */
+public final class StructurePattern {
+
+    /**
+     * 地牢：刷怪笼 + 周围的苔石
+     */
+    public static final StructurePattern DUNGEON = new StructurePattern(
+            "dungeon", 0xFFAA00FF,
+            Set.of(Blocks.SPAWNER),
+            Set.of(Blocks.MOSSY_COBBLESTONE), 4,
+            0);
+
+    /**
+     * 末地传送门：末地传送门框架（每个传送门 12 个，合并为一个结构）
+     */
+    public static final StructurePattern END_PORTAL = new StructurePattern(
+            "end_portal", 0xFF2E8B57,
+            Set.of(Blocks.END_PORTAL_FRAME),
+            Set.of(), 0,
+            6);
+
+    /**
+     * 试炼密室：试炼刷怪笼（分布在相邻的房间中，合并为一个结构）
+     */
+    public static final StructurePattern TRIAL_CHAMBER = new StructurePattern(
+            "trial_chamber", 0xFFB87333,
+            Set.of(Blocks.TRIAL_SPAWNER),
+            Set.of(), 0,
+            24);
+
+    /**
+     * 默认启用的所有图案
+     */
+    public static final List<StructurePattern> DEFAULTS = List.of(DUNGEON, END_PORTAL, TRIAL_CHAMBER);
+
+    private final String id;
+    private final int color;
+    private final Set<Block> anchorBlocks;
+    private final Set<Block> companionBlocks;
+    private final int companionRadius;
+    private final int mergeRadius;
+
+    /**
+     * 预编译的调色板过滤器（区块段不含锚点方块时整段跳过）
+     */
+    private final Predicate<BlockState> anchorFilter;
+
+    /**
+     * 构造函数
+     *
+     * @param id 图案 ID（用于翻译键 target.voxelptr.structure.&lt;id&gt;）
+     * @param color 渲染颜色（ARGB）
+     * @param anchorBlocks 锚点方块
+     * @param companionBlocks 伴随方块（为空表示不需要）
+     * @param companionRadius 伴随方块搜索半径（格）
+     * @param mergeRadius 锚点合并半径（格），0 表示每个锚点单独成为一个结构
+     */
+    public StructurePattern(String id, int color, Set<Block> anchorBlocks,
+                            Set<Block> companionBlocks, int companionRadius, int mergeRadius) {
+        this.id = id;
+        this.color = color;
+        this.anchorBlocks = Set.copyOf(anchorBlocks);
+        this.companionBlocks = Set.copyOf(companionBlocks);
+        this.companionRadius = companionRadius;
+        this.mergeRadius = mergeRadius;
+        this.anchorFilter = state -> this.anchorBlocks.contains(state.getBlock());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 获取显示名称的翻译键
+     */
+    public String getTranslationKey() {
+        return "target.voxelptr.structure." + id;
+    }
+
+    public int getColor() {
+        return color;
+    }
+
+    public Set<Block> getAnchorBlocks() {
+        return anchorBlocks;
+    }
+
+    /**
+     * 检查方块是否为锚点
+     */
+    public boolean isAnchor(BlockState state) {
+        return anchorBlocks.contains(state.getBlock());
+    }
+
+    /**
+     * 获取预编译的调色板过滤器
+     */
+    public Predicate<BlockState> getAnchorFilter() {
+        return anchorFilter;
+    }
+
+    /**
+     * 是否需要检查伴随方块
+     */
+    public boolean requiresCompanion() {
+        return !companionBlocks.isEmpty() && companionRadius > 0;
+    }
+
+    /**
+     * 检查方块是否为伴随方块
+     */
+    public boolean isCompanion(BlockState state) {
+        return companionBlocks.contains(state.getBlock());
+    }
+
+    public int getCompanionRadius() {
+        return companionRadius;
+    }
+
+    public int getMergeRadius() {
+        return mergeRadius;
+    }
+
+    @Override
+    public String toString() {
+        return "StructurePattern{" + id + "}";
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.yynps737.voxelptr.scanner;
+
+import io.github.yynps737.voxelptr.target.Target;
+
+/**
+ * 目标变化监听器
+ * 事件驱动的扫描器（实体、方块实体）通过它把单个目标的增删同步到追踪器
+ *
+ * @param <T> 目标类型
+ */
+public interface TargetChangeListener<T extends Target> {
+
+    /**
+     * 发现新目标
+     *
+     * @param target 新目标
+     */
+    void onTargetAdded(T target);
+
+    /**
+     * 目标消失（卸载、被破坏等）
+     *
+     * @param target 消失的目标
+     */
+    void onTargetRemoved(T target);
+}
@@ -0,0 +1,379 @@
+package io.github.yynps737.voxelptr.scanner;
+
+import io.github.yynps737.voxelptr.target.types.BlockTarget;
+import io.github.yynps737.voxelptr.target.types.VeinTarget;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 矿脉聚类器
+ * 将面相邻或棱相邻的目标方块合并为矿脉（VeinTarget）
+ *
+ * 核心算法：基于打包坐标（BlockPos.asLong）的并查集
+ * - 区块扫描完成时，只对新方块和受影响的旧矿脉重新聚类
+ * - 跨区块边界的矿脉会自动合并（全局坐标索引）
+ * - 方块被挖掉时，只重新聚类它所在的矿脉（可能分裂成多个）
+ *
+ * 线程安全：所有修改在同一把锁内完成，变化监听器也在锁内调用，
+ * 因此多个扫描线程和客户端线程并发修改时，变化按聚类顺序到达追踪器
+ */
+public class VeinClusterer {
+
+    /**
+     * 聚类结果变化
+     * removed 中的矿脉已失效，应从追踪器中移除；added 中的矿脉是新生成的
+     */
+    public static final class Changes {
+
+        public static final Changes NONE = new Changes(Collections.emptyList(), Collections.emptyList());
+
+        private final List<VeinTarget> added;
+        private final List<VeinTarget> removed;
+
+        Changes(List<VeinTarget> added, List<VeinTarget> removed) {
+            this.added = added;
+            this.removed = removed;
+        }
+
+        public List<VeinTarget> getAdded() {
+            return added;
+        }
+
+        public List<VeinTarget> getRemoved() {
+            return removed;
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    /**
+     * 相邻偏移：6 个面相邻 + 12 个棱相邻
+     */
+    private static final int[][] NEIGHBOR_OFFSETS = buildNeighborOffsets();
+
+    /**
+     * 所有目标方块（Key: 打包坐标）
+     */
+    private final Long2ObjectOpenHashMap<BlockTarget> blocks = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * 方块所属矿脉（Key: 打包坐标）
+     */
+    private final Long2ObjectOpenHashMap<VeinTarget> veinByBlock = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * 每个区块包含的方块（Key: ChunkPos.toLong()），用于区块重新扫描时替换旧结果
+     */
+    private final Long2ObjectOpenHashMap<LongOpenHashSet> blocksByChunk = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * 矿脉变化监听器（在聚类器的锁内调用，不能再调用聚类器以外的阻塞操作）
+     */
+    private volatile Consumer<Changes> changeListener;
+
+    private static int[][] buildNeighborOffsets() {
+        List<int[]> offsets = new ArrayList<>();
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    int manhattan = Math.abs(dx) + Math.abs(dy) + Math.abs(dz);
+                    if (manhattan == 1 || manhattan == 2) {
+                        offsets.add(new int[]{dx, dy, dz});
+                    }
+                }
+            }
+        }
+        return offsets.toArray(new int[0][]);
+    }
+
+    /**
+     * 设置矿脉变化监听器
+     * 每次修改产生的非空变化都会在锁内、按发生顺序通知监听器；
+     * 如果在锁外转发返回值，先算出的变化可能后到达追踪器（已失效的矿脉会残留）
+     *
+     * @param listener 监听器，null 表示不通知
+     */
+    public void setChangeListener(Consumer<Changes> listener) {
+        this.changeListener = listener;
+    }
+
+    /**
+     * 用新的扫描结果替换某个区块的全部方块
+     *
+     * @param chunkPos 区块坐标
+     * @param hits 该区块扫描到的目标方块
+     * @return 矿脉变化
+     */
+    public synchronized Changes replaceChunk(ChunkPos chunkPos, List<BlockTarget> hits) {
+        return publish(replaceChunkLocked(chunkPos, hits));
+    }
+
+    private Changes replaceChunkLocked(ChunkPos chunkPos, List<BlockTarget> hits) {
+        LongOpenHashSet oldPositions = blocksByChunk.remove(chunkPos.toLong());
+        if ((oldPositions == null || oldPositions.isEmpty()) && hits.isEmpty()) {
+            return Changes.NONE;
+        }
+
+        Set<VeinTarget> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (oldPositions != null) {
+            for (long packed : oldPositions) {
+                detachBlock(packed, affected);
+            }
+        }
+
+        LongArrayList seeds = new LongArrayList(hits.size());
+        for (BlockTarget hit : hits) {
+            long packed = hit.getBlockPos().asLong();
+            if (attachBlock(packed, hit)) {
+                seeds.add(packed);
+            }
+        }
+
+        return recluster(seeds, affected);
+    }
+
+    /**
+     * 释放已移出扫描缓存的区块（LRU 淘汰或失效）
+     * 在聚类器的锁内检查区块是否已被重新缓存：并发的重新扫描会在之后用新结果调用 replaceChunk，此时不能清空
+     *
+     * @param chunkPos 区块坐标
+     * @param stillCached 检查区块当前是否仍在扫描缓存中
+     * @return 矿脉变化（失效的矿脉）
+     */
+    public synchronized Changes releaseChunk(ChunkPos chunkPos, Predicate<ChunkPos> stillCached) {
+        if (!blocksByChunk.containsKey(chunkPos.toLong()) || stillCached.test(chunkPos)) {
+            return Changes.NONE;
+        }
+        return publish(replaceChunkLocked(chunkPos, Collections.emptyList()));
+    }
+
+    /**
+     * 添加单个目标方块（方块更新事件）
+     *
+     * @param hit 新目标方块
+     * @return 矿脉变化
+     */
+    public synchronized Changes addBlock(BlockTarget hit) {
+        long packed = hit.getBlockPos().asLong();
+        Set<VeinTarget> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+        detachBlock(packed, affected); // 同一位置已有旧方块时先替换
+        attachBlock(packed, hit);
+
+        LongArrayList seeds = new LongArrayList(1);
+        seeds.add(packed);
+        return publish(recluster(seeds, affected));
+    }
+
+    /**
+     * 移除单个方块（方块更新事件，如被挖掉）
+     *
+     * @param pos 方块坐标
+     * @return 矿脉变化
+     */
+    public synchronized Changes removeBlock(BlockPos pos) {
+        long packed = pos.asLong();
+        if (!blocks.containsKey(packed)) {
+            return Changes.NONE;
+        }
+
+        Set<VeinTarget> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+        detachBlock(packed, affected);
+        return publish(recluster(new LongArrayList(), affected));
+    }
+
+    /**
+     * 从索引中移除方块，并记录其所属矿脉
+     */
+    private void detachBlock(long packed, Set<VeinTarget> affected) {
+        if (blocks.remove(packed) == null) {
+            return;
+        }
+        VeinTarget vein = veinByBlock.remove(packed);
+        if (vein != null) {
+            affected.add(vein);
+        }
+        LongOpenHashSet chunkBlocks = blocksByChunk.get(chunkKey(packed));
+        if (chunkBlocks != null) {
+            chunkBlocks.remove(packed);
+            if (chunkBlocks.isEmpty()) {
+                blocksByChunk.remove(chunkKey(packed));
+            }
+        }
+    }
+
+    /**
+     * 将方块加入索引
+     *
+     * @return true 如果是新位置
+     */
+    private boolean attachBlock(long packed, BlockTarget hit) {
+        if (blocks.put(packed, hit) != null) {
+            return false;
+        }
+        blocksByChunk.computeIfAbsent(chunkKey(packed), k -> new LongOpenHashSet()).add(packed);
+        return true;
+    }
+
+    /**
+     * 对新方块和受影响矿脉的剩余成员重新聚类（并查集）
+     *
+     * @param seeds 新加入的方块
+     * @param affected 受影响（将被替换）的旧矿脉
+     * @return 矿脉变化
+     */
+    private Changes recluster(LongArrayList seeds, Set<VeinTarget> affected) {
+        // 1. 新方块接触到的已有矿脉也需要重新聚类（包括跨区块边界的矿脉）
+        for (int i = 0, n = seeds.size(); i < n; i++) {
+            long packed = seeds.getLong(i);
+            for (int[] offset : NEIGHBOR_OFFSETS) {
+                VeinTarget neighborVein = veinByBlock.get(BlockPos.add(packed, offset[0], offset[1], offset[2]));
+                if (neighborVein != null) {
+                    affected.add(neighborVein);
+                }
+            }
+        }
+
+        // 2. 受影响矿脉中仍然存在的方块加入种子
+        for (VeinTarget vein : affected) {
+            for (BlockTarget member : vein.getBlocks()) {
+                long packed = member.getBlockPos().asLong();
+                if (veinByBlock.get(packed) == vein) {
+                    veinByBlock.remove(packed);
+                    seeds.add(packed);
+                }
+            }
+        }
+
+        if (seeds.isEmpty() && affected.isEmpty()) {
+            return Changes.NONE;
+        }
+
+        // 3. 并查集合并相邻方块
+        int count = seeds.size();
+        Long2IntOpenHashMap indexOf = new Long2IntOpenHashMap(count);
+        indexOf.defaultReturnValue(-1);
+        for (int i = 0; i < count; i++) {
+            indexOf.put(seeds.getLong(i), i);
+        }
+
+        int[] parent = new int[count];
+        for (int i = 0; i < count; i++) {
+            parent[i] = i;
+        }
+        for (int i = 0; i < count; i++) {
+            long packed = seeds.getLong(i);
+            for (int[] offset : NEIGHBOR_OFFSETS) {
+                int j = indexOf.get(BlockPos.add(packed, offset[0], offset[1], offset[2]));
+                if (j >= 0) {
+                    union(parent, i, j);
+                }
+            }
+        }
+
+        // 4. 按根节点分组生成新矿脉
+        Map<Integer, List<BlockTarget>> groups = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            groups.computeIfAbsent(find(parent, i), k -> new ArrayList<>())
+                    .add(blocks.get(seeds.getLong(i)));
+        }
+
+        List<VeinTarget> added = new ArrayList<>(groups.size());
+        for (List<BlockTarget> members : groups.values()) {
+            VeinTarget vein = new VeinTarget(members);
+            for (BlockTarget member : members) {
+                veinByBlock.put(member.getBlockPos().asLong(), vein);
+            }
+            added.add(vein);
+        }
+
+        return new Changes(added, new ArrayList<>(affected));
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]]; // 路径压缩
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[rootA] = rootB;
+        }
+    }
+
+    private static long chunkKey(long packedBlockPos) {
+        return ChunkPos.toLong(BlockPos.unpackLongX(packedBlockPos) >> 4, BlockPos.unpackLongZ(packedBlockPos) >> 4);
+    }
+
+    /**
+     * 获取当前所有矿脉（去重）
+     *
+     * @return 矿脉列表
+     */
+    public synchronized List<VeinTarget> getVeins() {
+        Set<VeinTarget> veins = Collections.newSetFromMap(new IdentityHashMap<>());
+        veins.addAll(veinByBlock.values());
+        return new ArrayList<>(veins);
+    }
+
+    /**
+     * 获取索引中的方块总数
+     */
+    public synchronized int getBlockCount() {
+        return blocks.size();
+    }
+
+    /**
+     * 清空所有矿脉，并返回被清除的矿脉（供追踪器同步移除）
+     *
+     * @return 矿脉变化（全部矿脉失效）
+     */
+    public synchronized Changes removeAll() {
+        if (blocks.isEmpty()) {
+            return Changes.NONE;
+        }
+        Changes changes = new Changes(Collections.emptyList(), getVeins());
+        clear();
+        return publish(changes);
+    }
+
+    /**
+     * 在锁内通知监听器（调用方必须持有锁）
+     */
+    private Changes publish(Changes changes) {
+        Consumer<Changes> listener = changeListener;
+        if (listener != null && !changes.isEmpty()) {
+            listener.accept(changes);
+        }
+        return changes;
+    }
+
+    /**
+     * 清空所有矿脉
+     */
+    public synchronized void clear() {
+        blocks.clear();
+        veinByBlock.clear();
+        blocksByChunk.clear();
+    }
+}
@@ -0,0 +1,265 @@
+package io.github.yynps737.voxelptr.scanner.impl;
+
+import io.github.yynps737.voxelptr.VoxelPtr;
+import io.github.yynps737.voxelptr.scanner.Scanner;
+import io.github.yynps737.voxelptr.scanner.TargetChangeListener;
+import io.github.yynps737.voxelptr.target.TargetType;
+import io.github.yynps737.voxelptr.target.types.BlockEntityTarget;
+import io.github.yynps737.voxelptr.target.types.BlockTarget;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.block.entity.BlockEntityType;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 方块实体扫描器
+ * 用于刷怪笼、箱子等方块实体目标
+ *
+ * 核心优化策略：
+ * - 区块加载时只读取 WorldChunk.getBlockEntities()（通常只有几个条目），不遍历 98k 个方块状态
+ * - 方块实体的放置、移除以及区块加载由 Fabric 方块实体事件增量更新（区块加载时同样触发，不再单独读取区块）
+ * - 目标按方块实体类型验证，方块状态变化（大箱子、熔炉点燃等）不会使目标失效
+ * - 结果通过常规的 TargetTracker 路径显示
+ *
+ * 线程模型：所有方法都在客户端主线程调用
+ */
+public class BlockEntityScanner implements Scanner<BlockTarget> {
+
+    /**
+     * 要追踪的方块实体类型
+     */
+    private final Set<BlockEntityType<?>> targetTypes = new HashSet<>();
+
+    /**
+     * 当前配置的类型 ID（用于检测配置变化）
+     */
+    private List<String> targetTypeIds = List.of();
+
+    /**
+     * 已发现的目标（Key: 打包坐标）
+     */
+    private final Long2ObjectOpenHashMap<BlockTarget> targetsByPos = new Long2ObjectOpenHashMap<>();
+
+    private boolean enabled;
+
+    private TargetChangeListener<BlockTarget> callback;
+
+    public BlockEntityScanner() {
+        this.enabled = false; // 默认关闭，由配置启用
+    }
+
+    /**
+     * 设置目标变化回调
+     *
+     * @param callback 回调函数
+     */
+    public void setTargetChangeCallback(TargetChangeListener<BlockTarget> callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * 设置要追踪的方块实体类型
+     *
+     * @param typeIds 方块实体类型 ID（如 minecraft:spawner）
+     * @return true 如果类型发生变化（已清空旧目标，需要重新扫描）
+     */
+    public boolean setTargetTypes(List<String> typeIds) {
+        if (targetTypeIds.equals(typeIds)) {
+            return false; // 未变化，跳过
+        }
+
+        targetTypeIds = List.copyOf(typeIds);
+        targetTypes.clear();
+        for (String id : typeIds) {
+            Identifier identifier = Identifier.tryParse(id);
+            BlockEntityType<?> type = identifier != null ? Registries.BLOCK_ENTITY_TYPE.get(identifier) : null;
+            if (type != null) {
+                targetTypes.add(type);
+            } else {
+                VoxelPtr.LOGGER.warn("未知的方块实体类型: {}", id);
+            }
+        }
+        clear();
+        return true;
+    }
+
+    /**
+     * 读取区块的方块实体映射（启用扫描器或修改类型后补读已加载的区块）
+     * 正常的区块加载由方块实体加载事件覆盖，不需要调用
+     *
+     * @param chunk 已加载的区块
+     */
+    public void onChunkLoad(WorldChunk chunk) {
+        if (!enabled || targetTypes.isEmpty()) {
+            return;
+        }
+
+        for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+            onBlockEntityLoad(blockEntity);
+        }
+    }
+
+    /**
+     * 处理方块实体加载（放置）事件
+     *
+     * @param blockEntity 方块实体
+     */
+    public void onBlockEntityLoad(BlockEntity blockEntity) {
+        if (!enabled || !targetTypes.contains(blockEntity.getType())) {
+            return;
+        }
+
+        long key = blockEntity.getPos().asLong();
+        if (targetsByPos.containsKey(key)) {
+            return; // 补读已加载区块时可能与事件重复
+        }
+
+        BlockTarget target = new BlockEntityTarget(blockEntity.getPos(), blockEntity.getCachedState(),
+                blockEntity.getType());
+        targetsByPos.put(key, target);
+        if (callback != null) {
+            callback.onTargetAdded(target);
+        }
+    }
+
+    /**
+     * 处理方块实体卸载（移除）事件
+     *
+     * @param blockEntity 方块实体
+     */
+    public void onBlockEntityUnload(BlockEntity blockEntity) {
+        BlockTarget target = targetsByPos.remove(blockEntity.getPos().asLong());
+        if (target != null && callback != null) {
+            callback.onTargetRemoved(target);
+        }
+    }
+
+    /**
+     * 重新读取已加载区块的方块实体
+     * 用于启用扫描器或修改类型后
+     *
+     * @param world 当前世界
+     * @param centerPos 中心位置（通常是玩家位置）
+     * @param radiusChunks 半径（区块）
+     */
+    public void rescanLoadedChunks(World world, BlockPos centerPos, int radiusChunks) {
+        if (!enabled || world == null || centerPos == null) {
+            return;
+        }
+
+        int centerChunkX = centerPos.getX() >> 4;
+        int centerChunkZ = centerPos.getZ() >> 4;
+        for (int x = -radiusChunks; x <= radiusChunks; x++) {
+            for (int z = -radiusChunks; z <= radiusChunks; z++) {
+                if (world.isChunkLoaded(centerChunkX + x, centerChunkZ + z)) {
+                    onChunkLoad((WorldChunk) world.getChunk(centerChunkX + x, centerChunkZ + z));
+                }
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<BlockTarget>> scanAsync(World world, BlockPos center, int radiusChunks) {
+        // 只读取索引，直接同步完成
+        return CompletableFuture.completedFuture(scanSync(world, center, radiusChunks));
+    }
+
+    @Override
+    public List<BlockTarget> scanSync(World world, BlockPos center, int radiusChunks) {
+        List<BlockTarget> result = new ArrayList<>();
+        if (!enabled) {
+            return result;
+        }
+
+        ChunkPos centerChunk = new ChunkPos(center);
+        for (BlockTarget target : targetsByPos.values()) {
+            ChunkPos chunkPos = new ChunkPos(target.getBlockPos());
+            if (Math.abs(chunkPos.x - centerChunk.x) <= radiusChunks
+                    && Math.abs(chunkPos.z - centerChunk.z) <= radiusChunks) {
+                result.add(target);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public TargetType getTargetType() {
+        return TargetType.BLOCK;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) {
+            return;
+        }
+
+        this.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * 每 tick 调用：刷新目标的最后发现时间
+     * 方块实体目标由事件管理生命周期，不应被追踪器按过期时间清理
+     */
+    public void tick() {
+        for (BlockTarget target : targetsByPos.values()) {
+            target.updateLastSeen();
+        }
+    }
+
+    /**
+     * 获取已发现的所有目标
+     *
+     * @return 目标集合（只读视图）
+     */
+    public Collection<BlockTarget> getTrackedTargets() {
+        return Collections.unmodifiableCollection(targetsByPos.values());
+    }
+
+    /**
+     * 获取已发现的目标数量
+     */
+    public int getTrackedCount() {
+        return targetsByPos.size();
+    }
+
+    /**
+     * 清空所有目标（通知回调移除）
+     */
+    public void clear() {
+        if (callback != null) {
+            for (BlockTarget target : targetsByPos.values()) {
+                callback.onTargetRemoved(target);
+            }
+        }
+        targetsByPos.clear();
+    }
+
+    /**
+     * 关闭扫描器，释放资源
+     */
+    public void shutdown() {
+        clear();
+        VoxelPtr.LOGGER.info("BlockEntityScanner 已关闭");
+    }
+}
@@ -1,32 +1,47 @@
 package io.github.yynps737.voxelptr.scanner.impl;
 
 import io.github.yynps737.voxelptr.VoxelPtr;
+import io.github.yynps737.voxelptr.metrics.ChunkScanEvent;
+import io.github.yynps737.voxelptr.metrics.MetricsRegistry;
 import io.github.yynps737.voxelptr.scanner.ChunkScanCache;
 import io.github.yynps737.voxelptr.scanner.Scanner;
+import io.github.yynps737.voxelptr.scanner.VeinClusterer;
 import io.github.yynps737.voxelptr.target.TargetType;
 import io.github.yynps737.voxelptr.target.types.BlockTarget;
+import io.github.yynps737.voxelptr.target.types.VeinTarget;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
 import net.minecraft.world.chunk.WorldChunk;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 基于区块事件的扫描器
  *
  * 核心优化策略：
- * - 每个区块只扫描一次（区块加载时）
+ * - 每个区块段只扫描一次（区块加载时，或进入距离过滤范围时）
  * - 结果缓存到 ChunkScanCache
  * - 异步执行，不阻塞主线程
  * - 查询时从缓存获取，极快
+ * - 扫描结果经 VeinClusterer 聚类为矿脉后再通知追踪器
+ * - 同一次扫描任务中把区块段数据交给 StructureScanner 识别结构
  */
 public class ChunkEventScanner implements Scanner<BlockTarget> {
 
@@ -34,7 +49,53 @@ public class ChunkEventScanner implements Scanner<BlockTarget> {
      * 扫描完成回调接口
      */
     public interface ScanCompleteCallback {
-        void onScanComplete(List<BlockTarget> targets);
+        /**
+         * @param added 新生成的矿脉
+         * @param removed 已失效的矿脉（被合并、分裂或挖空）
+         */
+        void onScanComplete(List<VeinTarget> added, List<VeinTarget> removed);
+    }
+
+    /**
+     * 正在执行的扫描任务，以及执行期间合并进来的后续请求
+     * 字段只在 pendingScans 的 compute / remove 中访问（同一个键的操作是原子的）
+     */
+    private static final class PendingScan {
+        int bottomSectionCoord;
+        ChunkSection[] sections;
+        String reason;
+        long followUpMask;
+        boolean followUpForced;
+        CompletableFuture<Void> followUpDone;
+
+        /**
+         * 合并一个后续请求（使用最新的区块段数据）
+         */
+        void merge(int bottomSectionCoord, ChunkSection[] sections, long sectionMask,
+                                      boolean force, String reason) {
+            this.bottomSectionCoord = bottomSectionCoord;
+            this.sections = sections;
+            this.reason = reason;
+            this.followUpMask |= sectionMask;
+            this.followUpForced |= force;
+            if (followUpDone == null) {
+                followUpDone = new CompletableFuture<>();
+            }
+        }
+    }
+
+    /**
+     * 已加载区块的区块段查询
+     * 扫描范围更新通过它读取区块，不直接依赖世界（离线重放时由重放器提供）
+     */
+    @FunctionalInterface
+    public interface LoadedSections {
+        /**
+         * @param chunkX 区块 X 坐标
+         * @param chunkZ 区块 Z 坐标
+         * @return 区块段数组（从底部开始），区块未加载时返回 null
+         */
+        ChunkSection[] get(int chunkX, int chunkZ);
     }
 
     /**
@@ -47,6 +108,11 @@ public class ChunkEventScanner implements Scanner<BlockTarget> {
      */
     private final ChunkScanCache cache;
 
+    /**
+     * 矿脉聚类器
+     */
+    private final VeinClusterer veinClusterer;
+
     /**
      * 异步扫描线程池
      */
@@ -58,9 +124,42 @@ public class ChunkEventScanner implements Scanner<BlockTarget> {
     private boolean enabled;
 
     /**
-     * 扫描完成回调
+     * 扫描完成回调（在聚类器的锁内调用，保证矿脉变化按顺序到达）
+     */
+    private volatile ScanCompleteCallback scanCompleteCallback;
+
+    /**
+     * 结构扫描器（可选），在同一个扫描任务中复用区块段数据
+     */
+    private volatile StructureScanner structureScanner;
+
+    /**
+     * 正在扫描的区块（Key: ChunkPos.toLong()），同一区块同时只有一个扫描任务
+     * 任务执行期间的新请求合并为一次后续扫描，任务完成后再提交
+     */
+    private final ConcurrentHashMap<Long, PendingScan> pendingScans = new ConcurrentHashMap<>();
+
+    /**
+     * 扫描范围：观察者位置和最大距离过滤（由 tick 更新）
+     */
+    private volatile Vec3d scanOrigin;
+    private volatile float scanMaxDistance;
+
+    /**
+     * 最近一次范围更新提供的已加载区块查询（结构识别在扫描线程中读取相邻区块）
+     * 客户端的区块表是原子引用数组，与扫描线程读取区块段数组一样可以在扫描线程读取
+     */
+    private volatile LoadedSections loadedSections;
+
+    /**
+     * 上次检查扫描范围时观察者所在的区块段
+     */
+    private long lastOriginSection = Long.MIN_VALUE;
+
+    /**
+     * 上次检查扫描范围时的最大距离过滤（调大后即使观察者没有移动也要补充扫描）
      */
-    private ScanCompleteCallback scanCompleteCallback;
+    private float lastBoundsDistance;
 
     /**
      * 构造函数
@@ -68,13 +167,26 @@ public class ChunkEventScanner implements Scanner<BlockTarget> {
      * @param targetBlocks 要搜索的方块集合（如钻石矿）
      */
     public ChunkEventScanner(Set<Block> targetBlocks) {
-        this.targetBlocks = targetBlocks;
-        this.cache = new ChunkScanCache();
-        this.scanExecutor = Executors.newFixedThreadPool(2, r -> {
+        this(targetBlocks, Executors.newFixedThreadPool(2, r -> {
             Thread thread = new Thread(r, "VoxelPtr-Scanner");
             thread.setDaemon(true); // 守护线程，游戏关闭时自动停止
             return thread;
-        });
+        }));
+    }
+
+    /**
+     * 构造函数（指定扫描线程池，用于重放和基准测试统计扫描延迟）
+     *
+     * @param targetBlocks 要搜索的方块集合
+     * @param scanExecutor 异步扫描线程池（关闭扫描器时一并关闭）
+     */
+    public ChunkEventScanner(Set<Block> targetBlocks, ExecutorService scanExecutor) {
+        this.targetBlocks = targetBlocks;
+        this.cache = new ChunkScanCache();
+        this.veinClusterer = new VeinClusterer();
+        // 在聚类器的锁内转发变化，保证追踪器按聚类顺序收到
+        this.veinClusterer.setChangeListener(this::notifyVeinChanges);
+        this.scanExecutor = scanExecutor;
         this.enabled = true;
     }
 
@@ -88,43 +200,370 @@ public class ChunkEventScanner implements Scanner<BlockTarget> {
     }
 
     /**
-     * 扫描单个区块（核心方法）
+     * 设置结构扫描器
+     * 设置后每次区块扫描都会把同一份区块段数据交给结构扫描器匹配
+     *
+     * @param structureScanner 结构扫描器，null 表示不识别结构
+     */
+    public void setStructureScanner(StructureScanner structureScanner) {
+        this.structureScanner = structureScanner;
+    }
+
+    /**
+     * 扫描单个区块的全部区块段
      *
      * @param chunk 要扫描的区块
      * @return 找到的目标列表
      */
     public List<BlockTarget> scanChunk(WorldChunk chunk) {
+        return scanSections(chunk.getPos(), chunk.getBottomSectionCoord(), chunk.getSectionArray(),
+                ChunkScanCache.ALL_SECTIONS);
+    }
+
+    /**
+     * 扫描指定的区块段（核心方法）
+     *
+     * 性能优化：
+     * - 按区块段遍历，直接读取区块段数据，不再为每个方块创建 BlockPos
+     * - 空区块段和调色板中不含目标方块的区块段整段跳过
+     * - 掩码之外的区块段（超出距离过滤范围）不扫描
+     *
+     * @param chunkPos 区块坐标
+     * @param bottomSectionCoord 最底部区块段的 Y 坐标
+     * @param sections 区块段数组（从底部开始）
+     * @param sectionMask 要扫描的区块段掩码（第 i 位对应 sections[i]）
+     * @return 找到的目标列表
+     */
+    public List<BlockTarget> scanSections(ChunkPos chunkPos, int bottomSectionCoord, ChunkSection[] sections,
+                                          long sectionMask) {
+        ChunkScanEvent event = new ChunkScanEvent();
+        event.begin();
+
         List<BlockTarget> targets = new ArrayList<>();
-        ChunkPos chunkPos = chunk.getPos();
-
-        // 遍历区块的所有方块
-        // 1.21.2+ API: getTopY() 改名为 getTopYInclusive()
-        int minY = chunk.getBottomY();
-        int maxY = chunk.getTopYInclusive();
-
-        for (int x = 0; x < 16; x++) {
-            for (int z = 0; z < 16; z++) {
-                for (int y = minY; y < maxY; y++) {
-                    BlockPos pos = new BlockPos(
-                            chunkPos.getStartX() + x,
-                            y,
-                            chunkPos.getStartZ() + z
-                    );
-
-                    BlockState state = chunk.getBlockState(pos);
-                    Block block = state.getBlock();
-
-                    // 检查是否是目标方块
-                    if (targetBlocks.contains(block)) {
-                        targets.add(new BlockTarget(pos, state));
+        Set<Block> blocks = targetBlocks;
+        int startX = chunkPos.getStartX();
+        int startZ = chunkPos.getStartZ();
+        int scanned = 0;
+        int skipped = 0;
+
+        for (int i = 0; i < sections.length; i++) {
+            if (!isSectionSelected(sectionMask, i)) {
+                continue;
+            }
+
+            ChunkSection section = sections[i];
+            if (section == null || section.isEmpty()) {
+                skipped++;
+                continue;
+            }
+
+            // 调色板预过滤：区块段不含任何目标方块时整段跳过
+            if (!section.hasAny(state -> blocks.contains(state.getBlock()))) {
+                skipped++;
+                continue;
+            }
+
+            scanned++;
+
+            int baseY = (bottomSectionCoord + i) << 4;
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        BlockState state = section.getBlockState(x, y, z);
+
+                        // 检查是否是目标方块
+                        if (blocks.contains(state.getBlock())) {
+                            targets.add(new BlockTarget(new BlockPos(startX + x, baseY + y, startZ + z), state));
+                        }
                     }
                 }
             }
         }
 
+        event.end();
+        if (event.shouldCommit()) {
+            event.chunkX = chunkPos.x;
+            event.chunkZ = chunkPos.z;
+            event.sectionsScanned = scanned;
+            event.sectionsSkipped = skipped;
+            event.hits = targets.size();
+            event.commit();
+        }
+
         return targets;
     }
 
+    private static boolean isSectionSelected(long sectionMask, int index) {
+        return sectionMask == ChunkScanCache.ALL_SECTIONS || (index < 64 && (sectionMask & (1L << index)) != 0);
+    }
+
+    /**
+     * 更新扫描范围（每 tick 调用）
+     * 观察者进入新的区块段时，补扫距离过滤范围内尚未扫描的区块段
+     *
+     * @param world 当前世界
+     * @param origin 观察者位置
+     * @param maxDistance 最大距离过滤（格），小于等于 0 表示不限制
+     */
+    public void updateScanBounds(World world, Vec3d origin, float maxDistance) {
+        LoadedSections loaded = world == null ? null : (chunkX, chunkZ) -> {
+            if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                return null;
+            }
+            WorldChunk chunk = (WorldChunk) world.getChunk(chunkX, chunkZ);
+            return chunk != null ? chunk.getSectionArray() : null;
+        };
+        updateScanBounds(origin, maxDistance, world != null ? world.getBottomSectionCoord() : 0, loaded);
+    }
+
+    /**
+     * 更新扫描范围
+     *
+     * @param origin 观察者位置
+     * @param maxDistance 最大距离过滤（格），小于等于 0 表示不限制
+     * @param bottomSectionCoord 世界最底部区块段的 Y 坐标
+     * @param loaded 已加载区块的区块段查询，为 null 时只记录扫描范围
+     */
+    public void updateScanBounds(Vec3d origin, float maxDistance, int bottomSectionCoord, LoadedSections loaded) {
+        this.scanOrigin = origin;
+        this.scanMaxDistance = maxDistance;
+        this.loadedSections = loaded;
+
+        if (!enabled || loaded == null || origin == null || maxDistance <= 0) {
+            return;
+        }
+
+        // 性能优化：只在观察者跨越区块段或最大距离变化时检查
+        long originSection = ChunkSectionPos.toLong(BlockPos.ofFloored(origin));
+        if (originSection == lastOriginSection && maxDistance == lastBoundsDistance) {
+            return;
+        }
+        lastOriginSection = originSection;
+        lastBoundsDistance = maxDistance;
+
+        int radiusChunks = MathHelper.ceil(maxDistance / 16.0f);
+        int centerChunkX = MathHelper.floor(origin.x) >> 4;
+        int centerChunkZ = MathHelper.floor(origin.z) >> 4;
+
+        for (int x = -radiusChunks; x <= radiusChunks; x++) {
+            for (int z = -radiusChunks; z <= radiusChunks; z++) {
+                int chunkX = centerChunkX + x;
+                int chunkZ = centerChunkZ + z;
+                ChunkSection[] sections = loaded.get(chunkX, chunkZ);
+                if (sections != null) {
+                    submitMissingSections(new ChunkPos(chunkX, chunkZ), bottomSectionCoord, sections, "补充扫描");
+                }
+            }
+        }
+    }
+
+    /**
+     * 计算当前扫描范围需要的区块段掩码
+     * 整个区块在距离过滤球体之外时返回 0
+     *
+     * @param pos 区块坐标
+     * @param bottomSectionCoord 最底部区块段的 Y 坐标
+     * @param sectionCount 区块段数量
+     * @return 区块段掩码
+     */
+    private long getRequiredSections(ChunkPos pos, int bottomSectionCoord, int sectionCount) {
+        Vec3d origin = scanOrigin;
+        float maxDistance = scanMaxDistance;
+        if (origin == null || maxDistance <= 0) {
+            return ChunkScanCache.ALL_SECTIONS;
+        }
+
+        double maxDistanceSq = (double) maxDistance * maxDistance;
+
+        // 1. 区块级剔除：水平最近点已超出范围
+        double dx = axisDistance(origin.x, pos.getStartX());
+        double dz = axisDistance(origin.z, pos.getStartZ());
+        double horizontalSq = dx * dx + dz * dz;
+        if (horizontalSq > maxDistanceSq) {
+            return 0L;
+        }
+
+        if (sectionCount > 64) {
+            return ChunkScanCache.ALL_SECTIONS; // 超高维度不做区块段剔除
+        }
+
+        // 2. 区块段级剔除：区块段包围盒最近点超出范围
+        long mask = 0L;
+        for (int i = 0; i < sectionCount; i++) {
+            double dy = axisDistance(origin.y, (bottomSectionCoord + i) << 4);
+            if (horizontalSq + dy * dy <= maxDistanceSq) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 坐标到 [start, start + 16) 区间的最近距离
+     */
+    private static double axisDistance(double value, int start) {
+        if (value < start) {
+            return start - value;
+        }
+        if (value > start + 16) {
+            return value - (start + 16);
+        }
+        return 0;
+    }
+
+    /**
+     * 提交区块中尚未扫描且在范围内的区块段
+     *
+     * @param pos 区块坐标
+     * @param bottomSectionCoord 最底部区块段的 Y 坐标
+     * @param sections 区块段数组（从底部开始）
+     * @param reason 日志说明
+     */
+    private void submitMissingSections(ChunkPos pos, int bottomSectionCoord, ChunkSection[] sections, String reason) {
+        long missing = getRequiredSections(pos, bottomSectionCoord, sections.length) & ~cache.getScannedSections(pos);
+        if (missing == 0L) {
+            return; // 已扫描过或不在范围内，跳过
+        }
+        submitScan(pos, bottomSectionCoord, sections, missing, false, reason);
+    }
+
+    /**
+     * 异步扫描区块的指定区块段，合并到缓存并聚类
+     * 同一区块已有扫描任务在执行时，请求合并为该任务完成后的一次后续扫描，不会丢失
+     *
+     * @param pos 区块坐标
+     * @param bottomSectionCoord 最底部区块段的 Y 坐标
+     * @param sections 区块段数组（从底部开始）
+     * @param sectionMask 区块段掩码
+     * @param force 是否强制扫描（false 时后续扫描跳过届时已缓存的区块段）
+     * @param reason 日志说明
+     * @return 请求的区块段扫描完成时完成的 Future
+     */
+    private CompletableFuture<Void> submitScan(ChunkPos pos, int bottomSectionCoord, ChunkSection[] sections,
+                                               long sectionMask, boolean force, String reason) {
+        long key = pos.toLong();
+        PendingScan started = new PendingScan();
+        PendingScan current = pendingScans.compute(key, (k, pending) -> {
+            if (pending == null) {
+                return started;
+            }
+            pending.merge(bottomSectionCoord, sections, sectionMask, force, reason);
+            return pending;
+        });
+        if (current != started) {
+            return current.followUpDone; // 当前任务完成后提交
+        }
+
+        long submitted = System.nanoTime();
+        MetricsRegistry.SCANS_SUBMITTED.increment();
+        try {
+            return CompletableFuture.runAsync(() -> scanAndMerge(pos, bottomSectionCoord, sections, sectionMask,
+                    reason, submitted), scanExecutor);
+        } catch (RejectedExecutionException e) {
+            // 扫描器已关闭：撤销登记，否则该区块之后的请求都会被当作后续扫描挂起
+            MetricsRegistry.SCANS_SUBMITTED.decrement();
+            pendingScans.remove(key);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * 扫描任务：扫描区块段，合并到缓存、聚类并识别结构，最后提交期间合并进来的后续扫描
+     */
+    private void scanAndMerge(ChunkPos pos, int bottomSectionCoord, ChunkSection[] sections, long sectionMask,
+                              String reason, long submitted) {
+        try {
+            List<BlockTarget> found = scanSections(pos, bottomSectionCoord, sections, sectionMask);
+            List<BlockTarget> targets = cache.mergeSections(pos, bottomSectionCoord, sectionMask, found);
+
+            if (!found.isEmpty()) {
+                VoxelPtr.LOGGER.info("区块 {} {}完成，找到 {} 个目标",
+                        pos, reason, found.size());
+            }
+
+            // 聚类为矿脉（变化由监听器通知追踪器）
+            veinClusterer.replaceChunk(pos, targets);
+
+            // 合并可能淘汰了其他区块，同步释放它们的矿脉
+            releaseEvictedChunks();
+
+            // 结构识别复用同一份区块段数据（伴随方块跨区块边界时读取相邻区块）
+            StructureScanner structures = structureScanner;
+            if (structures != null && structures.isEnabled()) {
+                LoadedSections loaded = loadedSections;
+                structures.replaceSections(pos, bottomSectionCoord, sectionMask,
+                        structures.matchSections(pos, bottomSectionCoord, sections, sectionMask, loaded));
+                rematchDeferred(structures, pos, bottomSectionCoord, loaded);
+            }
+        } catch (Exception e) {
+            VoxelPtr.LOGGER.error("{}区块 {} 时出错", reason, pos, e);
+        } finally {
+            MetricsRegistry.SCAN_LATENCY.record(System.nanoTime() - submitted);
+            MetricsRegistry.CHUNKS_SCANNED.increment();
+            submitFollowUp(pos, pendingScans.remove(pos.toLong()));
+        }
+    }
+
+    /**
+     * 重新匹配等待该区块加载的推迟锚点所在的区块段（只做结构识别，不重新扫描矿物）
+     *
+     * @param structures 结构扫描器
+     * @param pos 刚扫描的区块
+     * @param bottomSectionCoord 最底部区块段的 Y 坐标
+     * @param loaded 已加载区块的区块段查询
+     */
+    private void rematchDeferred(StructureScanner structures, ChunkPos pos, int bottomSectionCoord,
+                                 LoadedSections loaded) {
+        LongOpenHashSet deferred = structures.takeDeferred(pos);
+        if (deferred == null || loaded == null) {
+            return;
+        }
+
+        // 按锚点所在区块汇总区块段掩码
+        Long2LongOpenHashMap masks = new Long2LongOpenHashMap();
+        for (long packed : deferred) {
+            long chunkKey = ChunkPos.toLong(BlockPos.unpackLongX(packed) >> 4, BlockPos.unpackLongZ(packed) >> 4);
+            int index = (BlockPos.unpackLongY(packed) >> 4) - bottomSectionCoord;
+            if (index >= 0 && index < 64) {
+                masks.put(chunkKey, masks.get(chunkKey) | (1L << index));
+            }
+        }
+        for (Long2LongMap.Entry entry : masks.long2LongEntrySet()) {
+            ChunkPos anchorChunk = new ChunkPos(entry.getLongKey());
+            ChunkSection[] anchorSections = loaded.get(anchorChunk.x, anchorChunk.z);
+            if (anchorSections != null) {
+                structures.replaceSections(anchorChunk, bottomSectionCoord, entry.getLongValue(),
+                        structures.matchSections(anchorChunk, bottomSectionCoord, anchorSections,
+                                entry.getLongValue(), loaded));
+            }
+        }
+    }
+
+    /**
+     * 提交任务执行期间合并进来的后续扫描
+     *
+     * @param pos 区块坐标
+     * @param finished 刚完成的任务
+     */
+    private void submitFollowUp(ChunkPos pos, PendingScan finished) {
+        if (finished == null || finished.followUpDone == null) {
+            return;
+        }
+
+        long mask = finished.followUpMask;
+        if (!finished.followUpForced) {
+            mask &= ~cache.getScannedSections(pos); // 刚完成的任务可能已覆盖这些区块段
+        }
+        if (mask == 0L || !enabled) {
+            finished.followUpDone.complete(null);
+            return;
+        }
+
+        CompletableFuture<Void> done = finished.followUpDone;
+        submitScan(pos, finished.bottomSectionCoord, finished.sections, mask, finished.followUpForced,
+                finished.reason).whenComplete((result, error) -> done.complete(null));
+    }
+
     /**
      * 异步扫描（从缓存获取）
      * 注意：这个方法假设区块已经被扫描过并缓存
@@ -168,7 +607,8 @@ public class ChunkEventScanner implements Scanner<BlockTarget> {
                 );
 
                 // 从缓存获取该区块的目标
-                List<BlockTarget> chunkTargets = cache.get(chunkPos);
+                // 复制一份：缓存条目会被扫描线程原地修改
+                List<BlockTarget> chunkTargets = cache.copyTargets(chunkPos);
                 if (chunkTargets != null) {
                     allTargets.addAll(chunkTargets);
                 }
@@ -185,36 +625,34 @@ public class ChunkEventScanner implements Scanner<BlockTarget> {
      * @param chunk 加载的区块
      */
     public void onChunkLoad(WorldChunk chunk) {
+        onSectionsLoaded(chunk.getPos(), chunk.getBottomSectionCoord(), chunk.getSectionArray());
+    }
+
+    /**
+     * 处理区块加载事件（直接传入区块段数据，离线重放时使用）
+     *
+     * @param pos 区块坐标
+     * @param bottomSectionCoord 最底部区块段的 Y 坐标
+     * @param sections 区块段数组（从底部开始）
+     */
+    public void onSectionsLoaded(ChunkPos pos, int bottomSectionCoord, ChunkSection[] sections) {
         if (!enabled) {
             return;
         }
 
-        ChunkPos pos = chunk.getPos();
-
-        // 检查是否已缓存
-        if (cache.contains(pos)) {
-            return; // 已扫描过，跳过
+        long required = getRequiredSections(pos, bottomSectionCoord, sections.length);
+        if (required == 0L) {
+            return; // 不在范围内
         }
 
-        // 异步扫描该区块
-        CompletableFuture.runAsync(() -> {
-            try {
-                List<BlockTarget> targets = scanChunk(chunk);
-                cache.put(pos, targets);
-
-                if (!targets.isEmpty()) {
-                    VoxelPtr.LOGGER.info("区块 {} 扫描完成，找到 {} 个目标",
-                            pos, targets.size());
-
-                    // 调用回调通知目标发现
-                    if (scanCompleteCallback != null) {
-                        scanCompleteCallback.onScanComplete(targets);
-                    }
-                }
-            } catch (Exception e) {
-                VoxelPtr.LOGGER.error("扫描区块 {} 时出错", pos, e);
-            }
-        }, scanExecutor);
+        // 异步扫描该区块在范围内的区块段（已扫描过的跳过，计为缓存命中）
+        long missing = required & ~cache.getScannedSections(pos);
+        if (missing == 0L) {
+            MetricsRegistry.CACHE_HITS.increment();
+            return;
+        }
+        MetricsRegistry.CACHE_MISSES.increment();
+        submitScan(pos, bottomSectionCoord, sections, missing, false, "扫描");
     }
 
     /**
@@ -232,12 +670,55 @@ public class ChunkEventScanner implements Scanner<BlockTarget> {
         ChunkPos chunkPos = new ChunkPos(pos);
         Block block = newState.getBlock();
 
+        // 未扫描的区块段由区块扫描负责，无需处理
+        if (!cache.isScanned(chunkPos, pos)) {
+            return;
+        }
+
+        // 结构锚点被破坏时同步移除
+        StructureScanner structures = structureScanner;
+        if (structures != null) {
+            structures.onBlockUpdate(pos, newState);
+        }
+
         // 更新缓存
         cache.updateBlock(chunkPos, pos, newState);
 
-        // 如果新方块是目标方块，添加到缓存
+        // 如果新方块是目标方块，添加到缓存并并入矿脉；否则从矿脉中移除
         if (targetBlocks.contains(block)) {
-            cache.addTarget(chunkPos, new BlockTarget(pos, newState));
+            BlockTarget target = new BlockTarget(pos, newState);
+            // 检查之后区块可能已被淘汰，此时不并入矿脉（重新加载时会重新扫描）
+            if (cache.addTarget(chunkPos, target)) {
+                veinClusterer.addBlock(target);
+            }
+        } else {
+            veinClusterer.removeBlock(pos);
+        }
+    }
+
+    /**
+     * 从矿脉聚类器和结构索引中释放已移出缓存的区块，并通知追踪器移除它们的矿脉和结构
+     */
+    private void releaseEvictedChunks() {
+        StructureScanner structures = structureScanner;
+        for (long chunkKey : cache.drainEvictedChunks()) {
+            ChunkPos chunkPos = new ChunkPos(chunkKey);
+            veinClusterer.releaseChunk(chunkPos, cache::contains);
+            if (structures != null) {
+                structures.releaseChunk(chunkPos, cache::contains);
+            }
+        }
+    }
+
+    /**
+     * 将矿脉变化通知给回调（在聚类器的锁内调用）
+     *
+     * @param changes 矿脉变化
+     */
+    private void notifyVeinChanges(VeinClusterer.Changes changes) {
+        ScanCompleteCallback scanCompleteCallback = this.scanCompleteCallback;
+        if (scanCompleteCallback != null) {
+            scanCompleteCallback.onScanComplete(changes.getAdded(), changes.getRemoved());
         }
     }
 
@@ -269,8 +750,15 @@ public class ChunkEventScanner implements Scanner<BlockTarget> {
 
         this.targetBlocks.clear();
         this.targetBlocks.addAll(blocks);
-        // 清空缓存，因为目标改变了
+        // 清空缓存和矿脉，因为目标改变了（旧矿脉同时从追踪器中移除）
         cache.clear();
+        veinClusterer.removeAll();
+        // 结构索引只覆盖已缓存的区块，随缓存一起清空（重新扫描时恢复已加载区块中的结构）
+        StructureScanner structures = structureScanner;
+        if (structures != null) {
+            structures.clear();
+        }
+        lastOriginSection = Long.MIN_VALUE; // 下次范围更新时重新扫描
     }
 
     /**
@@ -282,6 +770,46 @@ public class ChunkEventScanner implements Scanner<BlockTarget> {
         return cache;
     }
 
+    /**
+     * 获取矿脉聚类器（用于调试）
+     *
+     * @return 聚类器实例
+     */
+    public VeinClusterer getVeinClusterer() {
+        return veinClusterer;
+    }
+
+    /**
+     * 一次重新扫描的结果
+     */
+    public static final class Rescan {
+
+        private static final Rescan NONE = new Rescan(0, CompletableFuture.completedFuture(null));
+
+        private final int chunkCount;
+        private final CompletableFuture<Void> completion;
+
+        private Rescan(int chunkCount, CompletableFuture<Void> completion) {
+            this.chunkCount = chunkCount;
+            this.completion = completion;
+        }
+
+        /**
+         * 获取提交重新扫描的区块数
+         * 已有扫描任务的区块合并为该任务完成后的后续扫描，同样计入
+         */
+        public int getChunkCount() {
+            return chunkCount;
+        }
+
+        /**
+         * 获取本次重新扫描的所有区块完成时完成的 Future（不受其他区块加载扫描影响）
+         */
+        public CompletableFuture<Void> getCompletion() {
+            return completion;
+        }
+    }
+
     /**
      * 强制重新扫描所有已加载的区块
      * 用于切换目标方块类型后重新扫描
@@ -289,17 +817,18 @@ public class ChunkEventScanner implements Scanner<BlockTarget> {
      * @param world 当前世界
      * @param centerPos 中心位置（通常是玩家位置）
      * @param radiusChunks 扫描半径（区块）
+     * @return 本次重新扫描的区块数和完成状态
      */
-    public void rescanLoadedChunks(World world, BlockPos centerPos, int radiusChunks) {
-        if (!enabled || world == null || centerPos == null) {
-            return;
+    public Rescan rescanLoadedChunks(World world, BlockPos centerPos, int radiusChunks) {
+        if (!enabled || world == null || centerPos == null || scanExecutor.isShutdown()) {
+            return Rescan.NONE;
         }
 
         VoxelPtr.LOGGER.info("开始重新扫描周围 {}x{} 区块...", radiusChunks * 2 + 1, radiusChunks * 2 + 1);
 
         int centerChunkX = centerPos.getX() >> 4;
         int centerChunkZ = centerPos.getZ() >> 4;
-        int scannedCount = 0;
+        List<CompletableFuture<Void>> scans = new ArrayList<>();
 
         // 遍历玩家周围的区块
         for (int x = -radiusChunks; x <= radiusChunks; x++) {
@@ -311,34 +840,21 @@ public class ChunkEventScanner implements Scanner<BlockTarget> {
                 if (world.isChunkLoaded(chunkX, chunkZ)) {
                     WorldChunk chunk = (WorldChunk) world.getChunk(chunkX, chunkZ);
                     if (chunk != null) {
-                        ChunkPos pos = new ChunkPos(chunkX, chunkZ);
-                        scannedCount++;
-
-                        // 异步重新扫描
-                        CompletableFuture.runAsync(() -> {
-                            try {
-                                List<BlockTarget> targets = scanChunk(chunk);
-                                cache.put(pos, targets);
-
-                                if (!targets.isEmpty()) {
-                                    VoxelPtr.LOGGER.info("区块 {} 重新扫描完成，找到 {} 个目标",
-                                            pos, targets.size());
-
-                                    // 调用回调通知目标发现
-                                    if (scanCompleteCallback != null) {
-                                        scanCompleteCallback.onScanComplete(targets);
-                                    }
-                                }
-                            } catch (Exception e) {
-                                VoxelPtr.LOGGER.error("重新扫描区块 {} 时出错", pos, e);
-                            }
-                        }, scanExecutor);
+                        ChunkSection[] sections = chunk.getSectionArray();
+                        long sectionMask = getRequiredSections(chunk.getPos(), chunk.getBottomSectionCoord(),
+                                sections.length);
+                        if (sectionMask != 0L) {
+                            // 异步重新扫描
+                            scans.add(submitScan(chunk.getPos(), chunk.getBottomSectionCoord(), sections, sectionMask,
+                                    true, "重新扫描"));
+                        }
                     }
                 }
             }
         }
 
-        VoxelPtr.LOGGER.info("已提交 {} 个区块的重新扫描任务", scannedCount);
+        VoxelPtr.LOGGER.info("已提交 {} 个区块的重新扫描任务", scans.size());
+        return new Rescan(scans.size(), CompletableFuture.allOf(scans.toArray(new CompletableFuture[0])));
     }
 
     /**
@@ -347,6 +863,7 @@ public class ChunkEventScanner implements Scanner<BlockTarget> {
     public void shutdown() {
         scanExecutor.shutdown();
         cache.clear();
+        veinClusterer.clear();
         VoxelPtr.LOGGER.info("ChunkEventScanner 已关闭");
     }
 }
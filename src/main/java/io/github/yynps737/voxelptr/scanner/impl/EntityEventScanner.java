@@ -0,0 +1,312 @@
+package io.github.yynps737.voxelptr.scanner.impl;
+
+import io.github.yynps737.voxelptr.VoxelPtr;
+import io.github.yynps737.voxelptr.scanner.Scanner;
+import io.github.yynps737.voxelptr.scanner.TargetChangeListener;
+import io.github.yynps737.voxelptr.target.TargetType;
+import io.github.yynps737.voxelptr.target.types.EntityTarget;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.ItemEntity;
+import net.minecraft.entity.mob.Monster;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 基于实体事件的扫描器
+ *
+ * 核心优化策略：
+ * - 由客户端实体加载/卸载事件驱动，不轮询世界实体列表
+ * - 实体按区块段（16x16x16）放入空间哈希，范围查询只访问附近的桶
+ * - 每 tick 只同步已追踪实体的位置，跨区块段时才移动桶（桶为集合，移除为 O(1)）
+ * - 实体移动超过阈值或跨区块段时才要求追踪器重新排序
+ * - 类型过滤（敌对生物、掉落物、玩家）在加载事件时完成，不匹配的实体不进入索引
+ *
+ * 线程模型：所有方法都在客户端主线程调用
+ */
+public class EntityEventScanner implements Scanner<EntityTarget> {
+
+    /**
+     * 已追踪的实体（Key: 实体网络 ID）
+     */
+    private final Int2ObjectOpenHashMap<EntityTarget> targetsById = new Int2ObjectOpenHashMap<>();
+
+    /**
+     * 实体所在区块段（Key: 实体网络 ID，Value: ChunkSectionPos.asLong()）
+     */
+    private final Int2LongOpenHashMap sectionById = new Int2LongOpenHashMap();
+
+    /**
+     * 区块段空间哈希（Key: ChunkSectionPos.asLong()）
+     */
+    private final Long2ObjectOpenHashMap<ReferenceOpenHashSet<EntityTarget>> sections = new Long2ObjectOpenHashMap<>();
+
+    private boolean enabled;
+    private boolean trackHostile = true;
+    private boolean trackItems = false;
+    private boolean trackPlayers = false;
+
+    /**
+     * 过滤条件变化后需要重新同步世界中的实体
+     */
+    private boolean resyncRequested = false;
+
+    private TargetChangeListener<EntityTarget> callback;
+
+    public EntityEventScanner() {
+        this.enabled = false; // 默认关闭，由配置启用
+    }
+
+    /**
+     * 设置目标变化回调
+     *
+     * @param callback 回调函数
+     */
+    public void setTargetChangeCallback(TargetChangeListener<EntityTarget> callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * 设置类型过滤
+     * 过滤条件变化时清空索引，并请求重新同步
+     *
+     * @param hostile 是否追踪敌对生物
+     * @param items 是否追踪掉落物
+     * @param players 是否追踪玩家
+     */
+    public void setFilters(boolean hostile, boolean items, boolean players) {
+        if (hostile == trackHostile && items == trackItems && players == trackPlayers) {
+            return; // 过滤条件未变化，跳过
+        }
+
+        this.trackHostile = hostile;
+        this.trackItems = items;
+        this.trackPlayers = players;
+        clear();
+        resyncRequested = enabled;
+    }
+
+    /**
+     * 检查实体是否匹配类型过滤
+     */
+    public boolean matches(Entity entity) {
+        if (entity instanceof Monster) {
+            return trackHostile;
+        }
+        if (entity instanceof ItemEntity) {
+            return trackItems;
+        }
+        if (entity instanceof PlayerEntity) {
+            return trackPlayers;
+        }
+        return false;
+    }
+
+    /**
+     * 处理实体加载事件
+     *
+     * @param entity 加载的实体
+     */
+    public void onEntityLoad(Entity entity) {
+        if (!enabled || !matches(entity) || targetsById.containsKey(entity.getId())) {
+            return;
+        }
+
+        EntityTarget target = new EntityTarget(entity);
+        long section = sectionKey(entity.getBlockPos());
+        targetsById.put(entity.getId(), target);
+        sectionById.put(entity.getId(), section);
+        sections.computeIfAbsent(section, k -> new ReferenceOpenHashSet<>()).add(target);
+
+        if (callback != null) {
+            callback.onTargetAdded(target);
+        }
+    }
+
+    /**
+     * 处理实体卸载事件
+     *
+     * @param entity 卸载的实体
+     */
+    public void onEntityUnload(Entity entity) {
+        EntityTarget target = targetsById.remove(entity.getId());
+        if (target == null) {
+            return;
+        }
+
+        removeFromSection(sectionById.remove(entity.getId()), target);
+        target.setValid(false);
+
+        if (callback != null) {
+            callback.onTargetRemoved(target);
+        }
+    }
+
+    /**
+     * 每 tick 调用：同步已追踪实体的位置（增量更新，不遍历世界实体列表）
+     * 应在追踪器 tick 之前调用，使排序快照使用本 tick 的位置
+     *
+     * @return true 如果有实体移动超过阈值或跨区块段（追踪器需要重新排序）
+     */
+    public boolean tick() {
+        if (!enabled || targetsById.isEmpty()) {
+            return false;
+        }
+
+        boolean moved = false;
+        ObjectIterator<Int2ObjectOpenHashMap.Entry<EntityTarget>> iterator = targetsById.int2ObjectEntrySet().fastIterator();
+        while (iterator.hasNext()) {
+            Int2ObjectOpenHashMap.Entry<EntityTarget> entry = iterator.next();
+            EntityTarget target = entry.getValue();
+            moved |= target.syncPosition();
+            target.updateLastSeen();
+
+            // 跨区块段时移动到新的桶
+            long previous = sectionById.get(entry.getIntKey());
+            long current = sectionKey(target.getEntity().getBlockPos());
+            if (current != previous) {
+                removeFromSection(previous, target);
+                sections.computeIfAbsent(current, k -> new ReferenceOpenHashSet<>()).add(target);
+                sectionById.put(entry.getIntKey(), current);
+                moved = true;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * 检查并清除重新同步请求
+     * 客户端在返回 true 时对当前世界的实体逐个调用 onEntityLoad
+     *
+     * @return true 如果需要重新同步
+     */
+    public boolean consumeResyncRequest() {
+        boolean requested = resyncRequested;
+        resyncRequested = false;
+        return requested;
+    }
+
+    private void removeFromSection(long section, EntityTarget target) {
+        ReferenceOpenHashSet<EntityTarget> bucket = sections.get(section);
+        if (bucket != null) {
+            bucket.remove(target);
+            if (bucket.isEmpty()) {
+                sections.remove(section);
+            }
+        }
+    }
+
+    private static long sectionKey(BlockPos pos) {
+        return ChunkSectionPos.toLong(pos);
+    }
+
+    @Override
+    public CompletableFuture<List<EntityTarget>> scanAsync(World world, BlockPos center, int radiusChunks) {
+        // 空间哈希查询很轻量，直接同步完成
+        return CompletableFuture.completedFuture(scanSync(world, center, radiusChunks));
+    }
+
+    /**
+     * 同步扫描（查询空间哈希）
+     * 只访问中心周围 radiusChunks 个区块段内的桶
+     */
+    @Override
+    public List<EntityTarget> scanSync(World world, BlockPos center, int radiusChunks) {
+        List<EntityTarget> result = new ArrayList<>();
+        if (!enabled || sections.isEmpty()) {
+            return result;
+        }
+
+        int centerX = ChunkSectionPos.getSectionCoord(center.getX());
+        int centerY = ChunkSectionPos.getSectionCoord(center.getY());
+        int centerZ = ChunkSectionPos.getSectionCoord(center.getZ());
+
+        for (int x = -radiusChunks; x <= radiusChunks; x++) {
+            for (int y = -radiusChunks; y <= radiusChunks; y++) {
+                for (int z = -radiusChunks; z <= radiusChunks; z++) {
+                    ReferenceOpenHashSet<EntityTarget> bucket =
+                            sections.get(ChunkSectionPos.asLong(centerX + x, centerY + y, centerZ + z));
+                    if (bucket != null) {
+                        result.addAll(bucket);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public TargetType getTargetType() {
+        return TargetType.ENTITY;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) {
+            return;
+        }
+
+        this.enabled = enabled;
+        if (enabled) {
+            resyncRequested = true;
+        } else {
+            clear();
+        }
+    }
+
+    /**
+     * 获取已追踪的所有目标
+     *
+     * @return 目标集合（只读视图）
+     */
+    public Collection<EntityTarget> getTrackedTargets() {
+        return Collections.unmodifiableCollection(targetsById.values());
+    }
+
+    /**
+     * 获取已追踪的实体数量
+     */
+    public int getTrackedCount() {
+        return targetsById.size();
+    }
+
+    /**
+     * 清空索引（通知回调移除所有目标）
+     */
+    public void clear() {
+        if (callback != null) {
+            for (EntityTarget target : targetsById.values()) {
+                target.setValid(false);
+                callback.onTargetRemoved(target);
+            }
+        }
+        targetsById.clear();
+        sectionById.clear();
+        sections.clear();
+    }
+
+    /**
+     * 关闭扫描器，释放资源
+     */
+    public void shutdown() {
+        clear();
+        VoxelPtr.LOGGER.info("EntityEventScanner 已关闭");
+    }
+}
@@ -0,0 +1,611 @@
+package io.github.yynps737.voxelptr.scanner.impl;
+
+import io.github.yynps737.voxelptr.VoxelPtr;
+import io.github.yynps737.voxelptr.scanner.ChunkScanCache;
+import io.github.yynps737.voxelptr.scanner.Scanner;
+import io.github.yynps737.voxelptr.scanner.StructurePattern;
+import io.github.yynps737.voxelptr.scanner.TargetChangeListener;
+import io.github.yynps737.voxelptr.target.TargetType;
+import io.github.yynps737.voxelptr.target.types.StructureTarget;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * 结构扫描器
+ * 在矿物扫描的同一次区块遍历中识别多方块特征图案（地牢、末地传送门、试炼密室等）
+ *
+ * 核心优化策略：
+ * - 不单独读取区块：由 ChunkEventScanner 在扫描任务中传入同一份区块段数组
+ * - 预编译的调色板预过滤：区块段不含任何图案的锚点方块时整段跳过（绝大多数区块段）
+ * - 伴随方块只在锚点周围检查，锚点本身极少；靠近区块边界时读取相邻区块，
+ *   相邻区块未加载且本区块内没有伴随方块时推迟，等相邻区块扫描后重新匹配该锚点所在的区块段
+ * - 每次匹配只生成一个 StructureTarget，相邻锚点按图案的合并半径归并
+ *
+ * - 结构索引按区块组织，区块移出扫描缓存或锚点方块被破坏时同步移除
+ *
+ * 线程模型：matchSections 无状态，可在扫描线程调用；结构索引的修改是同步的，
+ * 回调在锁内调用，保证变化按顺序到达追踪器
+ */
+public class StructureScanner implements Scanner<StructureTarget> {
+
+    /**
+     * 单个锚点的匹配结果
+     */
+    public static final class Match {
+
+        private final StructurePattern pattern;
+        private final BlockPos pos;
+
+        /**
+         * 伴随方块检查需要但未加载的相邻区块（ChunkPos.toLong()），已匹配时无意义
+         */
+        private final long waitingChunk;
+        private final boolean deferred;
+
+        Match(StructurePattern pattern, BlockPos pos) {
+            this(pattern, pos, 0L, false);
+        }
+
+        private Match(StructurePattern pattern, BlockPos pos, long waitingChunk, boolean deferred) {
+            this.pattern = pattern;
+            this.pos = pos;
+            this.waitingChunk = waitingChunk;
+            this.deferred = deferred;
+        }
+
+        /**
+         * 是否因相邻区块未加载而推迟（伴随方块可能在相邻区块中）
+         */
+        public boolean isDeferred() {
+            return deferred;
+        }
+
+        public StructurePattern getPattern() {
+            return pattern;
+        }
+
+        public BlockPos getPos() {
+            return pos;
+        }
+    }
+
+    private final List<StructurePattern> patterns;
+
+    /**
+     * 所有图案锚点的并集过滤器（区块段级预过滤）
+     */
+    private final Predicate<BlockState> anyAnchorFilter;
+
+    /**
+     * 锚点所属结构（Key: 打包坐标）
+     */
+    private final Long2ObjectOpenHashMap<StructureTarget> structureByAnchor = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * 每个区块包含的锚点（Key: ChunkPos.toLong()），用于按区块替换、释放和合并查找
+     */
+    private final Long2ObjectOpenHashMap<LongOpenHashSet> anchorsByChunk = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * 推迟匹配的锚点（Key: 等待加载的相邻区块 ChunkPos.toLong()，Value: 锚点打包坐标）
+     */
+    private final Long2ObjectOpenHashMap<LongOpenHashSet> deferredByChunk = new Long2ObjectOpenHashMap<>();
+
+    private volatile boolean enabled;
+
+    private TargetChangeListener<StructureTarget> callback;
+
+    public StructureScanner() {
+        this(StructurePattern.DEFAULTS);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param patterns 要识别的图案
+     */
+    public StructureScanner(List<StructurePattern> patterns) {
+        this.patterns = List.copyOf(patterns);
+
+        Predicate<BlockState> filter = state -> false;
+        for (StructurePattern pattern : this.patterns) {
+            filter = filter.or(pattern.getAnchorFilter());
+        }
+        this.anyAnchorFilter = filter;
+        this.enabled = false; // 默认关闭，由配置启用
+    }
+
+    /**
+     * 设置目标变化回调
+     *
+     * @param callback 回调函数
+     */
+    public void setTargetChangeCallback(TargetChangeListener<StructureTarget> callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * 在区块段中匹配图案（无状态，可在扫描线程调用）
+     *
+     * @param chunkPos 区块坐标
+     * @param bottomSectionCoord 最底部区块段的 Y 坐标
+     * @param sections 区块段数组（与矿物扫描为同一份）
+     * @param sectionMask 要扫描的区块段掩码
+     * @param neighbors 相邻区块的区块段查询（伴随方块跨区块边界时使用），为 null 时视为未加载
+     * @return 匹配到的锚点（包括推迟的锚点）
+     */
+    public List<Match> matchSections(ChunkPos chunkPos, int bottomSectionCoord, ChunkSection[] sections,
+                                     long sectionMask, ChunkEventScanner.LoadedSections neighbors) {
+        List<Match> matches = new ArrayList<>();
+        ChunkSection[][] columns = null; // 3x3 区块的区块段，按需读取
+        long[] waitingChunk = new long[1];
+        int startX = chunkPos.getStartX();
+        int startZ = chunkPos.getStartZ();
+
+        for (int i = 0; i < sections.length; i++) {
+            if (!isSectionSelected(sectionMask, i)) {
+                continue;
+            }
+
+            ChunkSection section = sections[i];
+            if (section == null || section.isEmpty()) {
+                continue;
+            }
+
+            // 调色板预过滤：区块段不含任何锚点方块时整段跳过
+            if (!section.hasAny(anyAnchorFilter)) {
+                continue;
+            }
+
+            int baseY = (bottomSectionCoord + i) << 4;
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        BlockState state = section.getBlockState(x, y, z);
+                        for (StructurePattern pattern : patterns) {
+                            if (!pattern.isAnchor(state)) {
+                                continue;
+                            }
+                            BlockPos pos = new BlockPos(startX + x, baseY + y, startZ + z);
+                            if (!pattern.requiresCompanion()) {
+                                matches.add(new Match(pattern, pos));
+                                continue;
+                            }
+                            if (columns == null) {
+                                columns = new ChunkSection[9][];
+                                columns[4] = sections;
+                            }
+                            int companion = findCompanion(pattern, chunkPos, columns, neighbors, i, x, y, z,
+                                    waitingChunk);
+                            if (companion == COMPANION_FOUND) {
+                                matches.add(new Match(pattern, pos));
+                            } else if (companion == COMPANION_WAITING) {
+                                matches.add(new Match(pattern, pos, waitingChunk[0], true));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    private static final int COMPANION_MISSING = 0;
+    private static final int COMPANION_FOUND = 1;
+    private static final int COMPANION_WAITING = 2;
+
+    /**
+     * 已查询但未加载的相邻区块
+     */
+    private static final ChunkSection[] NOT_LOADED = new ChunkSection[0];
+
+    /**
+     * 检查锚点周围是否有伴随方块
+     * 本区块使用与扫描同一份数据；超出区块边界的部分读取相邻区块（伴随半径不超过 16 格）
+     *
+     * @param columns 3x3 区块的区块段缓存（下标 (dz + 1) * 3 + (dx + 1)，中心为本区块）
+     * @param waitingChunk 返回 COMPANION_WAITING 时写入未加载的相邻区块
+     * @return COMPANION_FOUND；未找到且有相邻区块未加载时 COMPANION_WAITING；否则 COMPANION_MISSING
+     */
+    private static int findCompanion(StructurePattern pattern, ChunkPos chunkPos, ChunkSection[][] columns,
+                                     ChunkEventScanner.LoadedSections neighbors, int sectionIndex,
+                                     int anchorX, int anchorY, int anchorZ, long[] waitingChunk) {
+        int radius = Math.min(pattern.getCompanionRadius(), 16);
+        int anchorYInChunk = (sectionIndex << 4) + anchorY;
+        boolean waiting = false;
+
+        for (int dz = -radius; dz <= radius; dz++) {
+            int z = anchorZ + dz;
+            for (int dx = -radius; dx <= radius; dx++) {
+                int x = anchorX + dx;
+                int column = ((z >> 4) + 1) * 3 + (x >> 4) + 1;
+                ChunkSection[] sections = columns[column];
+                if (sections == null) {
+                    int chunkX = chunkPos.x + (x >> 4);
+                    int chunkZ = chunkPos.z + (z >> 4);
+                    sections = neighbors != null ? neighbors.get(chunkX, chunkZ) : null;
+                    if (sections == null) {
+                        sections = NOT_LOADED;
+                    }
+                    columns[column] = sections;
+                }
+                if (sections == NOT_LOADED) {
+                    if (!waiting) {
+                        waiting = true;
+                        waitingChunk[0] = ChunkPos.toLong(chunkPos.x + (x >> 4), chunkPos.z + (z >> 4));
+                    }
+                    continue;
+                }
+
+                for (int dy = -radius; dy <= radius; dy++) {
+                    int yInChunk = anchorYInChunk + dy;
+                    int index = yInChunk >> 4;
+                    if (yInChunk < 0 || index >= sections.length) {
+                        continue;
+                    }
+                    ChunkSection section = sections[index];
+                    if (section != null && !section.isEmpty()
+                            && pattern.isCompanion(section.getBlockState(x & 15, yInChunk & 15, z & 15))) {
+                        return COMPANION_FOUND;
+                    }
+                }
+            }
+        }
+        return waiting ? COMPANION_WAITING : COMPANION_MISSING;
+    }
+
+    private static boolean isSectionSelected(long sectionMask, int index) {
+        return sectionMask == ChunkScanCache.ALL_SECTIONS || (index < 64 && (sectionMask & (1L << index)) != 0);
+    }
+
+    /**
+     * 用新的匹配结果替换区块中已扫描区块段的旧结果
+     * 相邻锚点按图案的合并半径归并为同一个结构（可跨区块边界）
+     *
+     * @param chunkPos 区块坐标
+     * @param bottomSectionCoord 最底部区块段的 Y 坐标
+     * @param sectionMask 本次扫描的区块段掩码
+     * @param matches 本次匹配结果
+     */
+    public synchronized void replaceSections(ChunkPos chunkPos, int bottomSectionCoord, long sectionMask,
+                                             List<Match> matches) {
+        List<StructureTarget> added = new ArrayList<>();
+        List<StructureTarget> removed = new ArrayList<>();
+
+        // 1. 移除落在本次扫描区块段中的旧锚点（包括推迟的锚点，本次重新匹配）
+        LongOpenHashSet chunkAnchors = anchorsByChunk.get(chunkPos.toLong());
+        if (chunkAnchors != null) {
+            LongArrayList stale = new LongArrayList();
+            for (long packed : chunkAnchors) {
+                int index = (BlockPos.unpackLongY(packed) >> 4) - bottomSectionCoord;
+                if (isSectionSelected(sectionMask, index)) {
+                    stale.add(packed);
+                }
+            }
+            detachAnchors(stale, added, removed);
+        }
+        removeDeferred(packed -> chunkKey(packed) == chunkPos.toLong()
+                && isSectionSelected(sectionMask, (BlockPos.unpackLongY(packed) >> 4) - bottomSectionCoord));
+
+        // 2. 加入新锚点：与附近同图案的结构合并（新锚点可能连接多个结构），否则新建
+        for (Match match : matches) {
+            long packed = match.getPos().asLong();
+            if (match.isDeferred()) {
+                deferredByChunk.computeIfAbsent(match.waitingChunk, k -> new LongOpenHashSet()).add(packed);
+                continue;
+            }
+            if (structureByAnchor.containsKey(packed)) {
+                continue;
+            }
+
+            List<StructureTarget> nearby = findMergeTargets(match);
+            List<BlockPos> anchors = new ArrayList<>();
+            for (StructureTarget existing : nearby) {
+                anchors.addAll(existing.getAnchors());
+                // 本次刚生成的结构无需先通知再移除
+                if (!added.remove(existing)) {
+                    removed.add(existing);
+                }
+            }
+            anchors.add(match.getPos());
+            attach(new StructureTarget(match.getPattern(), anchors), added);
+        }
+
+        notifyChanges(added, removed);
+
+        if (!matches.isEmpty()) {
+            VoxelPtr.LOGGER.info("区块 {} 识别到 {} 个结构锚点", chunkPos, matches.size());
+        }
+    }
+
+    /**
+     * 取出等待该区块加载的推迟锚点
+     * 调用方在该区块扫描后重新匹配这些锚点所在的区块段（此时可以读取该区块的伴随方块）
+     *
+     * @param chunkPos 刚扫描的区块
+     * @return 锚点打包坐标，没有时返回 null
+     */
+    public synchronized LongOpenHashSet takeDeferred(ChunkPos chunkPos) {
+        return deferredByChunk.remove(chunkPos.toLong());
+    }
+
+    /**
+     * 移除满足条件的推迟锚点（调用方必须持有锁）
+     */
+    private void removeDeferred(LongPredicate filter) {
+        if (deferredByChunk.isEmpty()) {
+            return;
+        }
+        deferredByChunk.values().removeIf(anchors -> {
+            anchors.removeIf(filter);
+            return anchors.isEmpty();
+        });
+    }
+
+    /**
+     * 释放已移出扫描缓存的区块（LRU 淘汰或失效），移除其中的锚点
+     * 在锁内检查区块是否已被重新缓存：并发的重新扫描会在之后用新结果调用 replaceSections，此时不能清空
+     *
+     * @param chunkPos 区块坐标
+     * @param stillCached 检查区块当前是否仍在扫描缓存中
+     */
+    public synchronized void releaseChunk(ChunkPos chunkPos, Predicate<ChunkPos> stillCached) {
+        if (stillCached.test(chunkPos)) {
+            return;
+        }
+        removeDeferred(packed -> chunkKey(packed) == chunkPos.toLong());
+
+        LongOpenHashSet chunkAnchors = anchorsByChunk.get(chunkPos.toLong());
+        if (chunkAnchors == null) {
+            return;
+        }
+
+        List<StructureTarget> added = new ArrayList<>();
+        List<StructureTarget> removed = new ArrayList<>();
+        detachAnchors(new LongArrayList(chunkAnchors), added, removed);
+        notifyChanges(added, removed);
+    }
+
+    /**
+     * 处理方块变化事件：锚点方块被破坏或替换时移除该锚点
+     * 新放置的锚点不在这里识别（需要检查伴随方块），由下次区块扫描补上
+     *
+     * @param pos 方块位置
+     * @param newState 新的方块状态
+     */
+    public synchronized void onBlockUpdate(BlockPos pos, BlockState newState) {
+        long packed = pos.asLong();
+        StructureTarget structure = structureByAnchor.get(packed);
+        if (structure == null || structure.getPattern().isAnchor(newState)) {
+            return;
+        }
+
+        List<StructureTarget> added = new ArrayList<>();
+        List<StructureTarget> removed = new ArrayList<>();
+        LongArrayList anchors = new LongArrayList(1);
+        anchors.add(packed);
+        detachAnchors(anchors, added, removed);
+        notifyChanges(added, removed);
+    }
+
+    /**
+     * 每 tick 调用：刷新结构的最后发现时间
+     * 结构由区块扫描、淘汰和方块变化管理生命周期，不应被追踪器按过期时间清理
+     */
+    public synchronized void tick() {
+        for (StructureTarget structure : structureByAnchor.values()) {
+            structure.updateLastSeen();
+        }
+    }
+
+    /**
+     * 从索引中移除锚点，剩余锚点重建为新结构（调用方必须持有锁）
+     */
+    private void detachAnchors(LongArrayList anchors, List<StructureTarget> added, List<StructureTarget> removed) {
+        Set<StructureTarget> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0, n = anchors.size(); i < n; i++) {
+            long packed = anchors.getLong(i);
+            StructureTarget structure = structureByAnchor.remove(packed);
+            if (structure == null) {
+                continue;
+            }
+            affected.add(structure);
+            long chunkKey = chunkKey(packed);
+            LongOpenHashSet chunkAnchors = anchorsByChunk.get(chunkKey);
+            if (chunkAnchors != null) {
+                chunkAnchors.remove(packed);
+                if (chunkAnchors.isEmpty()) {
+                    anchorsByChunk.remove(chunkKey);
+                }
+            }
+        }
+
+        for (StructureTarget structure : affected) {
+            List<BlockPos> kept = new ArrayList<>(structure.getAnchors().size());
+            for (BlockPos anchor : structure.getAnchors()) {
+                if (structureByAnchor.get(anchor.asLong()) == structure) {
+                    kept.add(anchor);
+                }
+            }
+            if (!added.remove(structure)) {
+                removed.add(structure);
+            }
+            if (!kept.isEmpty()) {
+                attach(new StructureTarget(structure.getPattern(), kept), added);
+            }
+        }
+    }
+
+    /**
+     * 将结构的全部锚点加入索引（调用方必须持有锁）
+     */
+    private void attach(StructureTarget structure, List<StructureTarget> added) {
+        for (BlockPos anchor : structure.getAnchors()) {
+            long packed = anchor.asLong();
+            structureByAnchor.put(packed, structure);
+            anchorsByChunk.computeIfAbsent(chunkKey(packed), k -> new LongOpenHashSet()).add(packed);
+        }
+        added.add(structure);
+    }
+
+    /**
+     * 查找与该锚点相距不超过合并半径的同图案结构
+     * 只访问合并半径覆盖的区块，不遍历全部结构
+     *
+     * @return 可合并的结构（去重）
+     */
+    private List<StructureTarget> findMergeTargets(Match match) {
+        int radius = match.getPattern().getMergeRadius();
+        if (radius <= 0) {
+            return List.of();
+        }
+
+        BlockPos pos = match.getPos();
+        Set<StructureTarget> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int chunkX = (pos.getX() - radius) >> 4; chunkX <= (pos.getX() + radius) >> 4; chunkX++) {
+            for (int chunkZ = (pos.getZ() - radius) >> 4; chunkZ <= (pos.getZ() + radius) >> 4; chunkZ++) {
+                LongOpenHashSet chunkAnchors = anchorsByChunk.get(ChunkPos.toLong(chunkX, chunkZ));
+                if (chunkAnchors == null) {
+                    continue;
+                }
+                for (long packed : chunkAnchors) {
+                    StructureTarget structure = structureByAnchor.get(packed);
+                    if (structure.getPattern() == match.getPattern()
+                            && Math.abs(BlockPos.unpackLongX(packed) - pos.getX()) <= radius
+                            && Math.abs(BlockPos.unpackLongY(packed) - pos.getY()) <= radius
+                            && Math.abs(BlockPos.unpackLongZ(packed) - pos.getZ()) <= radius) {
+                        found.add(structure);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(found);
+    }
+
+    /**
+     * 在锁内通知回调，保证多个扫描线程的变化按顺序到达追踪器（调用方必须持有锁）
+     */
+    private void notifyChanges(List<StructureTarget> added, List<StructureTarget> removed) {
+        if (callback != null) {
+            removed.forEach(callback::onTargetRemoved);
+            added.forEach(callback::onTargetAdded);
+        }
+    }
+
+    private static long chunkKey(long packedBlockPos) {
+        return ChunkPos.toLong(BlockPos.unpackLongX(packedBlockPos) >> 4, BlockPos.unpackLongZ(packedBlockPos) >> 4);
+    }
+
+    /**
+     * 获取所有结构（去重，调用方必须持有锁）
+     */
+    private Set<StructureTarget> distinctStructures() {
+        Set<StructureTarget> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinct.addAll(structureByAnchor.values());
+        return distinct;
+    }
+
+    @Override
+    public CompletableFuture<List<StructureTarget>> scanAsync(World world, BlockPos center, int radiusChunks) {
+        // 只读取索引，直接同步完成
+        return CompletableFuture.completedFuture(scanSync(world, center, radiusChunks));
+    }
+
+    @Override
+    public synchronized List<StructureTarget> scanSync(World world, BlockPos center, int radiusChunks) {
+        List<StructureTarget> result = new ArrayList<>();
+        if (!enabled) {
+            return result;
+        }
+
+        // 只访问半径内的区块，跨区块的结构去重
+        Set<StructureTarget> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        int centerChunkX = center.getX() >> 4;
+        int centerChunkZ = center.getZ() >> 4;
+        for (int x = -radiusChunks; x <= radiusChunks; x++) {
+            for (int z = -radiusChunks; z <= radiusChunks; z++) {
+                LongOpenHashSet chunkAnchors = anchorsByChunk.get(ChunkPos.toLong(centerChunkX + x, centerChunkZ + z));
+                if (chunkAnchors != null) {
+                    for (long packed : chunkAnchors) {
+                        found.add(structureByAnchor.get(packed));
+                    }
+                }
+            }
+        }
+        result.addAll(found);
+        return result;
+    }
+
+    @Override
+    public TargetType getTargetType() {
+        return TargetType.STRUCTURE;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) {
+            return;
+        }
+
+        this.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * 获取已识别的所有结构
+     *
+     * @return 结构列表（副本）
+     */
+    public synchronized List<StructureTarget> getTrackedTargets() {
+        return new ArrayList<>(distinctStructures());
+    }
+
+    /**
+     * 获取已识别的结构数量
+     */
+    public synchronized int getStructureCount() {
+        return distinctStructures().size();
+    }
+
+    /**
+     * 清空所有结构（通知回调移除）
+     */
+    public synchronized void clear() {
+        List<StructureTarget> removed = new ArrayList<>(distinctStructures());
+        structureByAnchor.clear();
+        anchorsByChunk.clear();
+        deferredByChunk.clear();
+        notifyChanges(List.of(), removed);
+    }
+
+    /**
+     * 关闭扫描器，释放资源
+     */
+    public void shutdown() {
+        clear();
+        VoxelPtr.LOGGER.info("StructureScanner 已关闭");
+    }
+}
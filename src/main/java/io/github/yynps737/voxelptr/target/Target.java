@@ -61,11 +61,28 @@ public abstract class Target {
      */
     public abstract int getColor();
 
+    /**
+     * 生命周期是否由扫描器管理
+     * 返回 true 时追踪器不按过期时间或有效性清理，只在扫描器通知时移除
+     */
+    public boolean isScannerManaged() {
+        return false;
+    }
+
     /**
      * 更新最后发现时间
      */
     public void updateLastSeen() {
-        this.lastSeen = System.currentTimeMillis();
+        updateLastSeen(System.currentTimeMillis());
+    }
+
+    /**
+     * 更新最后发现时间
+     *
+     * @param now 当前时间（毫秒）
+     */
+    public void updateLastSeen(long now) {
+        this.lastSeen = now;
     }
 
     // ========== Getters and Setters ==========
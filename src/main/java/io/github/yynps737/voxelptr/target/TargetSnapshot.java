@@ -0,0 +1,131 @@
+package io.github.yynps737.voxelptr.target;
+
+import net.minecraft.util.math.Vec3d;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 目标快照（不可变）
+ * 由 TargetTracker 每 tick 发布一次，已按到观察者的平方距离从近到远排序
+ *
+ * 渲染线程和 HUD 直接读取快照：
+ * - 无锁：通过 volatile 引用发布，读取方拿到的永远是完整的一份
+ * - 零拷贝：按下标访问，不创建新列表
+ * - 帧耗时与追踪器大小无关
+ *
+ * 目标位置在发布时按值复制：实体目标的位置每 tick 变化，
+ * 读取方应使用 getPosition(i)，与排序所用的距离保持一致
+ */
+public final class TargetSnapshot {
+
+    /**
+     * 空快照（追踪器尚未发布任何数据时使用）
+     */
+    public static final TargetSnapshot EMPTY = new TargetSnapshot(0, Vec3d.ZERO, new Target[0], new Vec3d[0],
+            new double[0]);
+
+    private final long epoch;
+    private final Vec3d origin;
+    private final Target[] targets;
+    private final Vec3d[] positions;
+    private final double[] squaredDistances;
+    private final List<Target> view;
+
+    /**
+     * 构造函数（仅由 TargetTracker 调用，数组所有权转移给快照）
+     *
+     * @param epoch 发布序号（每次发布递增）
+     * @param origin 排序时观察者的位置
+     * @param targets 按距离排序的目标数组
+     * @param positions 与 targets 一一对应的发布时位置
+     * @param squaredDistances 与 targets 一一对应的平方距离
+     */
+    TargetSnapshot(long epoch, Vec3d origin, Target[] targets, Vec3d[] positions, double[] squaredDistances) {
+        this.epoch = epoch;
+        this.origin = origin;
+        this.targets = targets;
+        this.positions = positions;
+        this.squaredDistances = squaredDistances;
+        this.view = Collections.unmodifiableList(Arrays.asList(targets));
+    }
+
+    /**
+     * 获取发布序号
+     * 读取方可以比较序号判断快照是否更新，从而跳过重复计算
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * 获取排序时观察者的位置
+     */
+    public Vec3d getOrigin() {
+        return origin;
+    }
+
+    /**
+     * 获取目标数量
+     */
+    public int size() {
+        return targets.length;
+    }
+
+    /**
+     * 快照是否为空
+     */
+    public boolean isEmpty() {
+        return targets.length == 0;
+    }
+
+    /**
+     * 按下标获取目标（0 为最近）
+     */
+    public Target get(int index) {
+        return targets[index];
+    }
+
+    /**
+     * 获取目标在发布时的位置（不随实体移动变化）
+     */
+    public Vec3d getPosition(int index) {
+        return positions[index];
+    }
+
+    /**
+     * 获取目标在排序时到观察者的平方距离
+     */
+    public double getSquaredDistance(int index) {
+        return squaredDistances[index];
+    }
+
+    /**
+     * 查找第一个平方距离不小于给定值的下标（二分查找）
+     * 配合 getSquaredDistance 可以实现环形范围查询，范围外的目标不会被访问
+     *
+     * @param squaredDistance 平方距离
+     * @return 下标，所有目标都更近时返回 size()
+     */
+    public int lowerBound(double squaredDistance) {
+        int low = 0;
+        int high = squaredDistances.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (squaredDistances[mid] < squaredDistance) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 获取所有目标（不可修改视图，按距离排序）
+     */
+    public List<Target> getTargets() {
+        return view;
+    }
+}
@@ -1,14 +1,20 @@
 package io.github.yynps737.voxelptr.target;
 
-import io.github.yynps737.voxelptr.target.types.BlockTarget;
+import io.github.yynps737.voxelptr.metrics.TrackerMergeEvent;
+import io.github.yynps737.voxelptr.metrics.TrackerValidateEvent;
+import it.unimi.dsi.fastutil.ints.IntArrays;
 import net.minecraft.entity.Entity;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 /**
@@ -20,6 +26,7 @@ import java.util.stream.Collectors;
  * - 自动清理过期目标
  * - 验证目标有效性
  * - 按距离排序
+ * - 每 tick 发布一次不可变的排序快照（供渲染线程无锁读取）
  */
 public class TargetTracker {
 
@@ -42,29 +49,169 @@ public class TargetTracker {
      */
     private static final long BLOCK_EXPIRY_TIME_MS = 600_000; // 10分钟
 
+    /**
+     * 观察者移动超过该平方距离时重新排序（0.5 格）
+     * 目标集合未变化且观察者几乎未移动时，沿用上一份快照
+     */
+    private static final double RESORT_MOVE_THRESHOLD_SQ = 0.25;
+
+    /**
+     * 当前发布的快照（volatile 保证发布可见性）
+     */
+    private volatile TargetSnapshot snapshot = TargetSnapshot.EMPTY;
+
+    /**
+     * 目标集合自上次发布后是否发生变化（扫描线程写入，tick 线程读取）
+     */
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+
+    /**
+     * 发布序号（仅 tick 线程访问）
+     */
+    private long epoch = 0;
+
+    /**
+     * 时间来源（毫秒），用于过期判断；浸泡测试用模拟时钟压缩时间
+     */
+    private final LongSupplier clock;
+
+    // 排序用的临时数组，仅 tick 线程访问，跨 tick 复用（发布的快照数组不复用，见 publishSnapshot）
+    private Target[] backTargets = new Target[0];
+    private Vec3d[] backPositions = new Vec3d[0];
+    private double[] backDistances = new double[0];
+    private int[] backOrder = new int[0];
+
     public TargetTracker() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock 时间来源（毫秒）
+     */
+    public TargetTracker(LongSupplier clock) {
         this.activeTargets = new ConcurrentHashMap<>();
+        this.clock = clock;
     }
 
     /**
-     * 每 tick 调用，清理过期和无效的目标
+     * 每 tick 调用，清理过期和无效的目标，并发布新的排序快照
      *
-     * @param world 当前世界（用于验证目标有效性）
+     * @param world 当前世界（用于验证目标有效性），为 null 时只做过期检查（如离线重放）
+     * @param viewerPos 观察者位置（用于排序快照），为 null 时不发布快照
      */
-    public void tick(World world) {
-        long now = System.currentTimeMillis();
+    public void tick(World world, Vec3d viewerPos) {
+        long now = clock.getAsLong();
+
+        TrackerValidateEvent event = new TrackerValidateEvent();
+        event.begin();
+        int checked = activeTargets.size();
 
         // 移除过期和无效的目标（性能优化：简化逻辑，减少重复判断）
         activeTargets.values().removeIf(target -> {
-            // 1. 过期检查：根据目标类型使用不同的过期时间
-            long expiryTime = (target instanceof BlockTarget) ? BLOCK_EXPIRY_TIME_MS : ENTITY_EXPIRY_TIME_MS;
-            if (now - target.getLastSeen() > expiryTime) {
-                return true; // 移除
+            // 0. 由扫描器管理生命周期的目标（矿脉）只在扫描器通知时移除，避免与扫描器的状态不一致
+            if (target.isScannerManaged()) {
+                return false;
             }
 
+            // 1. 过期检查：根据目标类型使用不同的过期时间（结构和方块一样是静态的）
+            long expiryTime = (target.getType() == TargetType.ENTITY) ? ENTITY_EXPIRY_TIME_MS : BLOCK_EXPIRY_TIME_MS;
+
             // 2. 有效性检查（isValid(world) 会内部调用 isValid()，无需重复检查）
-            return !target.isValid(world);
+            if (now - target.getLastSeen() > expiryTime || (world != null && !target.isValid(world))) {
+                dirty.set(true);
+                return true; // 移除
+            }
+            return false;
         });
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.checked = checked;
+            event.removed = Math.max(0, checked - activeTargets.size());
+            event.commit();
+        }
+
+        if (viewerPos != null) {
+            publishSnapshot(viewerPos);
+        }
+    }
+
+    /**
+     * 在复用的临时数组中排序，然后通过 volatile 引用发布不可变快照
+     *
+     * 每次发布为快照分配三个恰好大小的数组：读取方可能在任意线程持有旧快照任意长的时间，
+     * 快照数组不能轮换复用。分配只发生在目标集合变化或观察者移动超过阈值时，其余 tick 沿用当前快照
+     *
+     * @param viewerPos 观察者位置
+     */
+    private void publishSnapshot(Vec3d viewerPos) {
+        TargetSnapshot current = snapshot;
+        boolean changed = dirty.getAndSet(false);
+        if (!changed && current.getEpoch() != 0
+                && current.getOrigin().squaredDistanceTo(viewerPos) < RESORT_MOVE_THRESHOLD_SQ) {
+            return; // 目标和位置都没变，沿用当前快照
+        }
+
+        // 1. 收集目标和平方距离到临时数组
+        int count = 0;
+        for (Target target : activeTargets.values()) {
+            if (count == backTargets.length) {
+                int newLength = Math.max(16, count * 2);
+                backTargets = Arrays.copyOf(backTargets, newLength);
+                backPositions = Arrays.copyOf(backPositions, newLength);
+                backDistances = Arrays.copyOf(backDistances, newLength);
+            }
+            // 位置只读取一次，快照中的位置和距离一致
+            Vec3d position = target.getPosition();
+            backTargets[count] = target;
+            backPositions[count] = position;
+            backDistances[count] = viewerPos.squaredDistanceTo(position);
+            count++;
+        }
+
+        // 2. 按距离排序下标（基本类型排序，无装箱）
+        if (backOrder.length < count) {
+            backOrder = new int[backTargets.length];
+        }
+        for (int i = 0; i < count; i++) {
+            backOrder[i] = i;
+        }
+        final double[] distances = backDistances;
+        IntArrays.quickSort(backOrder, 0, count, (a, b) -> Double.compare(distances[a], distances[b]));
+
+        // 3. 按排序结果生成快照自己的数组（所有权转移给快照）
+        Target[] sortedTargets = new Target[count];
+        Vec3d[] sortedPositions = new Vec3d[count];
+        double[] sortedDistances = new double[count];
+        for (int i = 0; i < count; i++) {
+            int index = backOrder[i];
+            sortedTargets[i] = backTargets[index];
+            sortedPositions[i] = backPositions[index];
+            sortedDistances[i] = distances[index];
+        }
+        // 释放引用，避免临时数组拖住已移除的目标
+        Arrays.fill(backTargets, 0, count, null);
+        Arrays.fill(backPositions, 0, count, null);
+
+        snapshot = new TargetSnapshot(++epoch, viewerPos, sortedTargets, sortedPositions, sortedDistances);
+    }
+
+    /**
+     * 标记目标集合已变化，下次 tick 重新排序并发布快照
+     * 用于目标位置在追踪器之外变化的情况（如实体移动）
+     */
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+    /**
+     * 获取最近一次发布的目标快照
+     * 可在任意线程调用，无锁、无拷贝
+     *
+     * @return 按距离排序的不可变快照
+     */
+    public TargetSnapshot getSnapshot() {
+        return snapshot;
     }
 
     /**
@@ -73,8 +220,9 @@ public class TargetTracker {
      * @param target 目标对象
      */
     public void addOrUpdateTarget(Target target) {
-        target.updateLastSeen();
+        target.updateLastSeen(clock.getAsLong());
         activeTargets.put(target.getId(), target);
+        dirty.set(true);
     }
 
     /**
@@ -86,6 +234,32 @@ public class TargetTracker {
         targets.forEach(this::addOrUpdateTarget);
     }
 
+    /**
+     * 合并一批变化：先移除失效的目标，再添加新目标
+     * 用于矿脉聚类结果（合并、分裂时旧矿脉被新矿脉替换）
+     *
+     * @param added 新目标
+     * @param removed 失效的目标
+     */
+    public void applyChanges(List<? extends Target> added, List<? extends Target> removed) {
+        TrackerMergeEvent event = new TrackerMergeEvent();
+        event.begin();
+
+        for (Target target : removed) {
+            activeTargets.remove(target.getId());
+        }
+        addTargets(added);
+        dirty.set(true);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.added = added.size();
+            event.removed = removed.size();
+            event.trackerSize = activeTargets.size();
+            event.commit();
+        }
+    }
+
     /**
      * 移除目标
      *
@@ -93,7 +267,11 @@ public class TargetTracker {
      * @return 是否成功移除
      */
     public boolean removeTarget(UUID targetId) {
-        return activeTargets.remove(targetId) != null;
+        if (activeTargets.remove(targetId) != null) {
+            dirty.set(true);
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -131,29 +309,53 @@ public class TargetTracker {
 
     /**
      * 获取指定距离内的目标
+     * 1.21.9+ API: getPos() 改为 getEntityPos()
      *
      * @param viewer 观察者
      * @param maxDistance 最大距离
      * @return 距离内的目标列表
      */
     public List<Target> getTargetsWithinDistance(Entity viewer, float maxDistance) {
+        return getTargetsWithinDistance(viewer.getEntityPos(), maxDistance);
+    }
+
+    /**
+     * 获取指定距离内的目标
+     *
+     * @param origin 观察者位置
+     * @param maxDistance 最大距离
+     * @return 距离内的目标列表
+     */
+    public List<Target> getTargetsWithinDistance(Vec3d origin, float maxDistance) {
         double maxSquaredDistance = maxDistance * maxDistance;
         return activeTargets.values().stream()
-                .filter(t -> t.getSquaredDistanceTo(viewer) <= maxSquaredDistance)
-                .sorted(Comparator.comparingDouble(t -> t.getSquaredDistanceTo(viewer)))
+                .filter(t -> origin.squaredDistanceTo(t.getPosition()) <= maxSquaredDistance)
+                .sorted(Comparator.comparingDouble(t -> origin.squaredDistanceTo(t.getPosition())))
                 .collect(Collectors.toList());
     }
 
     /**
      * 获取最近的 N 个目标
+     * 1.21.9+ API: getPos() 改为 getEntityPos()
      *
      * @param viewer 观察者
      * @param count 数量
      * @return 最近的目标列表
      */
     public List<Target> getNearestTargets(Entity viewer, int count) {
+        return getNearestTargets(viewer.getEntityPos(), count);
+    }
+
+    /**
+     * 获取最近的 N 个目标
+     *
+     * @param origin 观察者位置
+     * @param count 数量
+     * @return 最近的目标列表
+     */
+    public List<Target> getNearestTargets(Vec3d origin, int count) {
         return activeTargets.values().stream()
-                .sorted(Comparator.comparingDouble(t -> t.getSquaredDistanceTo(viewer)))
+                .sorted(Comparator.comparingDouble(t -> origin.squaredDistanceTo(t.getPosition())))
                 .limit(count)
                 .collect(Collectors.toList());
     }
@@ -184,6 +386,8 @@ public class TargetTracker {
      */
     public void clear() {
         activeTargets.clear();
+        snapshot = TargetSnapshot.EMPTY;
+        dirty.set(true);
     }
 
     /**
@@ -193,6 +397,7 @@ public class TargetTracker {
      */
     public void clearType(TargetType type) {
         activeTargets.values().removeIf(target -> target.getType() == type);
+        dirty.set(true);
         io.github.yynps737.voxelptr.VoxelPtr.LOGGER.info("已清空类型为 {} 的目标", type);
     }
 }
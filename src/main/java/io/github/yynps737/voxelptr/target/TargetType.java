@@ -15,7 +15,7 @@ public enum TargetType {
     ENTITY,
 
     /**
-     * 结构目标（村庄、要塞等）- 未来实现
+     * 结构目标（地牢、末地传送门、试炼密室等多方块图案）
      */
     STRUCTURE
 }
@@ -0,0 +1,57 @@
+package io.github.yynps737.voxelptr.target.types;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.block.entity.BlockEntityType;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**
+ * 方块实体目标
+ * 表示一个被追踪的方块实体（刷怪笼、箱子等），由 BlockEntityScanner 生成
+ *
+ * 有效性按方块实体类型判断，而不是精确的方块状态：
+ * 箱子合并为大箱子（CHEST_TYPE）、熔炉点燃（LIT）、木桶打开（OPEN）等都会改变方块状态，
+ * 但方块实体仍然存在，不应从追踪器中移除
+ */
+public class BlockEntityTarget extends BlockTarget {
+
+    private final BlockEntityType<?> blockEntityType;
+
+    /**
+     * 构造函数
+     *
+     * @param pos 方块位置
+     * @param state 发现时的方块状态（用于显示名称和颜色）
+     * @param blockEntityType 方块实体类型
+     */
+    public BlockEntityTarget(BlockPos pos, BlockState state, BlockEntityType<?> blockEntityType) {
+        super(pos, state);
+        this.blockEntityType = blockEntityType;
+    }
+
+    @Override
+    public boolean isValid(World world) {
+        // 检查区块是否已加载
+        if (!world.isChunkLoaded(getBlockPos())) {
+            return true; // 区块未加载，假设仍有效（等待重新加载）
+        }
+
+        // 检查同类型的方块实体是否还存在
+        BlockEntity blockEntity = world.getBlockEntity(getBlockPos());
+        return blockEntity != null && blockEntity.getType() == blockEntityType;
+    }
+
+    /**
+     * 获取方块实体类型
+     */
+    public BlockEntityType<?> getBlockEntityType() {
+        return blockEntityType;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BlockEntityTarget{pos=%s, block=%s}",
+                getBlockPos(), getExpectedState().getBlock().getName().getString());
+    }
+}
@@ -62,6 +62,15 @@ public class BlockTarget extends Target {
 
         // 石英矿 - 白色
         BLOCK_COLORS.put(Blocks.NETHER_QUARTZ_ORE, 0xFFFFFFFF);
+
+        // 刷怪笼 - 紫色
+        BLOCK_COLORS.put(Blocks.SPAWNER, 0xFFAA00FF);
+        BLOCK_COLORS.put(Blocks.TRIAL_SPAWNER, 0xFFAA00FF);
+
+        // 箱子 - 木色
+        BLOCK_COLORS.put(Blocks.CHEST, 0xFFC8A064);
+        BLOCK_COLORS.put(Blocks.TRAPPED_CHEST, 0xFFC8A064);
+        BLOCK_COLORS.put(Blocks.BARREL, 0xFFC8A064);
     }
 
     private final BlockPos blockPos;
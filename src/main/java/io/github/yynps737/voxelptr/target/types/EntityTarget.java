@@ -0,0 +1,104 @@
+package io.github.yynps737.voxelptr.target.types;
+
+import io.github.yynps737.voxelptr.target.Target;
+import io.github.yynps737.voxelptr.target.TargetType;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.ItemEntity;
+import net.minecraft.entity.mob.Monster;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+/**
+ * 实体目标
+ * 表示一个被追踪的实体（敌对生物、掉落物、玩家等）
+ * 位置由 EntityEventScanner 每 tick 从实体同步，不轮询实体列表
+ */
+public class EntityTarget extends Target {
+
+    private static final int COLOR_HOSTILE = 0xFFFF5555;
+    private static final int COLOR_ITEM = 0xFFFFFF55;
+    private static final int COLOR_PLAYER = 0xFF55FFFF;
+    private static final int COLOR_OTHER = 0xFFFFFFFF;
+
+    /**
+     * 实体离上次报告的位置超过该平方距离时才报告移动（1 格）
+     * 大量生物同时走动时，追踪器不必每 tick 都重新排序
+     */
+    private static final double MOVE_REPORT_THRESHOLD_SQ = 1.0;
+
+    private final Entity entity;
+    private final int color;
+
+    /**
+     * 上次报告移动时的位置
+     */
+    private Vec3d reportedPosition;
+
+    public EntityTarget(Entity entity) {
+        // 1.21.9+ API: getPos() 改为 getEntityPos()
+        super(TargetType.ENTITY, entity.getEntityPos());
+        this.entity = entity;
+        this.color = resolveColor(entity);
+        this.reportedPosition = position;
+    }
+
+    private static int resolveColor(Entity entity) {
+        if (entity instanceof Monster) {
+            return COLOR_HOSTILE;
+        }
+        if (entity instanceof ItemEntity) {
+            return COLOR_ITEM;
+        }
+        if (entity instanceof PlayerEntity) {
+            return COLOR_PLAYER;
+        }
+        return COLOR_OTHER;
+    }
+
+    /**
+     * 从实体同步位置
+     * 位置每次都更新，但只有离上次报告的位置足够远时才返回 true
+     *
+     * @return true 如果移动距离超过阈值（追踪器需要重新排序）
+     */
+    public boolean syncPosition() {
+        Vec3d current = entity.getEntityPos();
+        if (current.equals(position)) {
+            return false;
+        }
+        this.position = current;
+        if (current.squaredDistanceTo(reportedPosition) < MOVE_REPORT_THRESHOLD_SQ) {
+            return false;
+        }
+        this.reportedPosition = current;
+        return true;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return entity.getName().getString();
+    }
+
+    @Override
+    public boolean isValid(World world) {
+        return valid && entity.isAlive() && !entity.isRemoved();
+    }
+
+    @Override
+    public int getColor() {
+        return color;
+    }
+
+    /**
+     * 获取被追踪的实体
+     */
+    public Entity getEntity() {
+        return entity;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EntityTarget{entity=%s, pos=%s}", entity.getType().getUntranslatedName(), position);
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.yynps737.voxelptr.target.types;
+
+import io.github.yynps737.voxelptr.scanner.StructurePattern;
+import io.github.yynps737.voxelptr.target.Target;
+import io.github.yynps737.voxelptr.target.TargetType;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+import java.util.List;
+
+/**
+ * 结构目标
+ * 一次图案匹配对应一个目标（而不是每个方块一个），如一个地牢、一个末地传送门
+ *
+ * - 位置为所有锚点方块中心的质心
+ * - 由 StructureScanner 在区块扫描时生成，锚点列表不可变
+ */
+public class StructureTarget extends Target {
+
+    private final StructurePattern pattern;
+    private final List<BlockPos> anchors;
+    private final BlockBox boundingBox;
+
+    /**
+     * 构造函数
+     *
+     * @param pattern 匹配的图案
+     * @param anchors 匹配到的锚点方块坐标（至少一个）
+     */
+    public StructureTarget(StructurePattern pattern, List<BlockPos> anchors) {
+        super(TargetType.STRUCTURE, computeCentroid(anchors));
+        this.pattern = pattern;
+        this.anchors = List.copyOf(anchors);
+        this.boundingBox = BlockBox.encompassPositions(anchors).orElseThrow();
+    }
+
+    private static Vec3d computeCentroid(List<BlockPos> anchors) {
+        double x = 0;
+        double y = 0;
+        double z = 0;
+        for (BlockPos pos : anchors) {
+            x += pos.getX();
+            y += pos.getY();
+            z += pos.getZ();
+        }
+        int count = anchors.size();
+        return new Vec3d(x / count + 0.5, y / count + 0.5, z / count + 0.5);
+    }
+
+    @Override
+    public String getDisplayName() {
+        return Text.translatable(pattern.getTranslationKey()).getString();
+    }
+
+    @Override
+    public boolean isValid(World world) {
+        // 只要还有一个锚点存在，结构就有效
+        for (BlockPos pos : anchors) {
+            if (!world.isChunkLoaded(pos) || pattern.isAnchor(world.getBlockState(pos))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getColor() {
+        return pattern.getColor();
+    }
+
+    /**
+     * 获取匹配的图案
+     */
+    public StructurePattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * 获取锚点方块坐标（不可修改）
+     */
+    public List<BlockPos> getAnchors() {
+        return anchors;
+    }
+
+    /**
+     * 获取包围盒（方块坐标，包含边界）
+     */
+    public BlockBox getBoundingBox() {
+        return boundingBox;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StructureTarget{pattern=%s, center=%s, anchors=%d}",
+                pattern.getId(), position, anchors.size());
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.yynps737.voxelptr.target.types;
+
+import io.github.yynps737.voxelptr.target.Target;
+import io.github.yynps737.voxelptr.target.TargetType;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+import java.util.List;
+
+/**
+ * 矿脉目标
+ * 一组面相邻或棱相邻的目标方块，作为一个整体被追踪和显示
+ *
+ * - 位置为所有方块中心的质心
+ * - 记录方块数量和包围盒
+ * - 由 VeinClusterer 在扫描时生成，成员列表不可变
+ * - 生命周期由 VeinClusterer 管理（区块淘汰、方块更新时通知移除），追踪器不按过期时间或有效性清理，
+ *   否则聚类器仍持有的矿脉会从追踪器中消失
+ */
+public class VeinTarget extends Target {
+
+    private final List<BlockTarget> blocks;
+    private final BlockBox boundingBox;
+
+    /**
+     * 显示名称（首次使用时生成，之后每帧复用；成员不可变，名称不会变化）
+     */
+    private String displayName;
+
+    /**
+     * 构造函数
+     *
+     * @param blocks 矿脉包含的方块（至少一个）
+     */
+    public VeinTarget(List<BlockTarget> blocks) {
+        super(TargetType.BLOCK, computeCentroid(blocks));
+        this.blocks = List.copyOf(blocks);
+        this.boundingBox = computeBoundingBox(blocks);
+    }
+
+    private static Vec3d computeCentroid(List<BlockTarget> blocks) {
+        double x = 0;
+        double y = 0;
+        double z = 0;
+        for (BlockTarget block : blocks) {
+            BlockPos pos = block.getBlockPos();
+            x += pos.getX();
+            y += pos.getY();
+            z += pos.getZ();
+        }
+        int count = blocks.size();
+        return new Vec3d(x / count + 0.5, y / count + 0.5, z / count + 0.5);
+    }
+
+    private static BlockBox computeBoundingBox(List<BlockTarget> blocks) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (BlockTarget block : blocks) {
+            BlockPos pos = block.getBlockPos();
+            minX = Math.min(minX, pos.getX());
+            minY = Math.min(minY, pos.getY());
+            minZ = Math.min(minZ, pos.getZ());
+            maxX = Math.max(maxX, pos.getX());
+            maxY = Math.max(maxY, pos.getY());
+            maxZ = Math.max(maxZ, pos.getZ());
+        }
+        return new BlockBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    @Override
+    public String getDisplayName() {
+        String name = displayName;
+        if (name == null) {
+            name = blocks.get(0).getDisplayName();
+            if (blocks.size() > 1) {
+                name = name + " x" + blocks.size();
+            }
+            displayName = name;
+        }
+        return name;
+    }
+
+    @Override
+    public boolean isScannerManaged() {
+        return true;
+    }
+
+    @Override
+    public boolean isValid(World world) {
+        // 只要还有一个方块存在，矿脉就有效（被挖掉的方块由方块更新事件移出矿脉）
+        for (BlockTarget block : blocks) {
+            if (block.isValid(world)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getColor() {
+        return blocks.get(0).getColor();
+    }
+
+    /**
+     * 获取矿脉包含的方块（不可修改）
+     */
+    public List<BlockTarget> getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * 获取方块数量
+     */
+    public int getBlockCount() {
+        return blocks.size();
+    }
+
+    /**
+     * 获取包围盒（方块坐标，包含边界）
+     */
+    public BlockBox getBoundingBox() {
+        return boundingBox;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("VeinTarget{center=%s, blocks=%d, box=%s}",
+                position, blocks.size(), boundingBox);
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.yynps737.voxelptr.trace;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 区块事件记录的二进制格式
+ *
+ * 文件整体经 GZIP 压缩，结构如下：
+ * - 文件头：MAGIC(int)、VERSION(int)、游戏版本(UTF)、预设(UTF)、最大距离过滤(float)、开始时间(long, 毫秒)
+ * - 事件序列：类型(byte)、距上一事件的时间(varlong, 纳秒)、事件数据
+ *   - CHUNK_LOAD：区块 X、Z、最底部区块段 Y（zigzag varint）、区块段数(varint)，
+ *     每个区块段为游程数(varint，0 表示空区块段) + 游程（方块状态原始 ID、长度，均为 varint），按 y、z、x 顺序展开
+ *   - BLOCK_UPDATE：方块 X、Y、Z（zigzag varint）、方块状态原始 ID(varint)
+ *   - PLAYER_POS：X、Y、Z(double)，每个客户端 tick 一次
+ *   - CHUNK_UNLOAD：区块 X、Z（zigzag varint），版本 2 起记录
+ *   - END：记录结束
+ *
+ * 方块状态原始 ID 只在相同游戏版本之间有效，文件头记录游戏版本供重放时校验
+ * 版本 1 的记录没有区块卸载事件，读取器仍然支持
+ */
+public final class TraceFormat {
+
+    public static final int MAGIC = 0x56505452; // "VPTR"
+    public static final int VERSION = 2;
+
+    /**
+     * 开始记录区块卸载事件的版本
+     */
+    public static final int VERSION_CHUNK_UNLOAD = 2;
+
+    public static final int END = 0;
+    public static final int CHUNK_LOAD = 1;
+    public static final int BLOCK_UPDATE = 2;
+    public static final int PLAYER_POS = 3;
+    public static final int CHUNK_UNLOAD = 4;
+
+    /**
+     * 每个区块段的方块数
+     */
+    public static final int SECTION_VOLUME = 16 * 16 * 16;
+
+    private TraceFormat() {
+    }
+
+    public static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    public static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarInt 过长");
+    }
+
+    public static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    public static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarLong 过长");
+    }
+
+    /**
+     * 有符号整数的 zigzag 编码（绝对值小的负数也只占一个字节）
+     */
+    public static void writeSignedVarInt(DataOutput out, int value) throws IOException {
+        writeVarInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    public static int readSignedVarInt(DataInput in) throws IOException {
+        int value = readVarInt(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
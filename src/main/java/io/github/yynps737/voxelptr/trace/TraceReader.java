@@ -0,0 +1,223 @@
+package io.github.yynps737.voxelptr.trace;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 区块事件记录读取器（格式见 TraceFormat）
+ * 按顺序逐个读取事件，当前事件的数据通过 getter 获取，下一次 next() 后失效
+ */
+public final class TraceReader implements Closeable {
+
+    private final DataInputStream in;
+
+    private final int version;
+    private final String gameVersion;
+    private final String preset;
+    private final float maxDistance;
+    private final long startMillis;
+
+    private boolean finished;
+
+    // 当前事件
+    private int type;
+    private long timeNanos;
+    private int x;
+    private int y;
+    private int z;
+    private int bottomSectionCoord;
+    private int[][] sectionStates = new int[0][];
+    private int stateId;
+    private double playerX;
+    private double playerY;
+    private double playerZ;
+
+    public TraceReader(Path path) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path)), 1 << 16));
+        if (in.readInt() != TraceFormat.MAGIC) {
+            in.close();
+            throw new IOException("不是区块事件记录文件: " + path);
+        }
+        this.version = in.readInt();
+        if (version < 1 || version > TraceFormat.VERSION) {
+            in.close();
+            throw new IOException("不支持的记录格式版本: " + version);
+        }
+        this.gameVersion = in.readUTF();
+        this.preset = in.readUTF();
+        this.maxDistance = in.readFloat();
+        this.startMillis = in.readLong();
+    }
+
+    /**
+     * 读取下一个事件
+     *
+     * @return 事件类型，记录结束（包括文件被截断）时返回 TraceFormat.END
+     */
+    public int next() throws IOException {
+        if (finished) {
+            return TraceFormat.END;
+        }
+        try {
+            type = in.readUnsignedByte();
+            if (type == TraceFormat.END) {
+                finished = true;
+                return type;
+            }
+            timeNanos += TraceFormat.readVarLong(in);
+            switch (type) {
+                case TraceFormat.CHUNK_LOAD -> readChunkLoad();
+                case TraceFormat.BLOCK_UPDATE -> {
+                    x = TraceFormat.readSignedVarInt(in);
+                    y = TraceFormat.readSignedVarInt(in);
+                    z = TraceFormat.readSignedVarInt(in);
+                    stateId = TraceFormat.readVarInt(in);
+                }
+                case TraceFormat.PLAYER_POS -> {
+                    playerX = in.readDouble();
+                    playerY = in.readDouble();
+                    playerZ = in.readDouble();
+                }
+                case TraceFormat.CHUNK_UNLOAD -> {
+                    x = TraceFormat.readSignedVarInt(in);
+                    z = TraceFormat.readSignedVarInt(in);
+                }
+                default -> throw new IOException("未知的事件类型: " + type);
+            }
+            return type;
+        } catch (EOFException e) {
+            // 游戏异常退出时记录没有 END 标记，读到末尾即视为结束
+            type = TraceFormat.END;
+            finished = true;
+            return type;
+        }
+    }
+
+    private void readChunkLoad() throws IOException {
+        x = TraceFormat.readSignedVarInt(in);
+        z = TraceFormat.readSignedVarInt(in);
+        bottomSectionCoord = TraceFormat.readSignedVarInt(in);
+        int sectionCount = TraceFormat.readVarInt(in);
+        sectionStates = new int[sectionCount][];
+        for (int i = 0; i < sectionCount; i++) {
+            int runs = TraceFormat.readVarInt(in);
+            if (runs == 0) {
+                continue; // 空区块段
+            }
+            int[] states = new int[TraceFormat.SECTION_VOLUME];
+            int index = 0;
+            for (int run = 0; run < runs; run++) {
+                int id = TraceFormat.readVarInt(in);
+                int length = TraceFormat.readVarInt(in);
+                if (index + length > states.length) {
+                    throw new IOException("区块段数据损坏");
+                }
+                Arrays.fill(states, index, index + length, id);
+                index += length;
+            }
+            sectionStates[i] = states;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // ========== 文件头 ==========
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * 记录是否包含区块卸载事件（版本 1 的记录没有）
+     */
+    public boolean hasChunkUnloads() {
+        return version >= TraceFormat.VERSION_CHUNK_UNLOAD;
+    }
+
+    public String getGameVersion() {
+        return gameVersion;
+    }
+
+    public String getPreset() {
+        return preset;
+    }
+
+    public float getMaxDistance() {
+        return maxDistance;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    // ========== 当前事件 ==========
+
+    /**
+     * 当前事件距记录开始的时间（纳秒）
+     */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    /**
+     * CHUNK_LOAD、CHUNK_UNLOAD 的区块 X 坐标，BLOCK_UPDATE 的方块 X 坐标
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * BLOCK_UPDATE 的方块 Y 坐标
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * CHUNK_LOAD、CHUNK_UNLOAD 的区块 Z 坐标，BLOCK_UPDATE 的方块 Z 坐标
+     */
+    public int getZ() {
+        return z;
+    }
+
+    public int getBottomSectionCoord() {
+        return bottomSectionCoord;
+    }
+
+    /**
+     * CHUNK_LOAD 的区块段数据：每个区块段按 y、z、x 顺序展开的方块状态原始 ID，空区块段为 null
+     */
+    public int[][] getSectionStates() {
+        return sectionStates;
+    }
+
+    /**
+     * BLOCK_UPDATE 的方块状态原始 ID
+     */
+    public int getStateId() {
+        return stateId;
+    }
+
+    public double getPlayerX() {
+        return playerX;
+    }
+
+    public double getPlayerY() {
+        return playerY;
+    }
+
+    public double getPlayerZ() {
+        return playerZ;
+    }
+}
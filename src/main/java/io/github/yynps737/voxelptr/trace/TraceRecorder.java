@@ -0,0 +1,331 @@
+package io.github.yynps737.voxelptr.trace;
+
+import io.github.yynps737.voxelptr.VoxelPtr;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 区块事件记录器
+ * 把到达客户端的区块加载、卸载、方块更新和玩家位置按顺序写入紧凑的二进制记录（格式见 TraceFormat），
+ * 供离线重放器按原始顺序全速重放，把一次卡顿的游戏过程变成可重复的回归基准
+ *
+ * - 未开始记录时 getActive() 返回 null，事件入口只多一次 volatile 读取
+ * - 客户端线程只复制区块段的调色板容器并记录时间戳，游程编码和 GZIP 压缩在单独的写入线程完成，
+ *   不拖慢被记录的区块加载本身（事件按提交顺序写入，时间间隔仍以事件发生时刻计算）
+ * - 写入失败时停止记录并输出错误日志，不影响游戏
+ */
+public final class TraceRecorder {
+
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /**
+     * 当前正在进行的记录
+     */
+    private static volatile TraceRecorder active;
+
+    /**
+     * 关闭记录时等待写入线程写完积压事件的最长时间（秒）
+     */
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    private final Path path;
+
+    /**
+     * 写入线程（单线程，保证事件按提交顺序写入）
+     */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "VoxelPtr-TraceWriter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean closed;
+
+    // 以下字段只在写入线程访问
+    private final DataOutputStream out;
+    private long lastEventNanos;
+    private long eventCount;
+    private boolean failed;
+
+    // 区块段游程编码缓冲区（跨区块复用）
+    private final int[] runIds = new int[TraceFormat.SECTION_VOLUME];
+    private final int[] runLengths = new int[TraceFormat.SECTION_VOLUME];
+
+    private TraceRecorder(Path path, String preset, float maxDistance) throws IOException {
+        this.path = path;
+        this.out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(path)), 1 << 16));
+        out.writeInt(TraceFormat.MAGIC);
+        out.writeInt(TraceFormat.VERSION);
+        // 1.21.6+ API: GameVersion.getName() 改为 name()
+        out.writeUTF(SharedConstants.getGameVersion().name());
+        out.writeUTF(preset);
+        out.writeFloat(maxDistance);
+        out.writeLong(System.currentTimeMillis());
+        this.lastEventNanos = System.nanoTime();
+    }
+
+    /**
+     * 获取当前正在进行的记录
+     *
+     * @return 记录器，未在记录时返回 null
+     */
+    public static TraceRecorder getActive() {
+        return active;
+    }
+
+    /**
+     * 开始记录（已在记录时先结束上一份记录）
+     *
+     * @param directory 记录文件目录
+     * @param preset 当前方块预设（重放时默认使用）
+     * @param maxDistance 当前最大距离过滤（重放时默认使用）
+     * @return 记录文件路径，失败时返回 null
+     */
+    public static synchronized Path start(Path directory, String preset, float maxDistance) {
+        stop();
+        try {
+            Files.createDirectories(directory);
+            Path path = directory.resolve("trace-" + LocalDateTime.now().format(FILE_NAME_FORMAT) + ".vpt");
+            active = new TraceRecorder(path, preset, maxDistance);
+            VoxelPtr.LOGGER.info("开始记录区块事件: {}", path);
+            return path;
+        } catch (IOException e) {
+            VoxelPtr.LOGGER.error("无法创建区块事件记录", e);
+            return null;
+        }
+    }
+
+    /**
+     * 结束当前记录
+     */
+    public static synchronized void stop() {
+        TraceRecorder recorder = active;
+        if (recorder == null) {
+            return;
+        }
+        active = null;
+        recorder.close();
+    }
+
+    /**
+     * 记录区块加载
+     * 客户端线程只复制调色板容器（区块段之后可能被方块更新修改），编码和压缩在写入线程完成
+     *
+     * @param pos 区块坐标
+     * @param bottomSectionCoord 最底部区块段的 Y 坐标
+     * @param sections 区块段数组（从底部开始）
+     */
+    public synchronized void recordChunkLoad(ChunkPos pos, int bottomSectionCoord, ChunkSection[] sections) {
+        if (closed) {
+            return; // 记录已结束（调用方在结束前取得了记录器）
+        }
+        long now = System.nanoTime();
+        @SuppressWarnings("unchecked")
+        PalettedContainer<BlockState>[] copies = new PalettedContainer[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            ChunkSection section = sections[i];
+            copies[i] = section == null || section.isEmpty() ? null : section.getBlockStateContainer().copy();
+        }
+
+        submit(() -> {
+            beginEvent(TraceFormat.CHUNK_LOAD, now);
+            TraceFormat.writeSignedVarInt(out, pos.x);
+            TraceFormat.writeSignedVarInt(out, pos.z);
+            TraceFormat.writeSignedVarInt(out, bottomSectionCoord);
+            TraceFormat.writeVarInt(out, copies.length);
+            for (PalettedContainer<BlockState> states : copies) {
+                writeSection(states);
+            }
+        });
+    }
+
+    /**
+     * 记录区块卸载（重放器据此释放区块数据）
+     *
+     * @param pos 区块坐标
+     */
+    public synchronized void recordChunkUnload(ChunkPos pos) {
+        if (closed) {
+            return; // 记录已结束（调用方在结束前取得了记录器）
+        }
+        long now = System.nanoTime();
+        submit(() -> {
+            beginEvent(TraceFormat.CHUNK_UNLOAD, now);
+            TraceFormat.writeSignedVarInt(out, pos.x);
+            TraceFormat.writeSignedVarInt(out, pos.z);
+        });
+    }
+
+    /**
+     * 记录方块更新
+     *
+     * @param pos 方块坐标
+     * @param state 新的方块状态
+     */
+    public synchronized void recordBlockUpdate(BlockPos pos, BlockState state) {
+        if (closed) {
+            return; // 记录已结束（调用方在结束前取得了记录器）
+        }
+        long now = System.nanoTime();
+        BlockPos immutable = pos.toImmutable();
+        submit(() -> {
+            beginEvent(TraceFormat.BLOCK_UPDATE, now);
+            TraceFormat.writeSignedVarInt(out, immutable.getX());
+            TraceFormat.writeSignedVarInt(out, immutable.getY());
+            TraceFormat.writeSignedVarInt(out, immutable.getZ());
+            TraceFormat.writeVarInt(out, Block.getRawIdFromState(state));
+        });
+    }
+
+    /**
+     * 记录玩家位置（每个客户端 tick 一次，重放时作为 tick 边界）
+     *
+     * @param pos 玩家位置
+     */
+    public synchronized void recordPlayerPos(Vec3d pos) {
+        if (closed) {
+            return; // 记录已结束（调用方在结束前取得了记录器）
+        }
+        long now = System.nanoTime();
+        submit(() -> {
+            beginEvent(TraceFormat.PLAYER_POS, now);
+            out.writeDouble(pos.x);
+            out.writeDouble(pos.y);
+            out.writeDouble(pos.z);
+        });
+    }
+
+    /**
+     * 写入操作
+     */
+    @FunctionalInterface
+    private interface WriteTask {
+        void write() throws IOException;
+    }
+
+    /**
+     * 把写入操作交给写入线程（调用方持有锁，保证提交顺序与事件顺序一致）
+     */
+    private void submit(WriteTask task) {
+        writer.execute(() -> {
+            if (failed) {
+                return; // 写入失败后丢弃积压的事件
+            }
+            try {
+                task.write();
+            } catch (IOException e) {
+                fail(e);
+            }
+        });
+    }
+
+    private void beginEvent(int type, long eventNanos) throws IOException {
+        out.writeByte(type);
+        TraceFormat.writeVarLong(out, Math.max(0L, eventNanos - lastEventNanos));
+        lastEventNanos = eventNanos;
+        eventCount++;
+    }
+
+    /**
+     * 区块段按 y、z、x 顺序游程编码（石头、深板岩为主的区块段只有几百个游程）
+     *
+     * @param states 区块段方块状态的副本，空区块段为 null
+     */
+    private void writeSection(PalettedContainer<BlockState> states) throws IOException {
+        if (states == null) {
+            TraceFormat.writeVarInt(out, 0);
+            return;
+        }
+
+        int runs = 0;
+        int currentId = -1;
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    int id = Block.getRawIdFromState(states.get(x, y, z));
+                    if (id == currentId) {
+                        runLengths[runs - 1]++;
+                    } else {
+                        currentId = id;
+                        runIds[runs] = id;
+                        runLengths[runs] = 1;
+                        runs++;
+                    }
+                }
+            }
+        }
+
+        TraceFormat.writeVarInt(out, runs);
+        for (int i = 0; i < runs; i++) {
+            TraceFormat.writeVarInt(out, runIds[i]);
+            TraceFormat.writeVarInt(out, runLengths[i]);
+        }
+    }
+
+    /**
+     * 写入失败（写入线程调用）：停止记录并关闭文件
+     */
+    private void fail(IOException e) {
+        VoxelPtr.LOGGER.error("写入区块事件记录失败，已停止记录: {}", path, e);
+        if (active == this) {
+            active = null;
+        }
+        closed = true;
+        failed = true;
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // 已在失败处理中，忽略关闭错误
+        }
+    }
+
+    /**
+     * 结束记录：写入线程写完积压的事件后写入结束标记并关闭文件
+     */
+    private synchronized void close() {
+        if (closed) {
+            writer.shutdown();
+            return;
+        }
+        closed = true;
+        writer.execute(() -> {
+            if (failed) {
+                return; // 文件已在写入失败时关闭
+            }
+            try {
+                out.writeByte(TraceFormat.END);
+                out.close();
+                VoxelPtr.LOGGER.info("区块事件记录已保存: {}（{} 个事件）", path, eventCount);
+            } catch (IOException e) {
+                VoxelPtr.LOGGER.error("关闭区块事件记录失败: {}", path, e);
+            }
+        });
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                VoxelPtr.LOGGER.error("等待区块事件记录写入超时: {}", path);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}